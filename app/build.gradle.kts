@@ -28,6 +28,8 @@ android {
         resValue("string", "MAPS_API_KEY", mapApiKey)
         val urlApi = properties.getProperty("URL_API")
         resValue("string", "URL_API", urlApi)
+        val deltaSync = properties.getProperty("DELTA_SYNC", "false")
+        buildConfigField("boolean", "DELTA_SYNC", deltaSync)
     }
 
     buildTypes {
@@ -42,6 +44,7 @@ android {
     }
     buildFeatures {
         viewBinding = true
+        buildConfig = true
     }
 }
 val room_version = "2.6.1"
@@ -57,6 +60,8 @@ dependencies {
     implementation("androidx.room:room-guava:$room_version")
     testImplementation("androidx.room:room-testing:$room_version")
     implementation("androidx.room:room-paging:$room_version")
+    implementation("androidx.paging:paging-runtime:3.2.1")
+    implementation("androidx.paging:paging-guava:3.2.1")
     implementation("androidx.preference:preference:1.2.1")
     implementation("com.github.bumptech.glide:glide:4.16.0")
     implementation("de.hdodenhof:circleimageview:3.1.0")
@@ -83,6 +88,7 @@ dependencies {
     implementation("androidx.compose.ui:ui-text-android:1.6.4")
     implementation("com.github.dhaval2404:imagepicker:2.1")
     testImplementation("junit:junit:4.13.2")
+    testImplementation("com.squareup.okhttp3:mockwebserver:3.14.9")
     androidTestImplementation("androidx.test.ext:junit:1.1.5")
     androidTestImplementation("androidx.test.espresso:espresso-core:3.5.1")
     //noinspection AnnotationProcessorOnCompilePath
@@ -90,7 +96,6 @@ dependencies {
     annotationProcessor("org.projectlombok:lombok:1.18.30")
     implementation("com.squareup.retrofit2:retrofit:2.10.0")
     implementation("com.squareup.retrofit2:converter-jackson:2.1.0")
-    implementation("org.locationtech.jts:jts-core:1.19.0")
     implementation("org.mindrot:jbcrypt:0.4")
     implementation("org.postgis:postgis-jdbc:1.3.3") {
         exclude(group = "org.postgis", module = "postgis-stubs")
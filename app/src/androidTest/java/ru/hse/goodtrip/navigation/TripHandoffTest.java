@@ -0,0 +1,136 @@
+package ru.hse.goodtrip.navigation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import android.os.Bundle;
+import android.os.Parcel;
+import android.util.Log;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import java.net.MalformedURLException;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import ru.hse.goodtrip.data.model.trips.Trip;
+import ru.hse.goodtrip.network.NetworkManager;
+
+@RunWith(AndroidJUnit4.class)
+public class TripHandoffTest {
+
+  private final TripHandoff handoff = TripHandoff.getInstance();
+
+  @BeforeClass
+  public static void setUpNetwork() {
+    NetworkManager.setBaseUrl("http://localhost/");
+  }
+
+  @After
+  public void clearHandoff() {
+    handoff.clear();
+  }
+
+  private static int sizeOf(Bundle bundle) {
+    Parcel parcel = Parcel.obtain();
+    try {
+      parcel.writeBundle(bundle);
+      return parcel.dataSize();
+    } finally {
+      parcel.recycle();
+    }
+  }
+
+  @Test
+  public void testArgumentsHoldOnlyIdAndAuthor() throws MalformedURLException {
+    Trip trip = TripParcelTest.createTrip(1001);
+
+    Bundle args = handoff.toArguments(trip);
+
+    assertEquals(1001, args.getInt(TripHandoff.TRIP_ID_ARG));
+    assertTrue(args.containsKey(TripHandoff.TRIP_VERSION_ARG));
+    assertFalse(args.containsKey(TripHandoff.TRIP_PARCEL_ARG));
+    assertEquals(trip.getUser().getId(), args.getInt(TripHandoff.AUTHOR_ID_ARG));
+    assertEquals("Author", args.getString(TripHandoff.AUTHOR_NAME_ARG));
+    assertEquals("https://example.com/a.png", args.getString(TripHandoff.AUTHOR_PHOTO_ARG));
+  }
+
+  @Test
+  public void testArgumentsAreSmallerThanSerializedTrip() throws MalformedURLException {
+    Trip trip = TripParcelTest.createTrip(1005);
+    Bundle serialized = new Bundle();
+    serialized.putSerializable("trip", trip);
+
+    int argumentBytes = sizeOf(handoff.toArguments(trip));
+    int serializedBytes = sizeOf(serialized);
+
+    Log.i(TripHandoffTest.class.getSimpleName(),
+        "args " + argumentBytes + "B, serialized trip " + serializedBytes + "B");
+    assertTrue(argumentBytes * 2 < serializedBytes);
+  }
+
+  @Test
+  public void testPeekReturnsHandedOverTrip() throws MalformedURLException {
+    Trip trip = TripParcelTest.createTrip(1002);
+
+    Bundle args = handoff.toArguments(trip);
+
+    assertSame(trip, handoff.peek(args));
+    assertSame(trip, handoff.peek(args));
+  }
+
+  @Test
+  public void testPeekReturnsLatestHandoffOfTrip() throws MalformedURLException {
+    Trip first = TripParcelTest.createTrip(1003);
+    Trip second = TripParcelTest.createTrip(1003);
+
+    Bundle oldArgs = handoff.toArguments(first);
+    Bundle newArgs = handoff.toArguments(second);
+
+    assertTrue(newArgs.getInt(TripHandoff.TRIP_VERSION_ARG)
+        > oldArgs.getInt(TripHandoff.TRIP_VERSION_ARG));
+    assertSame(second, handoff.peek(oldArgs));
+    assertSame(second, handoff.peek(newArgs));
+  }
+
+  @Test
+  public void testTripWithoutIdIsParceled() throws MalformedURLException {
+    Trip trip = TripParcelTest.createTrip(null);
+
+    Bundle args = handoff.toArguments(trip);
+
+    assertFalse(args.containsKey(TripHandoff.TRIP_ID_ARG));
+    Trip peeked = handoff.peek(args);
+    assertEquals(trip, peeked);
+  }
+
+  @Test
+  public void testClearForgetsTrips() throws MalformedURLException {
+    Bundle args = handoff.toArguments(TripParcelTest.createTrip(1004));
+
+    handoff.clear();
+
+    assertNull(handoff.peek(args));
+  }
+
+  @Test
+  public void testArgumentsSurviveParcel() throws MalformedURLException {
+    Trip trip = TripParcelTest.createTrip(null);
+    Bundle args = handoff.toArguments(trip);
+
+    Parcel parcel = Parcel.obtain();
+    try {
+      parcel.writeBundle(args);
+      parcel.setDataPosition(0);
+      Bundle restored = parcel.readBundle(TripParcel.class.getClassLoader());
+      Trip peeked = handoff.peek(restored);
+      assertNotSame(trip, peeked);
+      assertEquals(trip, peeked);
+    } finally {
+      parcel.recycle();
+    }
+  }
+}
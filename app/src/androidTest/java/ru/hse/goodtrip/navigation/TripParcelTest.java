@@ -0,0 +1,94 @@
+package ru.hse.goodtrip.navigation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import android.os.Parcel;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import ru.hse.goodtrip.data.model.User;
+import ru.hse.goodtrip.data.model.trips.City;
+import ru.hse.goodtrip.data.model.trips.Coordinates;
+import ru.hse.goodtrip.data.model.trips.Country;
+import ru.hse.goodtrip.data.model.trips.CountryVisit;
+import ru.hse.goodtrip.data.model.trips.Note;
+import ru.hse.goodtrip.data.model.trips.ShowPlace;
+import ru.hse.goodtrip.data.model.trips.Trip;
+import ru.hse.goodtrip.network.NetworkManager;
+import ru.hse.goodtrip.network.trips.model.TripState;
+
+@RunWith(AndroidJUnit4.class)
+public class TripParcelTest {
+
+  @BeforeClass
+  public static void setUpNetwork() {
+    NetworkManager.setBaseUrl("http://localhost/");
+  }
+
+  static Trip createTrip(Integer tripId) throws MalformedURLException {
+    Country country = new Country("Parcelland", new Coordinates(46.2, 2.2));
+    List<City> cities = Arrays.asList(
+        new City("Parcel City", new Coordinates(48.8566, 2.3522), country),
+        new City("Other Parcel City", new Coordinates(45.764, 4.8357), country));
+    List<CountryVisit> countries = new ArrayList<>();
+    countries.add(new CountryVisit(country, cities));
+    User author = new User(-42, "author", "Author", new URL("https://example.com/a.png"), null);
+    Trip trip = new Trip("Parcel trip", countries, LocalDate.of(2024, 5, 1),
+        LocalDate.of(2024, 5, 10), LocalDate.of(2024, 5, 12), "https://example.com/t.png", 700,
+        new HashSet<>(Collections.singletonList(new ShowPlace("Tower",
+            new Coordinates(48.8584, 2.2945), new File("tower.png")))),
+        author, tripId, TripState.PUBLISHED);
+    List<Note> notes = new ArrayList<>();
+    notes.add(new Note("Museum", "Long queue", null, country));
+    notes.add(new Note("Street", null, "https://example.com/n.png", null));
+    trip.setNotes(notes);
+    return trip;
+  }
+
+  private static Trip roundTrip(Trip trip) {
+    Parcel parcel = Parcel.obtain();
+    try {
+      new TripParcel(trip).writeToParcel(parcel, 0);
+      parcel.setDataPosition(0);
+      return TripParcel.CREATOR.createFromParcel(parcel).getTrip();
+    } finally {
+      parcel.recycle();
+    }
+  }
+
+  @Test
+  public void testTripSurvivesRoundTrip() throws MalformedURLException {
+    Trip trip = createTrip(null);
+
+    Trip restored = roundTrip(trip);
+
+    assertEquals(trip, restored);
+    assertEquals(trip.getRoute().size(), restored.getRoute().size());
+    assertEquals(trip.getRoute().getLengthMeters(), restored.getRoute().getLengthMeters(), 1e-6);
+  }
+
+  @Test
+  public void testEmptyTripSurvivesRoundTrip() {
+    Trip trip = new Trip(null, new ArrayList<>(), null, null, null, null, 0, new HashSet<>(),
+        null, 7, null);
+    trip.setNotes(new ArrayList<>());
+
+    Trip restored = roundTrip(trip);
+
+    assertEquals(trip, restored);
+    assertNull(restored.getUser());
+    assertNull(restored.getTripState());
+    assertEquals(Integer.valueOf(7), restored.getTripId());
+  }
+}
@@ -23,6 +23,7 @@ public class MainActivity extends AppCompatActivity {
     FirebaseApp.initializeApp(this);
     String urlApi = getResources().getString(R.string.URL_API);
     NetworkManager.setBaseUrl(urlApi);
+    NetworkManager.setCacheDirectory(getCacheDir());
     ru.hse.goodtrip.databinding.ActivityMainBinding binding = ActivityMainBinding.inflate(
         getLayoutInflater());
     setContentView(binding.getRoot());
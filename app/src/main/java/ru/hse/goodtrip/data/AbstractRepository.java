@@ -2,82 +2,203 @@ package ru.hse.goodtrip.data;
 
 import android.util.Log;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
-import org.locationtech.jts.geom.CoordinateXY;
-import org.locationtech.jts.geom.GeometryFactory;
-import org.locationtech.jts.geom.Point;
+import lombok.Getter;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.Callback;
+import retrofit2.Invocation;
 import retrofit2.Response;
 import ru.hse.goodtrip.data.model.Result;
-import ru.hse.goodtrip.data.model.ResultHolder;
+import ru.hse.goodtrip.executors.AppExecutors;
+import ru.hse.goodtrip.network.CircuitBreaker;
+import ru.hse.goodtrip.network.CircuitOpenException;
+import ru.hse.goodtrip.network.NetworkException;
+import ru.hse.goodtrip.network.NetworkManager;
+import ru.hse.goodtrip.network.RetryPolicy;
+import ru.hse.goodtrip.network.metrics.EndpointMetrics;
+import ru.hse.goodtrip.network.metrics.MetricsRegistry;
 
 abstract class AbstractRepository {
 
-  protected static final int SRID = 4326;
-  protected static final GeometryFactory factory = new GeometryFactory();
-
+  protected static final long COALESCING_FRESHNESS_MILLIS = 2000;
+  private static final int MAX_ERROR_BODY_LENGTH = 1024;
+  protected final AppExecutors executors = AppExecutors.getInstance();
+  @Getter
+  protected final RequestCoalescer coalescer = new RequestCoalescer(COALESCING_FRESHNESS_MILLIS);
 
   protected AbstractRepository() {
   }
 
   /**
-   * Constructs Point from x and y coordinate.
+   * Make a callback which completes future when response is received. Transient failures of
+   * idempotent calls are retried with backoff, and every outcome is reported to circuit breaker of
+   * the service.
    *
-   * @param x x coordinate.
-   * @param y y coordinate.
-   * @return Point.
-   */
-  protected static Point createNewPoint(double x, double y) {
-    Point point = factory.createPoint(new CoordinateXY(x, y));
-    point.setSRID(SRID);
-    return point;
-  }
-
-  /**
-   * Make a callback.
-   *
-   * @param resultHolder result Holder.
+   * @param future       future to complete.
+   * @param attempts     number of attempts made including this one.
+   * @param errorMessage message of error if request failed.
+   * @param handler      handler of successful response body.
    * @return callback.
    */
-  protected <T> Callback<T> getCallback(ResultHolder<T> resultHolder, String errorMessage,
+  protected <T> Callback<T> getCallback(CallFuture<T> future, int attempts, String errorMessage,
       Consumer<T> handler) {
     return new Callback<T>() {
       @Override
       public void onResponse(@NonNull Call<T> call, @NonNull Response<T> response) {
-        Log.d("Response", "Response " + response.body());
-        Log.d("Response", "Response for request" + call.request());
+        CircuitBreaker breaker = getCircuitBreaker(call);
+        if (response.code() >= 500) {
+          breaker.onFailure();
+        } else {
+          breaker.onSuccess();
+        }
+        if (!response.isSuccessful()) {
+          fail(call, new NetworkException(errorMessage, response.code(),
+              readErrorBody(response), null));
+          return;
+        }
         T responseBody = response.body();
         if (responseBody == null) {
-          resultHolder.setResult(
-              new Result.Error<>(new InterruptedException(errorMessage))
-          );
-        } else {
+          fail(call, new NetworkException(errorMessage, response.code(), null));
+          return;
+        }
+        EndpointMetrics metrics = MetricsRegistry.getInstance().endpoint(call.request());
+        long start = System.nanoTime();
+        try {
           handler.accept(responseBody);
-          resultHolder.setResult(new Result.Success<>(responseBody));
+        } catch (RuntimeException e) {
+          metrics.getFailedResults().incrementAndGet();
+          future.complete(new Result.Error<>(e));
+          return;
+        } finally {
+          metrics.getHandlerTime().recordNanos(System.nanoTime() - start);
         }
+        future.complete(new Result.Success<>(responseBody));
       }
 
       @Override
       public void onFailure(@NonNull Call<T> call, @NonNull Throwable throwable) {
-        Log.println(Log.DEBUG, "Response", "Response failed" + throwable);
-        Log.d("Response", "Response for request" + call.request());
-        resultHolder.setResult(new Result.Error<>(new InterruptedException(errorMessage)));
+        if (call.isCanceled()) {
+          getCircuitBreaker(call).onCancelled();
+          return;
+        }
+        if (throwable instanceof JsonProcessingException) {
+          getCircuitBreaker(call).onSuccess();
+          fail(call, new NetworkException(errorMessage, NetworkException.UNDECODABLE_RESPONSE,
+              throwable));
+          return;
+        }
+        Log.d("Response", "Request failed: " + throwable);
+        getCircuitBreaker(call).onFailure();
+        fail(call, new NetworkException(errorMessage, NetworkException.NO_RESPONSE, throwable));
+      }
+
+      private void fail(Call<T> call, NetworkException error) {
+        RetryPolicy policy = NetworkManager.getInstance().getRetryPolicy();
+        if (future.isDone() || !policy.shouldRetry(call.request(), error, attempts)) {
+          MetricsRegistry.getInstance().endpoint(call.request()).getFailedResults()
+              .incrementAndGet();
+          future.complete(new Result.Error<>(error));
+          return;
+        }
+        executors.scheduled().schedule(
+            () -> attempt(future, call.clone(), attempts + 1, errorMessage, handler),
+            policy.delayMillis(attempts), TimeUnit.MILLISECONDS);
       }
     };
   }
 
-  protected <T> CompletableFuture<Result<T>> getCompletableFuture(ResultHolder<T> resultHolder) {
-    return CompletableFuture.supplyAsync(() -> {
-          Log.d(this.getClass().getName(),
-              "Result holder started to wait latch, latch count now:" + resultHolder.latchCount());
-          resultHolder.awaitForResult();
-          Log.d(this.getClass().getName(),
-              "Result holder is latched, result:" + resultHolder.getResult());
-          return resultHolder.getResult();
-        }
-    );
+  /**
+   * Reads body of error response. Retrofit buffers error bodies, so it doesn't block on network.
+   *
+   * @param response error response.
+   * @return at most {@value #MAX_ERROR_BODY_LENGTH} characters of body, null if there is none.
+   */
+  @Nullable
+  private static String readErrorBody(Response<?> response) {
+    ResponseBody errorBody = response.errorBody();
+    if (errorBody == null) {
+      return null;
+    }
+    try {
+      String body = errorBody.string();
+      return body.length() > MAX_ERROR_BODY_LENGTH ? body.substring(0, MAX_ERROR_BODY_LENGTH)
+          : body;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private <T> void attempt(CallFuture<T> future, Call<T> call, int attempts,
+      String errorMessage, Consumer<T> handler) {
+    if (!future.attach(call)) {
+      return;
+    }
+    if (!getCircuitBreaker(call).allowRequest()) {
+      MetricsRegistry.getInstance().endpoint(call.request()).getFailedResults().incrementAndGet();
+      future.complete(new Result.Error<>(new CircuitOpenException(errorMessage)));
+      return;
+    }
+    call.enqueue(getCallback(future, attempts, errorMessage, handler));
+  }
+
+  private CircuitBreaker getCircuitBreaker(Call<?> call) {
+    Invocation invocation = call.request().tag(Invocation.class);
+    Class<?> service = invocation == null ? getClass()
+        : invocation.method().getDeclaringClass();
+    return NetworkManager.getInstance().getCircuitBreaker(service);
+  }
+
+  /**
+   * Enqueues call and returns future which is completed from the callback of call, so no thread
+   * waits for response while request is in flight. Cancelling returned future cancels the call.
+   * Failed result holds {@link NetworkException} with status code of response.
+   *
+   * @param call         call to enqueue.
+   * @param errorMessage message of error if request failed.
+   * @param handler      handler of successful response body.
+   * @return CompletableFuture of Result of call.
+   */
+  protected <T> CallFuture<T> enqueue(Call<T> call, String errorMessage, Consumer<T> handler) {
+    CallFuture<T> future = new CallFuture<>(call);
+    attempt(future, call, 1, errorMessage, handler);
+    return future;
+  }
+
+  /**
+   * Serves cached data as soon as it is loaded while network request revalidates it in the
+   * background. If nothing is cached, result of network request is returned; if network request
+   * fails, cached data is returned when it is available.
+   *
+   * @param cached  future of cached data, completed with null if nothing is cached.
+   * @param network future of network request.
+   * @param <T>     type of data.
+   * @return future of the first available result.
+   */
+  protected static <T> CompletableFuture<Result<T>> staleWhileRevalidate(
+      CompletableFuture<T> cached, CompletableFuture<Result<T>> network) {
+    CompletableFuture<Result<T>> result = new CompletableFuture<>();
+    cached.whenComplete((data, throwable) -> {
+      if (data != null) {
+        result.complete(new Result.Success<>(data));
+      }
+    });
+    network.whenComplete((data, throwable) -> {
+      if (throwable != null) {
+        result.completeExceptionally(throwable);
+      } else if (data.isSuccess()) {
+        result.complete(data);
+      } else {
+        cached.whenComplete((cachedData, cacheThrowable) -> result.complete(
+            cachedData != null ? new Result.Success<>(cachedData) : data));
+      }
+    });
+    return CallFuture.cancelling(result, network);
   }
 
   /**
@@ -0,0 +1,75 @@
+package ru.hse.goodtrip.data;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import retrofit2.Call;
+import ru.hse.goodtrip.data.model.Result;
+
+/**
+ * Future of result of Retrofit call. Cancelling the future cancels the call (or its current retry
+ * attempt), so its response is neither downloaded nor decoded.
+ *
+ * @param <T> type of response body.
+ */
+public class CallFuture<T> extends CompletableFuture<Result<T>> {
+
+  private static final AtomicLong cancelledCalls = new AtomicLong();
+
+  private volatile Call<T> call;
+
+  CallFuture(Call<T> call) {
+    this.call = call;
+  }
+
+  /**
+   * Number of calls cancelled through their futures.
+   *
+   * @return number of cancelled calls.
+   */
+  public static long getCancelledCount() {
+    return cancelledCalls.get();
+  }
+
+  /**
+   * Makes cancellation of downstream future cancel upstream future too.
+   *
+   * @param downstream future derived from upstream.
+   * @param upstream   future to cancel.
+   * @param <T>        type of downstream future.
+   * @return downstream future.
+   */
+  public static <T> CompletableFuture<T> cancelling(CompletableFuture<T> downstream,
+      CompletableFuture<?> upstream) {
+    downstream.whenComplete((result, throwable) -> {
+      if (downstream.isCancelled()) {
+        upstream.cancel(true);
+      }
+    });
+    return downstream;
+  }
+
+  /**
+   * Replaces call by its next attempt.
+   *
+   * @param next next attempt of call.
+   * @return false if future is already cancelled, then next attempt is cancelled too.
+   */
+  boolean attach(Call<T> next) {
+    call = next;
+    if (isCancelled()) {
+      next.cancel();
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public boolean cancel(boolean mayInterruptIfRunning) {
+    boolean cancelled = super.cancel(mayInterruptIfRunning);
+    if (cancelled) {
+      call.cancel();
+      cancelledCalls.incrementAndGet();
+    }
+    return cancelled;
+  }
+}
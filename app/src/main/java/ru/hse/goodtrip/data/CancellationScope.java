@@ -0,0 +1,36 @@
+package ru.hse.goodtrip.data;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps outstanding requests of owner (usually ViewModel) to cancel them when owner is cleared.
+ */
+public class CancellationScope {
+
+  private final Set<CompletableFuture<?>> outstanding = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Track future until it is completed.
+   *
+   * @param future future of request.
+   * @param <T>    type of future.
+   * @return same future.
+   */
+  public <T extends CompletableFuture<?>> T track(T future) {
+    outstanding.add(future);
+    future.whenComplete((result, throwable) -> outstanding.remove(future));
+    return future;
+  }
+
+  /**
+   * Cancel all outstanding requests.
+   */
+  public void cancelAll() {
+    for (CompletableFuture<?> future : outstanding) {
+      future.cancel(true);
+    }
+    outstanding.clear();
+  }
+}
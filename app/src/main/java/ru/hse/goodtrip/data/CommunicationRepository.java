@@ -4,7 +4,6 @@ import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import retrofit2.Call;
 import ru.hse.goodtrip.data.model.Result;
-import ru.hse.goodtrip.data.model.ResultHolder;
 import ru.hse.goodtrip.network.NetworkManager;
 import ru.hse.goodtrip.network.social.CommunicationService;
 import ru.hse.goodtrip.network.social.entities.User;
@@ -42,12 +41,9 @@ public class CommunicationRepository extends AbstractRepository {
    * @param token  Jwt token.
    */
   public void follow(int userId, String handle, String token) {
-    ResultHolder<String> resultHolder = new ResultHolder<>();
     Call<String> followCall = communicationService.follow(userId, handle, getWrappedToken(token));
-    followCall.enqueue(getCallback(resultHolder,
-        "Cannot follow user", (result) -> {
-        }));
-    getCompletableFuture(resultHolder);
+    enqueue(followCall, "Cannot follow user", (result) -> {
+    }).whenComplete((result, throwable) -> coalescer.invalidate("/communication/"));
   }
 
   /**
@@ -58,13 +54,10 @@ public class CommunicationRepository extends AbstractRepository {
    * @param token  Jwt token.
    */
   public void unfollow(int userId, String handle, String token) {
-    ResultHolder<String> resultHolder = new ResultHolder<>();
     Call<String> unfollowCall = communicationService.unfollow(userId, handle,
         getWrappedToken(token));
-    unfollowCall.enqueue(getCallback(resultHolder,
-        "Cannot unfollow user", (result) -> {
-        }));
-    getCompletableFuture(resultHolder);
+    enqueue(unfollowCall, "Cannot unfollow user", (result) -> {
+    }).whenComplete((result, throwable) -> coalescer.invalidate("/communication/"));
   }
 
   /**
@@ -75,13 +68,12 @@ public class CommunicationRepository extends AbstractRepository {
    * @return Completable Future of Result String.
    */
   public CompletableFuture<Result<List<User>>> getFollowers(int userId, String token) {
-    ResultHolder<List<User>> resultHolder = new ResultHolder<>();
-    Call<List<User>> getFollowersCall = communicationService.getFollowers(userId,
-        getWrappedToken(token));
-    getFollowersCall.enqueue(getCallback(resultHolder,
-        "Cannot get followers", (result) -> {
-        }));
-    return getCompletableFuture(resultHolder);
+    return coalescer.coalesce("/communication/followers?userId=" + userId, () -> {
+      Call<List<User>> getFollowersCall = communicationService.getFollowers(userId,
+          getWrappedToken(token));
+      return enqueue(getFollowersCall, "Cannot get followers", (result) -> {
+      });
+    });
   }
 
   /**
@@ -92,13 +84,12 @@ public class CommunicationRepository extends AbstractRepository {
    * @return Completable Future of Result List of User.
    */
   public CompletableFuture<Result<List<User>>> getSubscriptions(int userId, String token) {
-    ResultHolder<List<User>> resultHolder = new ResultHolder<>();
-    Call<List<User>> getSubscriptions = communicationService.getSubscriptions(userId,
-        getWrappedToken(token));
-    getSubscriptions.enqueue(getCallback(resultHolder,
-        "Cannot get subscription", (result) -> {
-        }));
-    return getCompletableFuture(resultHolder);
+    return coalescer.coalesce("/communication/subscriptions?userId=" + userId, () -> {
+      Call<List<User>> getSubscriptions = communicationService.getSubscriptions(userId,
+          getWrappedToken(token));
+      return enqueue(getSubscriptions, "Cannot get subscription", (result) -> {
+      });
+    });
   }
 
   /**
@@ -109,12 +100,11 @@ public class CommunicationRepository extends AbstractRepository {
    * @return Completable Future of network User class
    */
   public CompletableFuture<Result<User>> getUserByHandle(String handle, String token) {
-    ResultHolder<User> resultHolder = new ResultHolder<>();
-    Call<User> getUserByHandle = communicationService.getUserByHandle(handle,
-        getWrappedToken(token));
-    getUserByHandle.enqueue(getCallback(resultHolder,
-        "Cannot get user by handle", (result) -> {
-        }));
-    return getCompletableFuture(resultHolder);
+    return coalescer.coalesce("/user?handle=" + handle, () -> {
+      Call<User> getUserByHandle = communicationService.getUserByHandle(handle,
+          getWrappedToken(token));
+      return enqueue(getUserByHandle, "Cannot get user by handle", (result) -> {
+      });
+    });
   }
 }
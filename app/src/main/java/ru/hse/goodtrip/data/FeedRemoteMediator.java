@@ -0,0 +1,194 @@
+package ru.hse.goodtrip.data;
+
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.OptIn;
+import androidx.paging.ExperimentalPagingApi;
+import androidx.paging.ListenableFutureRemoteMediator;
+import androidx.paging.LoadType;
+import androidx.paging.PagingState;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import ru.hse.goodtrip.data.feed.FeedCursor;
+import ru.hse.goodtrip.data.feed.FeedPageTracker;
+import ru.hse.goodtrip.data.model.Result;
+import ru.hse.goodtrip.data.model.User;
+import ru.hse.goodtrip.network.NetworkManager;
+import ru.hse.goodtrip.network.trips.model.CountryVisit;
+import ru.hse.goodtrip.network.trips.model.TripState;
+import ru.hse.goodtrip.network.trips.model.TripView;
+import ru.hse.goodtrip.room.LocalStorage;
+import ru.hse.goodtrip.room.entities.FeedPostEntity;
+
+/**
+ * Loads pages of authors feed from the server into Room, feed is shown only from Room. Refresh
+ * replaces cached posts by the first page, append requests the page after the oldest cached post.
+ * Position in feed is kept by {@link FeedPageTracker}, so only posts not received before are
+ * written.
+ */
+@OptIn(markerClass = ExperimentalPagingApi.class)
+public class FeedRemoteMediator extends ListenableFutureRemoteMediator<Integer, FeedPostEntity> {
+
+  private static final int MAX_PAGES_PER_LOAD = 3;
+  private static final TypeReference<List<CountryVisit>> VISITS_TYPE =
+      new TypeReference<List<CountryVisit>>() {
+      };
+
+  private final LocalStorage database;
+  private final TripRepository tripRepository;
+  private final Executor executor;
+  private final FeedPageTracker tracker = new FeedPageTracker(FeedPageTracker.Mode.CURSOR);
+
+  /**
+   * Creates mediator.
+   *
+   * @param database       local storage with cached feed.
+   * @param tripRepository repository which requests pages.
+   * @param executor       executor of database operations.
+   */
+  public FeedRemoteMediator(LocalStorage database, TripRepository tripRepository,
+      Executor executor) {
+    this.database = database;
+    this.tripRepository = tripRepository;
+    this.executor = executor;
+  }
+
+  /**
+   * Converts post from network to cached post.
+   *
+   * @param post post from network.
+   * @return cached post.
+   */
+  public static FeedPostEntity getFeedPostFromTripView(TripView post) {
+    String visits;
+    try {
+      visits = NetworkManager.getObjectMapper().writeValueAsString(post.getVisits());
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Cannot serialize visits of post " + post.getId(), e);
+    }
+    return new FeedPostEntity(post.getId(), post.getDisplayName(), post.getUserMainPhotoUrl(),
+        post.getTitle(), post.getMoneyInUsd(), post.getMainPhotoUrl(),
+        post.getDepartureDate() == null ? null : post.getDepartureDate().getTime(),
+        post.getArrivalDate() == null ? null : post.getArrivalDate().getTime(),
+        post.getPublicationTimestamp() == null ? 0 : post.getPublicationTimestamp().getTime(),
+        post.getState() == null ? null : post.getState().name(), visits);
+  }
+
+  /**
+   * Converts cached post to post.
+   *
+   * @param post cached post.
+   * @return post.
+   */
+  public static TripView getTripViewFromFeedPost(FeedPostEntity post) {
+    List<CountryVisit> visits;
+    try {
+      visits = NetworkManager.getObjectMapper().readValue(post.visitsJson, VISITS_TYPE);
+    } catch (IOException e) {
+      Log.e(FeedRemoteMediator.class.getSimpleName(), "Cannot read visits of post: " + e);
+      visits = Collections.emptyList();
+    }
+    return new TripView(post.id, post.displayName, post.userMainPhotoUrl, post.title,
+        post.moneyInUsd, post.mainPhotoUrl,
+        post.departureDate == null ? null : new Date(post.departureDate),
+        post.arrivalDate == null ? null : new Date(post.arrivalDate),
+        new Timestamp(post.publicationTimestamp),
+        post.state == null ? null : TripState.valueOf(post.state), visits);
+  }
+
+  @NonNull
+  @Override
+  public ListenableFuture<MediatorResult> loadFuture(@NonNull LoadType loadType,
+      @NonNull PagingState<Integer, FeedPostEntity> state) {
+    if (loadType == LoadType.PREPEND) {
+      return Futures.immediateFuture(new MediatorResult.Success(true));
+    }
+    User user = UsersRepository.getInstance().getLoggedUser();
+    if (user == null) {
+      return Futures.immediateFuture(
+          new MediatorResult.Error(new IllegalStateException("User is not logged in")));
+    }
+    SettableFuture<MediatorResult> result = SettableFuture.create();
+    executor.execute(() -> {
+      if (result.isDone()) {
+        return;
+      }
+      boolean refresh = loadType == LoadType.REFRESH;
+      if (refresh) {
+        tracker.reset();
+      } else if (!tracker.isStarted()) {
+        FeedPostEntity oldest = database.feedDao().getOldest();
+        if (oldest != null) {
+          tracker.resume(database.feedDao().getIds(),
+              new FeedCursor(oldest.publicationTimestamp, oldest.id));
+        }
+      }
+      load(user, refresh, MAX_PAGES_PER_LOAD, result);
+    });
+    return result;
+  }
+
+  /**
+   * Requests next page. Page which holds only posts received before doesn't change the database,
+   * so Paging wouldn't ask to append again; such pages are skipped by requesting the next one.
+   */
+  private void load(User user, boolean refresh, int pagesLeft,
+      SettableFuture<MediatorResult> result) {
+    FeedPageTracker.PageRequest pageRequest = tracker.nextRequest();
+    FeedCursor cursor = pageRequest.getCursor();
+    CompletableFuture<Result<List<TripView>>> request = tripRepository.getAuthorsTrips(
+        user.getId(), pageRequest.getStart(), cursor == null ? null : cursor.encode(),
+        user.getToken());
+    result.addListener(() -> request.cancel(true), MoreExecutors.directExecutor());
+    request.whenCompleteAsync((response, throwable) -> {
+      if (result.isDone()) {
+        return;
+      }
+      if (throwable != null) {
+        result.setException(throwable);
+        return;
+      }
+      if (!response.isSuccess()) {
+        result.set(new MediatorResult.Error(((Result.Error<List<TripView>>) response).getError()));
+        return;
+      }
+      FeedPageTracker.Page page = tracker.accept(pageRequest,
+          ((Result.Success<List<TripView>>) response).getData());
+      try {
+        save(page.getPosts(), refresh);
+      } catch (RuntimeException e) {
+        result.set(new MediatorResult.Error(e));
+        return;
+      }
+      if (page.getPosts().isEmpty() && !page.isEndReached() && pagesLeft > 1) {
+        load(user, false, pagesLeft - 1, result);
+      } else {
+        result.set(new MediatorResult.Success(page.isEndReached()));
+      }
+    }, executor);
+  }
+
+  private void save(List<TripView> page, boolean refresh) {
+    List<FeedPostEntity> posts = new ArrayList<>(page.size());
+    for (TripView post : page) {
+      posts.add(getFeedPostFromTripView(post));
+    }
+    if (refresh) {
+      database.feedDao().replaceAll(posts);
+    } else {
+      database.feedDao().insertAll(posts);
+    }
+  }
+}
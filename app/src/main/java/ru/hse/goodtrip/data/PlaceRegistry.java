@@ -0,0 +1,224 @@
+package ru.hse.goodtrip.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import ru.hse.goodtrip.data.model.trips.AbstractPlace;
+import ru.hse.goodtrip.data.model.trips.City;
+import ru.hse.goodtrip.data.model.trips.Coordinates;
+import ru.hse.goodtrip.data.model.trips.Country;
+
+/**
+ * Registry of countries and cities shared by all trips, feed posts and maps, so that a place
+ * visited in many trips is held in memory once. Places are shared only if their names, ignoring
+ * surrounding spaces, and coordinates are equal, and for cities also their countries; names are
+ * compared with case, as they may be ids of places. Place requested without coordinates is the
+ * first one with known coordinates of that name, or a place with unknown coordinates until such
+ * one is registered.
+ */
+public class PlaceRegistry {
+
+  /**
+   * Coordinates of places whose position is not known.
+   */
+  public static final Coordinates UNKNOWN_COORDINATES = new Coordinates(0, 0);
+
+  private static volatile PlaceRegistry instance;
+
+  private final ConcurrentHashMap<PlaceKey, Country> countries = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<PlaceKey, City> cities = new ConcurrentHashMap<>();
+  /**
+   * Places returned for requests without coordinates, by name and country with no coordinates.
+   */
+  private final ConcurrentHashMap<PlaceKey, Country> countriesByName = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<PlaceKey, City> citiesByName = new ConcurrentHashMap<>();
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong created = new AtomicLong();
+
+  /**
+   * Get instance of PlaceRegistry.
+   *
+   * @return instance of PlaceRegistry.
+   */
+  public static PlaceRegistry getInstance() {
+    if (instance == null) {
+      synchronized (PlaceRegistry.class) {
+        if (instance == null) {
+          instance = new PlaceRegistry();
+        }
+      }
+    }
+    return instance;
+  }
+
+  private static String normalize(String name) {
+    return name == null ? "" : name.trim();
+  }
+
+  private static boolean isUnknown(Coordinates coordinates) {
+    return coordinates == null || coordinates.equals(UNKNOWN_COORDINATES);
+  }
+
+  private static Coordinates orUnknown(Coordinates coordinates) {
+    return isUnknown(coordinates) ? UNKNOWN_COORDINATES : coordinates;
+  }
+
+  /**
+   * Get shared place of key, creating it if registry doesn't know it. Place becomes the one
+   * returned by name, unless that one already has known coordinates. Place with unknown
+   * coordinates which is replaced by name is forgotten.
+   */
+  private <T extends AbstractPlace> T register(ConcurrentHashMap<PlaceKey, T> places,
+      ConcurrentHashMap<PlaceKey, T> byName, PlaceKey key, Supplier<T> factory) {
+    T place = places.get(key);
+    if (place == null) {
+      place = places.computeIfAbsent(key, ignored -> {
+        created.incrementAndGet();
+        return factory.get();
+      });
+    }
+    PlaceKey nameKey = key.withoutCoordinates();
+    T named = byName.get(nameKey);
+    if (named == null || named != place && isUnknown(named.getCoordinates())
+        && !isUnknown(place.getCoordinates())) {
+      T added = place;
+      byName.compute(nameKey, (ignored, existing) -> {
+        if (existing != null && (existing == added || !isUnknown(existing.getCoordinates()))) {
+          return existing;
+        }
+        if (existing != null) {
+          places.remove(key.withCoordinates(UNKNOWN_COORDINATES), existing);
+        }
+        return added;
+      });
+    }
+    return place;
+  }
+
+  /**
+   * Get shared country with unknown coordinates.
+   *
+   * @param name name of country.
+   * @return country.
+   */
+  public Country country(String name) {
+    return country(name, UNKNOWN_COORDINATES);
+  }
+
+  /**
+   * Get shared country.
+   *
+   * @param name        name of country or id of place.
+   * @param coordinates coordinates of country.
+   * @return country.
+   */
+  public Country country(String name, Coordinates coordinates) {
+    requests.incrementAndGet();
+    Coordinates position = orUnknown(coordinates);
+    PlaceKey key = new PlaceKey(normalize(name), position, null);
+    if (position == UNKNOWN_COORDINATES) {
+      Country named = countriesByName.get(key.withoutCoordinates());
+      if (named != null) {
+        return named;
+      }
+    }
+    return register(countries, countriesByName, key, () -> new Country(name, position));
+  }
+
+  /**
+   * Get shared city.
+   *
+   * @param name        name of city.
+   * @param coordinates coordinates of city.
+   * @param country     country of city, should be taken from registry.
+   * @return city.
+   */
+  public City city(String name, Coordinates coordinates, Country country) {
+    requests.incrementAndGet();
+    Coordinates position = orUnknown(coordinates);
+    PlaceKey key = new PlaceKey(normalize(name), position, country);
+    if (position == UNKNOWN_COORDINATES) {
+      City named = citiesByName.get(key.withoutCoordinates());
+      if (named != null) {
+        return named;
+      }
+    }
+    return register(cities, citiesByName, key, () -> new City(name, position, country));
+  }
+
+  /**
+   * Number of places in registry.
+   *
+   * @return number of countries and cities.
+   */
+  public int size() {
+    return countries.size() + cities.size();
+  }
+
+  /**
+   * Forget all places, e.g. when user logs out.
+   */
+  public void clear() {
+    countries.clear();
+    cities.clear();
+    countriesByName.clear();
+    citiesByName.clear();
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return String.format(Locale.US, "places: countries=%d cities=%d requests=%d created=%d",
+        countries.size(), cities.size(), requests.get(), created.get());
+  }
+
+  /**
+   * Key of place: name, coordinates, or null for key by name, and country of city, compared by
+   * identity as countries are taken from registry.
+   */
+  private static final class PlaceKey {
+
+    private final String name;
+    @Nullable
+    private final Coordinates coordinates;
+    @Nullable
+    private final Country country;
+
+    PlaceKey(String name, @Nullable Coordinates coordinates, @Nullable Country country) {
+      this.name = name;
+      this.coordinates = coordinates;
+      this.country = country;
+    }
+
+    PlaceKey withoutCoordinates() {
+      return new PlaceKey(name, null, country);
+    }
+
+    PlaceKey withCoordinates(Coordinates coordinates) {
+      return new PlaceKey(name, coordinates, country);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof PlaceKey)) {
+        return false;
+      }
+      PlaceKey other = (PlaceKey) o;
+      return country == other.country && name.equals(other.name)
+          && Objects.equals(coordinates, other.coordinates);
+    }
+
+    @Override
+    public int hashCode() {
+      return (name.hashCode() * 31 + Objects.hashCode(coordinates)) * 31
+          + System.identityHashCode(country);
+    }
+  }
+}
@@ -1,18 +1,14 @@
 package ru.hse.goodtrip.data;
 
 import androidx.annotation.Nullable;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
-import org.locationtech.jts.geom.Point;
 import retrofit2.Call;
 import ru.hse.goodtrip.data.model.Result;
-import ru.hse.goodtrip.data.model.ResultHolder;
+import ru.hse.goodtrip.data.model.trips.Coordinates;
 import ru.hse.goodtrip.network.NetworkManager;
 import ru.hse.goodtrip.network.places.PlacesService;
+import ru.hse.goodtrip.network.places.model.CoordinatesResponse;
 import ru.hse.goodtrip.network.places.model.PlaceRequest;
 import ru.hse.goodtrip.network.places.model.PlaceRequest.PlacesTypes;
 import ru.hse.goodtrip.network.places.model.PlaceResponse;
@@ -48,27 +44,24 @@ public class PlacesRepository extends AbstractRepository {
    *
    * @param placeName name of place.
    * @param token     Jwt token.
-   * @return CompletableFuture - point of requested place.
+   * @return CompletableFuture - coordinates of requested place.
    */
-  @SuppressWarnings({"unchecked", "ConstantConditions"})
-  public CompletableFuture<Result<Point>> getPlaceCoordinate(String placeName, String token) {
-    ResultHolder<Object> resultHolder = new ResultHolder<>();
-    Call<Object> getTripCall = placesService.getCoordinates(
-        placeName, getWrappedToken(token));
-    getTripCall.enqueue(getCallback(resultHolder,
-        "Cannot get place coordinate", (result) -> {
-        }));
-    return getCompletableFuture(resultHolder)
-        .thenApplyAsync(result -> {
-          if (result.isSuccess()) {
-            HashMap<Object, Object> response = (HashMap<Object, Object>)
-                ((Result.Success<Object>) result).getData();
-            return new Result.Success<>(
-                createNewPoint((Double) response.get("latitude"),
-                    (Double) response.get("longitude")));
-          }
-          return new Result.Error<>(new Exception(result.toString()));
+  public CompletableFuture<Result<Coordinates>> getPlaceCoordinate(String placeName, String token) {
+    CompletableFuture<Result<CoordinatesResponse>> request = coalescer.coalesce(
+        "/coordinates?city=" + placeName, () -> {
+          Call<CoordinatesResponse> getCoordinatesCall = placesService.getCoordinates(
+              placeName, getWrappedToken(token));
+          return enqueue(getCoordinatesCall, "Cannot get place coordinate", (result) -> {
+          });
         });
+    return CallFuture.cancelling(request.thenApply(result -> {
+      if (result.isSuccess()) {
+        CoordinatesResponse response = ((Result.Success<CoordinatesResponse>) result).getData();
+        return new Result.Success<>(
+            new Coordinates(response.getLatitude(), response.getLongitude()));
+      }
+      return new Result.Error<>(((Result.Error<CoordinatesResponse>) result).getError());
+    }), request);
   }
 
   /**
@@ -82,28 +75,17 @@ public class PlacesRepository extends AbstractRepository {
    * @param token  Jwt token.
    * @return CompletableFuture.
    */
-  @SuppressWarnings("unchecked")
   public CompletableFuture<Result<List<PlaceResponse>>> getPlacesNearby(double lat,
       double lng,
       int radius, @Nullable String rankBy,
       @Nullable PlacesTypes type, String token) {
-    ResultHolder<Object> resultHolder = new ResultHolder<>();
-    Call<Object> getTripCall = placesService.getNearPlaces(
-        new PlaceRequest(lng, lat, radius, rankBy, type), getWrappedToken(token));
-    getTripCall.enqueue(getCallback(resultHolder, "Cannot get places nearby", (result) -> {
-    }));
-    return getCompletableFuture(resultHolder).thenApplyAsync(result -> {
-      if (result.isSuccess()) {
-        List<LinkedHashMap<Object, Object>> bareResponse = (List<LinkedHashMap<Object, Object>>)
-            (((Result.Success<?>) result).getData());
-        ObjectMapper mapper = new ObjectMapper();
-        List<PlaceResponse> response = bareResponse
-            .stream()
-            .map(map -> mapper.convertValue(map, PlaceResponse.class))
-            .collect(Collectors.toList());
-        return new Result.Success<>(response);
-      }
-      return new Result.Error<>(new Exception(result.toString()));
+    String key = "/places?lat=" + lat + "&lng=" + lng + "&radius=" + radius + "&rankBy=" + rankBy
+        + "&type=" + type;
+    return coalescer.coalesce(key, () -> {
+      Call<List<PlaceResponse>> getNearPlacesCall = placesService.getNearPlaces(
+          new PlaceRequest(lng, lat, radius, rankBy, type), getWrappedToken(token));
+      return enqueue(getNearPlacesCall, "Cannot get places nearby", (result) -> {
+      });
     });
   }
 }
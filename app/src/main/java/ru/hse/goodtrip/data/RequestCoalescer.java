@@ -0,0 +1,175 @@
+package ru.hse.goodtrip.data;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.Getter;
+import lombok.Setter;
+import ru.hse.goodtrip.data.model.Result;
+
+/**
+ * Shares one in-flight request between concurrent callers with the same key. Successful results
+ * are also shared for a short freshness window after they arrive, errors are forgotten at once.
+ */
+public class RequestCoalescer {
+
+  private final ConcurrentHashMap<String, Entry<?>> entries = new ConcurrentHashMap<>();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  @Getter
+  @Setter
+  private volatile long freshnessMillis;
+
+  /**
+   * Creates coalescer.
+   *
+   * @param freshnessMillis time in milliseconds during which completed result is reused.
+   */
+  public RequestCoalescer(long freshnessMillis) {
+    this.freshnessMillis = freshnessMillis;
+  }
+
+  private static long now() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+  }
+
+  /**
+   * Returns future of in-flight or fresh request with this key, or starts new one with loader.
+   * Every caller gets its own future; the shared request is cancelled only when all callers
+   * waiting for it have cancelled their futures.
+   *
+   * @param key    endpoint and parameters of request.
+   * @param loader starts request.
+   * @param <T>    type of result.
+   * @return future of result of request with this key.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> CompletableFuture<Result<T>> coalesce(String key,
+      Supplier<CompletableFuture<Result<T>>> loader) {
+    Entry<T> created = new Entry<>();
+    Entry<T> entry = (Entry<T>) entries.compute(key, (k, existing) -> {
+      Entry<?> usable = isUsable(existing) ? existing : created;
+      usable.subscribers.incrementAndGet();
+      return usable;
+    });
+    if (entry != created) {
+      hits.incrementAndGet();
+      return subscribe(key, entry);
+    }
+    misses.incrementAndGet();
+    try {
+      created.request = loader.get();
+    } catch (RuntimeException e) {
+      entries.remove(key, created);
+      throw e;
+    }
+    created.request.whenComplete((result, throwable) -> {
+      if (throwable != null || result == null || !result.isSuccess()) {
+        entries.remove(key, created);
+      } else {
+        created.completedAt = now();
+      }
+      if (throwable != null) {
+        created.future.completeExceptionally(throwable);
+      } else {
+        created.future.complete(result);
+      }
+    });
+    return subscribe(key, created);
+  }
+
+  private <T> CompletableFuture<Result<T>> subscribe(String key, Entry<T> entry) {
+    CompletableFuture<Result<T>> subscriber = new CompletableFuture<>();
+    entry.future.whenComplete((result, throwable) -> {
+      if (throwable != null) {
+        subscriber.completeExceptionally(throwable);
+      } else {
+        subscriber.complete(result);
+      }
+    });
+    subscriber.whenComplete((result, throwable) -> {
+      if (subscriber.isCancelled() && unsubscribe(key, entry)) {
+        CompletableFuture<Result<T>> request = entry.request;
+        if (request != null) {
+          request.cancel(true);
+        }
+      }
+    });
+    return subscriber;
+  }
+
+  /**
+   * Removes cancelled subscriber of entry. Subscribers join in {@link #coalesce} under the same
+   * lock of key, so nobody joins the entry between the last subscriber leaving and its removal.
+   *
+   * @return true if it was the last subscriber of in-flight request, which should be cancelled.
+   */
+  private boolean unsubscribe(String key, Entry<?> entry) {
+    boolean[] abandoned = new boolean[1];
+    entries.compute(key, (k, current) -> {
+      if (entry.subscribers.decrementAndGet() == 0 && !entry.future.isDone()) {
+        abandoned[0] = true;
+        return current == entry ? null : current;
+      }
+      return current;
+    });
+    return abandoned[0];
+  }
+
+  private boolean isUsable(Entry<?> entry) {
+    if (entry == null) {
+      return false;
+    }
+    if (!entry.future.isDone()) {
+      // In-flight request which all callers have left is about to be cancelled.
+      return entry.subscribers.get() > 0;
+    }
+    long completedAt = entry.completedAt;
+    return completedAt != 0 && now() - completedAt <= freshnessMillis;
+  }
+
+  /**
+   * Forget all requests which keys start with prefix, so next calls go to the network.
+   *
+   * @param keyPrefix prefix of keys.
+   */
+  public void invalidate(String keyPrefix) {
+    entries.keySet().removeIf(key -> key.startsWith(keyPrefix));
+  }
+
+  /**
+   * Forget all requests.
+   */
+  public void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Number of calls served by in-flight or fresh request.
+   *
+   * @return number of hits.
+   */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  /**
+   * Number of calls which started new request.
+   *
+   * @return number of misses.
+   */
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  private static class Entry<T> {
+
+    private final CompletableFuture<Result<T>> future = new CompletableFuture<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private volatile CompletableFuture<Result<T>> request;
+    private volatile long completedAt;
+  }
+}
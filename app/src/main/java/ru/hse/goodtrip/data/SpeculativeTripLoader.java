@@ -0,0 +1,183 @@
+package ru.hse.goodtrip.data;
+
+import androidx.annotation.NonNull;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import ru.hse.goodtrip.data.feed.IntHashSet;
+import ru.hse.goodtrip.executors.AppExecutors;
+import ru.hse.goodtrip.network.NetworkManager;
+import ru.hse.goodtrip.network.metrics.ByteCounter;
+
+/**
+ * Loads trips of posts on which user lingers in the feed into {@link TripDetailsCache}, so that
+ * opened trip is shown without waiting for the server.
+ *
+ * <p>Speculative requests use a low priority lane: only one of them runs at a time, and it is
+ * started only when no other call is running or queued. Posts dwelled on most recently are loaded
+ * first. Bytes of speculative responses are limited by budget of the session; trips which were
+ * loaded but never opened are counted as wasted bytes.
+ */
+public class SpeculativeTripLoader {
+
+  private static final int MAX_PENDING = 8;
+  private static final int EXPECTED_TRIPS = 64;
+  private static final long BUSY_RETRY_MILLIS = 500;
+  private static final int NONE = -1;
+
+  private final TripRepository tripRepository;
+  private final long budgetBytes;
+  private final ArrayDeque<Integer> pending = new ArrayDeque<>(MAX_PENDING);
+  private final IntHashSet requested = new IntHashSet(EXPECTED_TRIPS);
+  /**
+   * Bytes of loaded trips which were not opened yet.
+   */
+  private final HashMap<Integer, Long> unopened = new HashMap<>();
+  private String token;
+  private int inFlightId = NONE;
+  private boolean retryScheduled;
+  private long spentBytes;
+  private long fetches;
+  private long failures;
+  private long hits;
+  private long fetchedBytes;
+  private long usedBytes;
+  private long skippedOverBudget;
+
+  /**
+   * Creates loader.
+   *
+   * @param tripRepository repository which loads and caches trips.
+   * @param budgetBytes    maximal bytes of speculative responses per session.
+   */
+  SpeculativeTripLoader(TripRepository tripRepository, long budgetBytes) {
+    this.tripRepository = tripRepository;
+    this.budgetBytes = budgetBytes;
+  }
+
+  /**
+   * Load trip in the background unless it is cached, already loaded or budget is spent.
+   *
+   * @param tripId id of trip.
+   * @param token  jwt token.
+   */
+  public synchronized void speculate(int tripId, String token) {
+    if (spentBytes >= budgetBytes) {
+      skippedOverBudget++;
+      return;
+    }
+    if (requested.contains(tripId) || pending.contains(tripId)
+        || tripRepository.getTripDetailsCache().contains(tripId)) {
+      return;
+    }
+    this.token = token;
+    pending.addFirst(tripId);
+    if (pending.size() > MAX_PENDING) {
+      pending.removeLast();
+    }
+    loadNext();
+  }
+
+  /**
+   * Account opening of trip, called by {@link TripRepository#getTripDetails}.
+   *
+   * @param tripId id of trip.
+   * @param cached whether trip was served from cache.
+   */
+  synchronized void onTripOpened(int tripId, boolean cached) {
+    if (tripId == inFlightId) {
+      // Request of the opened trip joins the speculative one, bytes are counted when it ends.
+      hits++;
+      unopened.remove(tripId);
+      return;
+    }
+    Long bytes = unopened.remove(tripId);
+    if (bytes != null && cached) {
+      hits++;
+      usedBytes += bytes;
+    }
+  }
+
+  /**
+   * Forget loaded trips and restore budget, called when user logs out.
+   */
+  public synchronized void reset() {
+    pending.clear();
+    requested.clear();
+    unopened.clear();
+    spentBytes = 0;
+    token = null;
+  }
+
+  private synchronized void retry() {
+    retryScheduled = false;
+    loadNext();
+  }
+
+  private synchronized void loadNext() {
+    if (inFlightId != NONE || pending.isEmpty() || token == null) {
+      return;
+    }
+    if (NetworkManager.getInstance().getActiveCallCount() > 0) {
+      if (!retryScheduled) {
+        retryScheduled = true;
+        AppExecutors.getInstance().scheduled()
+            .schedule(this::retry, BUSY_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+      }
+      return;
+    }
+    int tripId = pending.removeFirst();
+    requested.add(tripId);
+    inFlightId = tripId;
+    unopened.put(tripId, 0L);
+    ByteCounter responseSize = new ByteCounter();
+    tripRepository.loadTripDetails(tripId, token, responseSize)
+        .whenComplete((result, throwable) -> onLoaded(tripId, responseSize.get(),
+            throwable == null && result.isSuccess()));
+  }
+
+  private synchronized void onLoaded(int tripId, long bytes, boolean success) {
+    inFlightId = NONE;
+    fetches++;
+    spentBytes += bytes;
+    fetchedBytes += bytes;
+    if (!unopened.containsKey(tripId)) {
+      usedBytes += bytes;
+    } else if (success) {
+      unopened.put(tripId, bytes);
+    } else {
+      failures++;
+      unopened.remove(tripId);
+    }
+    loadNext();
+  }
+
+  /**
+   * Number of speculatively loaded trips which were opened.
+   *
+   * @return number of hits.
+   */
+  public synchronized long getHitCount() {
+    return hits;
+  }
+
+  /**
+   * Bytes of speculative responses of trips which were not opened.
+   *
+   * @return wasted bytes.
+   */
+  public synchronized long getWastedBytes() {
+    return fetchedBytes - usedBytes;
+  }
+
+  @NonNull
+  @Override
+  public synchronized String toString() {
+    return String.format(Locale.US,
+        "speculative trips: fetches=%d failures=%d hits=%d (%.1f%%) bytes=%d wasted=%d "
+            + "budget=%d/%d skipped=%d",
+        fetches, failures, hits, fetches == 0 ? 0.0 : 100.0 * hits / fetches, fetchedBytes,
+        fetchedBytes - usedBytes, spentBytes, budgetBytes, skippedOverBudget);
+  }
+}
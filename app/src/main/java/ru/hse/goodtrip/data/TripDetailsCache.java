@@ -0,0 +1,180 @@
+package ru.hse.goodtrip.data;
+
+import android.os.SystemClock;
+import android.util.LruCache;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import ru.hse.goodtrip.data.model.trips.City;
+import ru.hse.goodtrip.data.model.trips.CountryVisit;
+import ru.hse.goodtrip.data.model.trips.Note;
+import ru.hse.goodtrip.data.model.trips.Trip;
+
+/**
+ * In-memory cache of decoded trips keyed by trip id. Cache is bounded by estimated size of trips
+ * in bytes, least recently used trips are evicted first, and trips older than time to live are
+ * not served. Cached trips are shared between callers and should not be modified.
+ */
+public class TripDetailsCache {
+
+  private static final int TRIP_BYTES = 512;
+  private static final int NOTE_BYTES = 128;
+  private static final int PLACE_BYTES = 96;
+
+  private final LruCache<Integer, Entry> trips;
+  private final long timeToLiveMillis;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  private final AtomicLong expirations = new AtomicLong();
+
+  /**
+   * Creates cache.
+   *
+   * @param maxBytes         maximal estimated size of cached trips.
+   * @param timeToLiveMillis time during which cached trip is served.
+   */
+  public TripDetailsCache(int maxBytes, long timeToLiveMillis) {
+    this.timeToLiveMillis = timeToLiveMillis;
+    trips = new LruCache<Integer, Entry>(maxBytes) {
+      @Override
+      protected int sizeOf(@NonNull Integer key, @NonNull Entry value) {
+        return value.bytes;
+      }
+
+      @Override
+      protected void entryRemoved(boolean evicted, @NonNull Integer key, @NonNull Entry oldValue,
+          @Nullable Entry newValue) {
+        if (evicted) {
+          evictions.incrementAndGet();
+        }
+      }
+    };
+  }
+
+  private static int length(@Nullable String value) {
+    return value == null ? 0 : 2 * value.length();
+  }
+
+  /**
+   * Rough size of trip in memory: fixed size of objects plus characters of strings.
+   */
+  private static int estimateBytes(Trip trip) {
+    int bytes = TRIP_BYTES + length(trip.getTitle()) + length(trip.getMainPhotoUrl());
+    if (trip.getNotes() != null) {
+      for (Note note : trip.getNotes()) {
+        bytes += NOTE_BYTES + length(note.getHeadline()) + length(note.getNote())
+            + length(note.getPhotoUrl());
+      }
+    }
+    if (trip.getCountries() != null) {
+      for (CountryVisit visit : trip.getCountries()) {
+        bytes += PLACE_BYTES;
+        for (City city : visit.getVisitedCities()) {
+          bytes += PLACE_BYTES + length(city.getName());
+        }
+      }
+    }
+    return bytes + trip.getRoute().estimateBytes();
+  }
+
+  /**
+   * Get cached trip.
+   *
+   * @param tripId id of trip.
+   * @return trip, null if it isn't cached or expired.
+   */
+  @Nullable
+  public Trip get(int tripId) {
+    Entry entry = trips.get(tripId);
+    if (entry != null && SystemClock.elapsedRealtime() - entry.cachedAt > timeToLiveMillis) {
+      trips.remove(tripId);
+      expirations.incrementAndGet();
+      entry = null;
+    }
+    if (entry == null) {
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    return entry.trip;
+  }
+
+  /**
+   * Checks whether trip is cached and not expired, without counting a hit or a miss.
+   *
+   * @param tripId id of trip.
+   * @return true if trip would be served.
+   */
+  public boolean contains(int tripId) {
+    Entry entry = trips.get(tripId);
+    return entry != null && SystemClock.elapsedRealtime() - entry.cachedAt <= timeToLiveMillis;
+  }
+
+  /**
+   * Cache trip.
+   *
+   * @param tripId id of trip.
+   * @param trip   decoded trip.
+   */
+  public void put(int tripId, Trip trip) {
+    trips.put(tripId, new Entry(trip, estimateBytes(trip), SystemClock.elapsedRealtime()));
+  }
+
+  /**
+   * Remove trip from cache.
+   *
+   * @param tripId id of trip.
+   */
+  public void invalidate(int tripId) {
+    trips.remove(tripId);
+  }
+
+  /**
+   * Remove all trips from cache.
+   */
+  public void clear() {
+    for (Integer tripId : trips.snapshot().keySet()) {
+      trips.remove(tripId);
+    }
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+
+  public long getExpirationCount() {
+    return expirations.get();
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return String.format(Locale.US,
+        "trip cache: trips=%d bytes=%d/%d hits=%d misses=%d evictions=%d expirations=%d",
+        trips.snapshot().size(), trips.size(), trips.maxSize(), hits.get(), misses.get(),
+        evictions.get(), expirations.get());
+  }
+
+  private static class Entry {
+
+    private final Trip trip;
+    private final int bytes;
+    private final long cachedAt;
+
+    Entry(Trip trip, int bytes, long cachedAt) {
+      this.trip = trip;
+      this.bytes = bytes;
+      this.cachedAt = cachedAt;
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package ru.hse.goodtrip.data;
+
+import androidx.annotation.Nullable;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import ru.hse.goodtrip.data.model.User;
+import ru.hse.goodtrip.data.model.trips.City;
+import ru.hse.goodtrip.data.model.trips.Country;
+import ru.hse.goodtrip.data.model.trips.CountryVisit;
+import ru.hse.goodtrip.data.model.trips.Note;
+import ru.hse.goodtrip.data.model.trips.Trip;
+import ru.hse.goodtrip.network.trips.model.CityVisit;
+
+/**
+ * Converts trips received from the server to trips of user. Rules of time zone and author are
+ * resolved once per mapper, so a batch of trips is converted in one pass without repeating them
+ * for every trip, and lists are created with their final size. Countries and cities are taken from
+ * {@link PlaceRegistry}, so trips share them.
+ */
+public class TripMapper {
+
+  private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+
+  private final ZoneRules rules;
+  @Nullable
+  private final ZoneOffset fixedOffset;
+  @Nullable
+  private final User author;
+  private final PlaceRegistry places;
+
+  /**
+   * Creates mapper which shares places of {@link PlaceRegistry#getInstance()}.
+   *
+   * @param zone   time zone in which dates of trips are shown.
+   * @param author user set as author of mapped trips.
+   */
+  public TripMapper(ZoneId zone, @Nullable User author) {
+    this(zone, author, PlaceRegistry.getInstance());
+  }
+
+  /**
+   * Creates mapper.
+   *
+   * @param zone   time zone in which dates of trips are shown.
+   * @param author user set as author of mapped trips.
+   * @param places registry of places of trips.
+   */
+  public TripMapper(ZoneId zone, @Nullable User author, PlaceRegistry places) {
+    this.rules = zone.getRules();
+    this.fixedOffset = rules.isFixedOffset() ? rules.getOffset(Instant.EPOCH) : null;
+    this.author = author;
+    this.places = places;
+  }
+
+  /**
+   * Creates mapper of trips of logged user in default time zone.
+   *
+   * @return mapper.
+   */
+  public static TripMapper forLoggedUser() {
+    return new TripMapper(ZoneId.systemDefault(), UsersRepository.getInstance().getLoggedUser());
+  }
+
+  /**
+   * Local date of moment in time zone of mapper.
+   *
+   * @param date moment, may be null.
+   * @return date, null if moment is null.
+   */
+  @Nullable
+  public LocalDate toLocalDate(@Nullable java.util.Date date) {
+    if (date == null) {
+      return null;
+    }
+    long epochMillis = date.getTime();
+    ZoneOffset offset = fixedOffset != null ? fixedOffset
+        : rules.getOffset(Instant.ofEpochMilli(epochMillis));
+    long seconds = Math.floorDiv(epochMillis, 1000) + offset.getTotalSeconds();
+    return LocalDate.ofEpochDay(Math.floorDiv(seconds, SECONDS_PER_DAY));
+  }
+
+  /**
+   * Convert trips.
+   *
+   * @param responses trips from network.
+   * @return trips.
+   */
+  public List<Trip> mapAll(List<ru.hse.goodtrip.network.trips.model.Trip> responses) {
+    List<Trip> trips = new ArrayList<>(responses.size());
+    for (ru.hse.goodtrip.network.trips.model.Trip response : responses) {
+      trips.add(map(response));
+    }
+    return trips;
+  }
+
+  /**
+   * Convert trip, it is marked clean.
+   *
+   * @param response trip from network.
+   * @return trip.
+   */
+  public Trip map(ru.hse.goodtrip.network.trips.model.Trip response) {
+    Trip trip = new Trip(response.getTitle(), mapVisits(response.getVisits()),
+        toLocalDate(response.getDepartureDate()), toLocalDate(response.getArrivalDate()),
+        toLocalDate(response.getPublicationTimestamp()), response.getMainPhotoUrl(),
+        response.getMoneyInUsd(), new HashSet<>(), author, response.getId(),
+        response.getState());
+    trip.setNotes(mapNotes(response.getNotes()));
+    trip.markClean();
+    return trip;
+  }
+
+  private List<CountryVisit> mapVisits(
+      List<ru.hse.goodtrip.network.trips.model.CountryVisit> responses) {
+    List<CountryVisit> visits = new ArrayList<>(responses.size());
+    for (ru.hse.goodtrip.network.trips.model.CountryVisit response : responses) {
+      visits.add(mapVisit(response));
+    }
+    return visits;
+  }
+
+  /**
+   * Convert visit of country. Country unknown to registry is placed at its first visited city.
+   */
+  private CountryVisit mapVisit(ru.hse.goodtrip.network.trips.model.CountryVisit response) {
+    List<CityVisit> cityResponses = response.getCities();
+    Country country = cityResponses.isEmpty() ? places.country(response.getCountry())
+        : places.country(response.getCountry(), cityResponses.get(0).getPoint());
+    List<City> cities = new ArrayList<>(cityResponses.size());
+    for (CityVisit cityResponse : cityResponses) {
+      cities.add(places.city(cityResponse.getCity(), cityResponse.getPoint(), country));
+    }
+    return new CountryVisit(country, cities);
+  }
+
+  private List<Note> mapNotes(
+      List<ru.hse.goodtrip.network.trips.model.Note> responses) {
+    List<Note> notes = new ArrayList<>(responses.size());
+    for (ru.hse.goodtrip.network.trips.model.Note response : responses) {
+      notes.add(new Note(response.getTitle(), response.getText(), response.getPhotoUrl(),
+          places.country(response.getGooglePlaceId())));
+    }
+    return notes;
+  }
+}
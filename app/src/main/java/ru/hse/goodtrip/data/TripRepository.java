@@ -1,23 +1,36 @@
 package ru.hse.goodtrip.data;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.OptIn;
+import androidx.paging.ExperimentalPagingApi;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
 import java.sql.Date;
 import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import lombok.Getter;
-import org.locationtech.jts.geom.Point;
 import retrofit2.Call;
+import ru.hse.goodtrip.BuildConfig;
 import ru.hse.goodtrip.data.model.Result;
 import ru.hse.goodtrip.data.model.Result.Success;
-import ru.hse.goodtrip.data.model.ResultHolder;
+import ru.hse.goodtrip.data.model.User;
 import ru.hse.goodtrip.data.model.trips.Coordinates;
-import ru.hse.goodtrip.data.model.trips.Country;
+import ru.hse.goodtrip.data.model.trips.Trip.Field;
+import ru.hse.goodtrip.data.sync.TripSyncEngine;
+import ru.hse.goodtrip.network.NetworkException;
 import ru.hse.goodtrip.network.NetworkManager;
+import ru.hse.goodtrip.network.metrics.ByteCounter;
+import ru.hse.goodtrip.network.metrics.EndpointMetrics;
+import ru.hse.goodtrip.network.metrics.MetricsRegistry;
 import ru.hse.goodtrip.network.trips.TripService;
 import ru.hse.goodtrip.network.trips.model.AddCountryRequest;
 import ru.hse.goodtrip.network.trips.model.AddTripRequest;
@@ -26,22 +39,46 @@ import ru.hse.goodtrip.network.trips.model.CityVisit;
 import ru.hse.goodtrip.network.trips.model.CountryVisit;
 import ru.hse.goodtrip.network.trips.model.Note;
 import ru.hse.goodtrip.network.trips.model.Trip;
+import ru.hse.goodtrip.network.trips.model.TripChanges;
 import ru.hse.goodtrip.network.trips.model.TripView;
+import ru.hse.goodtrip.room.LocalStorage;
+import ru.hse.goodtrip.room.RoomImplementation;
+import ru.hse.goodtrip.room.entities.FeedPostEntity;
 
 public class TripRepository extends AbstractRepository {
 
+  private static final int FEED_PAGE_SIZE = 10;
+  private static final int FEED_PREFETCH_DISTANCE = 5;
+  private static final int FEED_MAX_SIZE = 60;
+  private static final int TRIP_CACHE_BYTES = 512 * 1024;
+  private static final long TRIP_CACHE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+  private static final long SPECULATIVE_BUDGET_BYTES = 1024 * 1024;
+  private static final String PATCH_ENDPOINT = "PATCH /trip/{tripId}";
+  private static final String UPDATE_ENDPOINT = "PUT /trip/update_trip";
 
   private static volatile TripRepository instance;
 
   private final TripService tripService;
+  private final TripStore tripStore = new TripStore(executors.disk());
   @Getter
-  private List<ru.hse.goodtrip.data.model.trips.Trip> userTrips = new ArrayList<>();
+  private final TripDetailsCache tripDetailsCache = new TripDetailsCache(TRIP_CACHE_BYTES,
+      TRIP_CACHE_TTL_MILLIS);
+  @Getter
+  private final SpeculativeTripLoader speculativeLoader;
   @Getter
-  private List<TripView> authorTrips = new ArrayList<>();
+  private final TripSyncEngine<ru.hse.goodtrip.data.model.trips.Trip> userTripsSync =
+      new TripSyncEngine<>(TripRepository::getTripFromTripResponse,
+          trip -> trip.getDirtyFields().isEmpty(), BuildConfig.DELTA_SYNC);
+  private Integer syncedUserId;
+  private volatile boolean patchSupported = true;
+  private Integer revalidatedUserId;
+  @Getter
+  private List<ru.hse.goodtrip.data.model.trips.Trip> userTrips = new ArrayList<>();
 
   private TripRepository() {
     super();
     this.tripService = NetworkManager.getInstance().getInstanceOfService(TripService.class);
+    this.speculativeLoader = new SpeculativeTripLoader(this, SPECULATIVE_BUDGET_BYTES);
   }
 
   public static TripRepository getInstance() {
@@ -51,14 +88,14 @@ public class TripRepository extends AbstractRepository {
     return instance;
   }
 
-  private static CompletableFuture<Point> getCoordinates(String name) {
+  private static CompletableFuture<Coordinates> getCoordinates(String name) {
     return PlacesRepository.getInstance().getPlaceCoordinate(name,
             UsersRepository.getInstance().getLoggedUser().getToken())
         .thenApply(pointResult -> {
           if (pointResult instanceof Result.Success) {
-            return ((Success<Point>) pointResult).getData();
+            return ((Success<Coordinates>) pointResult).getData();
           }
-          return createNewPoint(0, 0);
+          return PlaceRegistry.UNKNOWN_COORDINATES;
         });
   }
 
@@ -69,27 +106,7 @@ public class TripRepository extends AbstractRepository {
    * @return Trip.
    */
   public static ru.hse.goodtrip.data.model.trips.Trip getTripFromTripResponse(Trip tripResponse) {
-
-    ru.hse.goodtrip.data.model.trips.Trip result = new ru.hse.goodtrip.data.model.trips.Trip(
-        tripResponse.getTitle(), Collections.emptyList(),
-        tripResponse.getDepartureDate().toInstant()
-            .atZone(ZoneId.systemDefault()).toLocalDate(),
-        tripResponse.getArrivalDate().toInstant()
-            .atZone(ZoneId.systemDefault()).toLocalDate(),
-        tripResponse.getPublicationTimestamp().toInstant()
-            .atZone(ZoneId.systemDefault()).toLocalDate(),
-        tripResponse.getMainPhotoUrl(), tripResponse.getMoneyInUsd(),
-        new HashSet<>(), UsersRepository.getInstance()
-        .getLoggedUser(), tripResponse.getId(), tripResponse.getState());
-    List<ru.hse.goodtrip.data.model.trips.CountryVisit>
-        countryVisits = getCountryVisitsFromCountryVisitResponse(
-        tripResponse.getVisits());
-    List<ru.hse.goodtrip.data.model.trips.Note>
-        notes = getNotesFromNoteResponses(
-        tripResponse.getNotes());
-    result.setCountries(countryVisits);
-    result.setNotes(notes);
-    return result;
+    return TripMapper.forLoggedUser().map(tripResponse);
   }
 
   private static Note getNetworkNoteFromNote(int tripId,
@@ -109,9 +126,7 @@ public class TripRepository extends AbstractRepository {
 
   private static CityVisit getNetworkCityVisitFromCityVisit(
       ru.hse.goodtrip.data.model.trips.City city) {
-    return new CityVisit(null, city.getName(),
-        createNewPoint(city.getCoordinates().getLatitude(), city.getCoordinates().getLongitude())
-        , null);
+    return new CityVisit(null, city.getName(), city.getCoordinates(), null);
   }
 
   /**
@@ -136,172 +151,236 @@ public class TripRepository extends AbstractRepository {
   }
 
   /**
-   * Converts noteResponses to notes.
+   * Converts CountryVisit to AddCountryRequest, coordinates of cities are requested
+   * concurrently.
    *
-   * @param noteResponses Notes from network.
-   * @return List of notes.
+   * @param visit CountryVisit.
+   * @return CompletableFuture of Add Country Request.
    */
   @NonNull
-  public static List<ru.hse.goodtrip.data.model.trips.Note> getNotesFromNoteResponses(
-      List<Note> noteResponses) {
-    List<ru.hse.goodtrip.data.model.trips.Note> notes = new ArrayList<>();
-    for (Note noteResponse : noteResponses) {
-      notes.add(
-          new ru.hse.goodtrip.data.model.trips.Note(noteResponse.getTitle(),
-              noteResponse.getText(),
-              noteResponse.getPhotoUrl(),
-              new Country(noteResponse.getGooglePlaceId(),
-                  new Coordinates(0, 0)
-              )
-          )
-      );
+  public static CompletableFuture<AddCountryRequest> getAddCountryRequestFromCountryVisit(
+      ru.hse.goodtrip.data.model.trips.CountryVisit visit) {
+    String country = visit.getCountry().getName();
+    List<CompletableFuture<City>> cityFutures = new ArrayList<>();
+    for (ru.hse.goodtrip.data.model.trips.City cityVisitResponse : visit.getVisitedCities()) {
+      cityFutures.add(getCoordinates(country + " " + cityVisitResponse.getName())
+          .thenApply(point -> new City(cityVisitResponse.getName(), point.getLatitude(),
+              point.getLongitude())));
     }
-    return notes;
+    return CompletableFuture.allOf(cityFutures.toArray(new CompletableFuture[0]))
+        .thenApply(ignored -> {
+          List<City> cities = new ArrayList<>(cityFutures.size());
+          for (CompletableFuture<City> cityFuture : cityFutures) {
+            cities.add(cityFuture.join());
+          }
+          return new AddCountryRequest(country, cities);
+        });
   }
 
   /**
-   * Converts country visit response to country visit.
+   * Converts TripResponses to Trips.
    *
-   * @param countryVisitResponses Country visit responses.
-   * @return List of country visit.
+   * @param tripResponse trips from network.
+   * @return Returns list of trips.
    */
-  @NonNull
-  public static List<ru.hse.goodtrip.data.model.trips.CountryVisit> getCountryVisitsFromCountryVisitResponse(
-      List<CountryVisit> countryVisitResponses) {
-    List<ru.hse.goodtrip.data.model.trips.CountryVisit> countryVisits = new ArrayList<>();
-    for (CountryVisit visit : countryVisitResponses) {
-      countryVisits.add(
-          getCountryVisitFromCountryVisitResponse(visit));
-    }
-    return countryVisits;
+  public static List<ru.hse.goodtrip.data.model.trips.Trip> getTripsFromTripResponses(
+      List<Trip> tripResponse) {
+    return TripMapper.forLoggedUser().mapAll(tripResponse);
   }
 
   /**
-   * Converts CountryVisit response to CountryVisit.
+   * Get trips of user. Trips cached in local storage are served at once, while request to the
+   * server revalidates them in the background and updates the cache. Only trips changed since the
+   * previous request are received and converted if the server supports changes and they are
+   * enabled by {@code DELTA_SYNC} property, see {@link TripSyncEngine}.
    *
-   * @param visit CountryVisit response.
-   * @return CountryVisit.
+   * @param userId User id.
+   * @param token  Jwt token.
+   * @return CompletableFuture of Result of trips.
    */
-  @NonNull
-  public static ru.hse.goodtrip.data.model.trips.CountryVisit getCountryVisitFromCountryVisitResponse(
-      CountryVisit visit) {
-    ru.hse.goodtrip.data.model.trips.CountryVisit countryVisit
-        = new ru.hse.goodtrip.data.model.trips.CountryVisit(
-        new Country(visit.getCountry(),
-            new Coordinates(0, 0)),
-        Collections.emptyList());
-    List<ru.hse.goodtrip.data.model.trips.City> cities = new ArrayList<>();
-    for (CityVisit cityVisitResponse : visit.getCities()) {
-      cities.add(new
-          ru.hse.goodtrip.data.model.trips.City(
-          cityVisitResponse.getCity(),
-          new Coordinates(cityVisitResponse.getPoint().getX(), cityVisitResponse.getPoint().getY()),
-          countryVisit.getCountry()));
-    }
-    if (!cities.isEmpty()) {
-      countryVisit.setCountry(new Country(countryVisit.getCountry().getName(),
-          cities.get(0).getCoordinates()));
+  public CompletableFuture<Result<List<Trip>>> getUserTrips(
+      Integer userId,
+      String token) {
+    User user = UsersRepository.getInstance().getLoggedUser();
+    String handle = user == null ? null : user.getHandle();
+    CompletableFuture<Result<List<Trip>>> network = coalescer.coalesce("/trip/all/" + userId,
+        () -> syncUserTrips(userId, handle, token));
+    CompletableFuture<List<Trip>> cached = tripStore.loadUserTrips(userId)
+        .thenApply(trips -> {
+          if (trips != null) {
+            setUserTrips(userId, getTripsFromTripResponses(trips), false);
+          }
+          return trips;
+        });
+    return staleWhileRevalidate(cached, network);
+  }
+
+  private CompletableFuture<Result<List<Trip>>> syncUserTrips(Integer userId,
+      @Nullable String handle, String token) {
+    synchronized (this) {
+      if (!userId.equals(syncedUserId)) {
+        userTripsSync.reset();
+        syncedUserId = userId;
+      }
     }
-    countryVisit.setVisitedCities(cities);
-    return countryVisit;
+    return userTripsSync.sync(new TripSyncEngine.Source() {
+      @Override
+      public CompletableFuture<Result<TripChanges>> fetchChanges(@Nullable String syncToken) {
+        return enqueue(tripService.getUserTripChanges(userId, syncToken, getWrappedToken(token)),
+            "Cannot get changes of trips", (result) -> {
+            });
+      }
+
+      @Override
+      public CompletableFuture<Result<List<Trip>>> fetchAll() {
+        return enqueue(tripService.getUserTrips(userId, getWrappedToken(token)), "",
+            (result) -> {
+            });
+      }
+    }).thenApply(result -> {
+      if (!result.isSuccess()) {
+        return new Result.Error<>(
+            ((Result.Error<TripSyncEngine.Update<ru.hse.goodtrip.data.model.trips.Trip>>) result)
+                .getError());
+      }
+      TripSyncEngine.Update<ru.hse.goodtrip.data.model.trips.Trip> update =
+          ((Result.Success<TripSyncEngine.Update<ru.hse.goodtrip.data.model.trips.Trip>>) result)
+              .getData();
+      setUserTrips(userId, update.getMapped(), true);
+      if (update.isFull()) {
+        tripStore.saveUserTrips(userId, handle, update.getTrips());
+      } else if (!update.getUpdated().isEmpty() || !update.getDeleted().isEmpty()) {
+        tripStore.saveUserTripChanges(handle, update.getUpdated(), update.getDeleted());
+      }
+      return new Result.Success<>(update.getTrips());
+    });
   }
 
   /**
-   * Converts CountryVisit to AddCountryRequest.
-   *
-   * @param visit CountryVisit.
-   * @return Add Country Request.
+   * Set trips of user unless cached trips would replace trips already revalidated by server.
    */
-  @NonNull
-  public static AddCountryRequest getAddCountryRequestFromCountryVisit(
-      ru.hse.goodtrip.data.model.trips.CountryVisit visit) {
-    AddCountryRequest countryVisit = new AddCountryRequest();
-    countryVisit.setCountry(visit.getCountry().getName());
-    List<City> cities = new ArrayList<>();
-    List<CompletableFuture<Void>> futures = new ArrayList<>();
-    for (ru.hse.goodtrip.data.model.trips.City cityVisitResponse : visit.getVisitedCities()) {
-      futures.add(getCoordinates(countryVisit.getCountry() + " " + cityVisitResponse.getName())
-          .thenAcceptAsync(point -> {
-            synchronized (cities) {
-              cities.add(new City(cityVisitResponse.getName(), point.getX(), point.getY()));
-            }
-          }));
-    }
-    for (CompletableFuture<Void> future : futures) {
-      future.join();
+  private synchronized void setUserTrips(Integer userId,
+      List<ru.hse.goodtrip.data.model.trips.Trip> trips, boolean revalidated) {
+    if (revalidated) {
+      revalidatedUserId = userId;
+    } else if (userId.equals(revalidatedUserId)) {
+      return;
     }
-    countryVisit.setCities(cities);
-    return countryVisit;
+    userTrips = trips;
   }
 
   /**
-   * Converts TripResponses to Trips.
+   * Creates pager of authors feed. Posts are shown from local storage, pages are requested from
+   * the server by {@link FeedRemoteMediator} when cached posts run out.
    *
-   * @param tripResponse trips from network.
-   * @return Returns list of trips.
+   * @return pager of cached posts of feed.
    */
-  public static List<ru.hse.goodtrip.data.model.trips.Trip> getTripsFromTripResponses(
-      List<Trip> tripResponse) {
-    List<ru.hse.goodtrip.data.model.trips.Trip> result = new ArrayList<>();
-    for (Trip response : tripResponse) {
-      result.add(getTripFromTripResponse(response));
-    }
-    return result;
-  }
-
-  public void resetAuthorTrips() {
-    authorTrips = new ArrayList<>();
+  @OptIn(markerClass = ExperimentalPagingApi.class)
+  public Pager<Integer, FeedPostEntity> getFeedPager() {
+    LocalStorage database = RoomImplementation.getInstance().getLocalStorage();
+    return new Pager<>(new PagingConfig(FEED_PAGE_SIZE, FEED_PREFETCH_DISTANCE, false,
+        2 * FEED_PAGE_SIZE, FEED_MAX_SIZE), null,
+        new FeedRemoteMediator(database, this, executors.disk()),
+        () -> database.feedDao().pagingSource());
   }
 
   /**
-   * Make request to the server to get trips.
+   * Make request to the server to get page of trips of authors.
    *
    * @param userId User id.
+   * @param start  Number of posts before the page, used if server doesn't support cursor.
+   * @param cursor Continuation token of the last received post, null for the first page.
    * @param token  Jwt token.
    * @return CompletableFuture of Result of trips.
    */
-  public CompletableFuture<Result<List<Trip>>> getUserTrips(
+  public CompletableFuture<Result<List<TripView>>> getAuthorsTrips(
       Integer userId,
+      int start,
+      @Nullable String cursor,
       String token) {
-    ResultHolder<List<Trip>> resultHolder = new ResultHolder<>();
-    Call<List<Trip>> getTripsCall = tripService.getUserTrips(userId, getWrappedToken(token));
-    getTripsCall.enqueue(
-        getCallback(resultHolder, "", (result) -> userTrips = getTripsFromTripResponses(result)));
-    return getCompletableFuture(resultHolder);
+    return coalescer.coalesce("/trip/authors_trips?userId=" + userId + "&start=" + start
+        + "&cursor=" + cursor, () -> {
+      Call<List<TripView>> getTripsCall = tripService.getAuthorsTrips(userId, start, cursor,
+          getWrappedToken(token));
+      return enqueue(getTripsCall, "Cannot get posts of authors", (result) -> {
+      });
+    });
   }
 
+
   /**
-   * Make request to the server to get trips of authors.
+   * Make request to the server to get trip.
    *
-   * @param userId User id.
+   * @param tripId Id of trip.
    * @param token  Jwt token.
-   * @return CompletableFuture of Result of trips.
+   * @return CompletableFuture of Result of trip.
    */
-  public CompletableFuture<Result<List<TripView>>> getAuthorsTrips(
-      Integer userId,
+  public CompletableFuture<Result<Trip>> getTripById(Integer tripId,
       String token) {
-    ResultHolder<List<TripView>> resultHolder = new ResultHolder<>();
-    Call<List<TripView>> getTripsCall = tripService.getAuthorsTrips(userId, authorTrips.size(),
-        getWrappedToken(token));
-    getTripsCall.enqueue(getCallback(resultHolder, "", (result) -> authorTrips.addAll(result)));
-    return getCompletableFuture(resultHolder);
+    return getTripById(tripId, token, null);
   }
 
+  private CompletableFuture<Result<Trip>> getTripById(Integer tripId, String token,
+      @Nullable ByteCounter responseSize) {
+    return coalescer.coalesce("/trip/" + tripId, () -> {
+      Call<Trip> getTripCall = tripService.getTripById(tripId, getWrappedToken(token),
+          responseSize);
+      return enqueue(getTripCall, "Trip with this id not exists", (result) -> {
+      });
+    });
+  }
 
   /**
-   * Make request to the server to get trip.
+   * Get decoded trip. Recently requested trips and trips loaded by {@link SpeculativeTripLoader}
+   * are served from memory without request to the server.
    *
    * @param tripId Id of trip.
    * @param token  Jwt token.
+   * @return CompletableFuture of Result of trip, which must not be modified.
+   */
+  public CompletableFuture<Result<ru.hse.goodtrip.data.model.trips.Trip>> getTripDetails(
+      Integer tripId, String token) {
+    ru.hse.goodtrip.data.model.trips.Trip cached = tripDetailsCache.get(tripId);
+    speculativeLoader.onTripOpened(tripId, cached != null);
+    if (cached != null) {
+      return CompletableFuture.completedFuture(new Result.Success<>(cached));
+    }
+    return loadTripDetails(tripId, token, null);
+  }
+
+  /**
+   * Load trip from local copy of trips in Room without request to the server.
+   *
+   * @param tripId Id of trip.
+   * @param author user set as author of trip.
+   * @return CompletableFuture of trip, null if it isn't stored.
+   */
+  public CompletableFuture<ru.hse.goodtrip.data.model.trips.Trip> loadStoredTrip(int tripId,
+      @Nullable User author) {
+    return tripStore.loadTrip(tripId).thenApply(trip -> trip == null ? null
+        : new TripMapper(ZoneId.systemDefault(), author).map(trip));
+  }
+
+  /**
+   * Request trip from the server, decode it and put it into cache.
+   *
+   * @param tripId       Id of trip.
+   * @param token        Jwt token.
+   * @param responseSize counter of bytes of response, may be null.
    * @return CompletableFuture of Result of trip.
    */
-  public CompletableFuture<Result<Object>> getTripById(Integer tripId,
-      String token) {
-    ResultHolder<Object> resultHolder = new ResultHolder<>();
-    Call<Object> getTripCall = tripService.getTripById(tripId, getWrappedToken(token));
-    getTripCall.enqueue(getCallback(resultHolder, "Trip with this id not exists", (result) -> {
-    }));
-    return getCompletableFuture(resultHolder);
+  CompletableFuture<Result<ru.hse.goodtrip.data.model.trips.Trip>> loadTripDetails(
+      Integer tripId, String token, @Nullable ByteCounter responseSize) {
+    CompletableFuture<Result<Trip>> request = getTripById(tripId, token, responseSize);
+    return CallFuture.cancelling(request.thenApply(result -> {
+      if (!result.isSuccess()) {
+        return new Result.Error<>(((Result.Error<Trip>) result).getError());
+      }
+      ru.hse.goodtrip.data.model.trips.Trip trip = getTripFromTripResponse(
+          ((Result.Success<Trip>) result).getData());
+      tripDetailsCache.put(tripId, trip);
+      return new Result.Success<>(trip);
+    }), request);
   }
 
   /**
@@ -314,12 +393,14 @@ public class TripRepository extends AbstractRepository {
    */
   public CompletableFuture<Result<String>> addTrip(Integer userId, String token,
       AddTripRequest addTripRequest) {
-    ResultHolder<String> resultHolder = new ResultHolder<>();
     Call<String> addTripCall = tripService.addTrip(userId, addTripRequest,
         getWrappedToken(token));
-    addTripCall.enqueue(getCallback(resultHolder, "User with this id not exists", (result) -> {
-    }));
-    return getCompletableFuture(resultHolder);
+    CallFuture<String> request = enqueue(addTripCall, "User with this id not exists", (result) -> {
+    });
+    return CallFuture.cancelling(request.whenComplete((result, throwable) -> {
+      coalescer.invalidate("/trip/");
+      tripDetailsCache.clear();
+    }), request);
   }
 
 
@@ -331,29 +412,143 @@ public class TripRepository extends AbstractRepository {
    * @return CompletableFuture of Result of String which holds result of request.
    */
   public CompletableFuture<Result<String>> updateTrip(Trip trip, String token) {
-    ResultHolder<String> resultHolder = new ResultHolder<>();
     Call<String> updateTripCall = tripService.updateTrip(trip.getUserId(), trip,
         getWrappedToken(token));
-    updateTripCall.enqueue(
-        getCallback(resultHolder, "User or trip with this id not exist", (result) -> {
-        }));
-    return getCompletableFuture(resultHolder);
+    CallFuture<String> request = enqueue(updateTripCall, "User or trip with this id not exist",
+        (result) -> {
+        });
+    return CallFuture.cancelling(request.whenComplete((result, throwable) -> {
+      coalescer.invalidate("/trip/");
+      tripDetailsCache.invalidate(trip.getId());
+    }), request);
   }
 
   /**
-   * Gets all published trips of author.
+   * Save changes of trip. Only changed fields are sent as JSON merge patch; whole trip is sent if
+   * it wasn't received from the server or if the server doesn't support patches.
+   *
+   * @param userId Id of user.
+   * @param trip   Changed trip, it is marked clean when it is saved.
+   * @param token  Jwt token.
+   * @return CompletableFuture of Result of String which holds result of request.
+   */
+  public CompletableFuture<Result<String>> saveTrip(Integer userId,
+      ru.hse.goodtrip.data.model.trips.Trip trip, String token) {
+    EnumSet<Field> changed = trip.getDirtyFields();
+    if (changed.isEmpty()) {
+      return CompletableFuture.completedFuture(new Result.Success<>(""));
+    }
+    CompletableFuture<Result<String>> request;
+    if (!patchSupported || trip.getTripId() == null
+        || changed.size() == Field.values().length) {
+      request = updateTrip(getNetworkTripFromTrip(userId, trip), token);
+    } else {
+      Call<String> patchTripCall = tripService.patchTrip(trip.getTripId(), userId,
+          getTripPatch(trip, changed), getWrappedToken(token));
+      CallFuture<String> patch = enqueue(patchTripCall, "User or trip with this id not exist",
+          (result) -> {
+          });
+      request = CallFuture.cancelling(patch.thenCompose(result -> {
+        if (!result.isSuccess() && isPatchUnsupported(((Result.Error<String>) result).getError())) {
+          patchSupported = false;
+          return updateTrip(getNetworkTripFromTrip(userId, trip), token);
+        }
+        coalescer.invalidate("/trip/");
+        tripDetailsCache.invalidate(trip.getTripId());
+        return CompletableFuture.completedFuture(result);
+      }), patch);
+    }
+    return CallFuture.cancelling(request.thenApply(result -> {
+      if (result.isSuccess()) {
+        trip.markClean();
+      }
+      return result;
+    }), request);
+  }
+
+  private static boolean isPatchUnsupported(Exception error) {
+    if (!(error instanceof NetworkException)) {
+      return false;
+    }
+    int code = ((NetworkException) error).getCode();
+    return code == 404 || code == 405 || code == 415 || code == 501;
+  }
+
+  /**
+   * JSON merge patch of changed fields of trip. Notes and visits are lists, so they are replaced
+   * as a whole.
+   */
+  static Map<String, Object> getTripPatch(ru.hse.goodtrip.data.model.trips.Trip trip,
+      EnumSet<Field> changed) {
+    Map<String, Object> patch = new LinkedHashMap<>();
+    if (changed.contains(Field.TITLE)) {
+      patch.put("title", trip.getTitle());
+    }
+    if (changed.contains(Field.MONEY)) {
+      patch.put("moneyInUsd", trip.getMoneyInUsd());
+    }
+    if (changed.contains(Field.MAIN_PHOTO)) {
+      patch.put("mainPhotoUrl", trip.getMainPhotoUrl());
+    }
+    if (changed.contains(Field.DATES)) {
+      patch.put("departureDate", Date.valueOf(trip.getStartTripDate().toString()));
+      patch.put("arrivalDate", Date.valueOf(trip.getEndTripDate().toString()));
+    }
+    if (changed.contains(Field.STATE)) {
+      patch.put("state", trip.getTripState());
+    }
+    if (changed.contains(Field.NOTES)) {
+      List<Note> notes = new ArrayList<>(trip.getNotes().size());
+      for (ru.hse.goodtrip.data.model.trips.Note note : trip.getNotes()) {
+        notes.add(getNetworkNoteFromNote(trip.getTripId(), note));
+      }
+      patch.put("notes", notes);
+    }
+    if (changed.contains(Field.COUNTRIES)) {
+      List<CountryVisit> visits = new ArrayList<>(trip.getCountries().size());
+      for (ru.hse.goodtrip.data.model.trips.CountryVisit visit : trip.getCountries()) {
+        visits.add(getNetworkCountryVisitFromCountryVisit(trip.getTripId(), visit));
+      }
+      patch.put("visits", visits);
+    }
+    return patch;
+  }
+
+  /**
+   * Text report of bytes uploaded by saves of trips with patches and with whole trips.
+   *
+   * @return report.
+   */
+  public static String getSaveReport() {
+    EndpointMetrics patch = MetricsRegistry.getInstance().endpoint(PATCH_ENDPOINT);
+    EndpointMetrics update = MetricsRegistry.getInstance().endpoint(UPDATE_ENDPOINT);
+    return String.format(Locale.US, "trip saves: patch n=%d avg=%dB, full n=%d avg=%dB",
+        patch.getRequests().get(),
+        average(patch.getRequestBytes().get(), patch.getRequests().get()),
+        update.getRequests().get(),
+        average(update.getRequestBytes().get(), update.getRequests().get()));
+  }
+
+  private static long average(long total, long count) {
+    return count == 0 ? 0 : total / count;
+  }
+
+  /**
+   * Gets all published trips of author. Trips cached in local storage are served at once, while
+   * request to the server revalidates them in the background and updates the cache.
    *
    * @param handle Handle of requested user.
    * @param token  Jwt token.
    * @return Completable Future of trips of user.
    */
   public CompletableFuture<Result<List<Trip>>> getAuthorTrips(String handle, String token) {
-    ResultHolder<List<Trip>> resultHolder = new ResultHolder<>();
-    Call<List<Trip>> updateTripCall = tripService.getAuthorTrips(handle,
-        getWrappedToken(token));
-    updateTripCall.enqueue(
-        getCallback(resultHolder, "User or trip with this id not exist", (result) -> {
-        }));
-    return getCompletableFuture(resultHolder);
+    CompletableFuture<Result<List<Trip>>> network = coalescer.coalesce(
+        "/trip/author_trips?handle=" + handle, () -> {
+          Call<List<Trip>> getAuthorTripsCall = tripService.getAuthorTrips(handle,
+              getWrappedToken(token));
+          return enqueue(getAuthorTripsCall, "User or trip with this id not exist",
+              (result) -> tripStore.saveAuthorTrips(handle, result));
+        });
+    return staleWhileRevalidate(tripStore.loadAuthorTrips(handle), network);
   }
 }
\ No newline at end of file
@@ -0,0 +1,245 @@
+package ru.hse.goodtrip.data;
+
+import android.util.Log;
+import androidx.annotation.Nullable;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import ru.hse.goodtrip.executors.SerialExecutor;
+import ru.hse.goodtrip.data.model.trips.Coordinates;
+import ru.hse.goodtrip.network.trips.model.CityVisit;
+import ru.hse.goodtrip.network.trips.model.CountryVisit;
+import ru.hse.goodtrip.network.trips.model.Note;
+import ru.hse.goodtrip.network.trips.model.Trip;
+import ru.hse.goodtrip.network.trips.model.TripState;
+import ru.hse.goodtrip.room.RoomImplementation;
+import ru.hse.goodtrip.room.dao.TripDao;
+import ru.hse.goodtrip.room.entities.CityVisitEntity;
+import ru.hse.goodtrip.room.entities.CountryVisitEntity;
+import ru.hse.goodtrip.room.entities.CountryVisitWithCities;
+import ru.hse.goodtrip.room.entities.NoteEntity;
+import ru.hse.goodtrip.room.entities.TripEntity;
+import ru.hse.goodtrip.room.entities.TripWithDetails;
+
+/**
+ * Local copy of trips in Room. All reads and writes run on disk executor; writes run one at a
+ * time in order of calls, so that older trips can't overwrite newer ones.
+ */
+public class TripStore {
+
+  private final Executor executor;
+  private final Executor writer;
+
+  /**
+   * Creates store.
+   *
+   * @param executor executor of database operations.
+   */
+  public TripStore(Executor executor) {
+    this.executor = executor;
+    this.writer = new SerialExecutor(executor);
+  }
+
+  @Nullable
+  private static TripDao getDao() {
+    RoomImplementation room = RoomImplementation.getInstance();
+    return room == null ? null : room.getLocalStorage().tripDao();
+  }
+
+  private static TripWithDetails toEntity(Trip trip, @Nullable String authorHandle) {
+    TripWithDetails result = new TripWithDetails();
+    result.trip = new TripEntity(trip.getId(), trip.getUserId(), authorHandle, trip.getTitle(),
+        trip.getMoneyInUsd(), trip.getMainPhotoUrl(),
+        trip.getDepartureDate() == null ? null : trip.getDepartureDate().getTime(),
+        trip.getArrivalDate() == null ? null : trip.getArrivalDate().getTime(),
+        trip.getPublicationTimestamp() == null ? null : trip.getPublicationTimestamp().getTime(),
+        trip.getState() == null ? null : trip.getState().name());
+    result.visits = new ArrayList<>(trip.getVisits().size());
+    for (int i = 0; i < trip.getVisits().size(); i++) {
+      CountryVisit visit = trip.getVisits().get(i);
+      CountryVisitWithCities visitEntity = new CountryVisitWithCities();
+      visitEntity.visit = new CountryVisitEntity(0, visit.getId(), trip.getId(), i,
+          visit.getCountry());
+      visitEntity.cities = new ArrayList<>(visit.getCities().size());
+      for (int j = 0; j < visit.getCities().size(); j++) {
+        CityVisit city = visit.getCities().get(j);
+        visitEntity.cities.add(new CityVisitEntity(0, city.getId(), 0, j, city.getCity(),
+            city.getPoint().getLatitude(), city.getPoint().getLongitude()));
+      }
+      result.visits.add(visitEntity);
+    }
+    result.notes = new ArrayList<>(trip.getNotes().size());
+    for (int i = 0; i < trip.getNotes().size(); i++) {
+      Note note = trip.getNotes().get(i);
+      result.notes.add(new NoteEntity(0, note.getId(), trip.getId(), i, note.getTitle(),
+          note.getPhotoUrl(), note.getGooglePlaceId(), note.getText()));
+    }
+    return result;
+  }
+
+  private static Trip fromEntity(TripWithDetails entity) {
+    TripEntity trip = entity.trip;
+    List<CountryVisitWithCities> visitEntities = new ArrayList<>(entity.visits);
+    visitEntities.sort(Comparator.comparingInt(visit -> visit.visit.position));
+    List<CountryVisit> visits = new ArrayList<>(visitEntities.size());
+    for (CountryVisitWithCities visitEntity : visitEntities) {
+      List<CityVisitEntity> cityEntities = new ArrayList<>(visitEntity.cities);
+      cityEntities.sort(Comparator.comparingInt(city -> city.position));
+      List<CityVisit> cities = new ArrayList<>(cityEntities.size());
+      for (CityVisitEntity city : cityEntities) {
+        cities.add(new CityVisit(city.id, city.city,
+            new Coordinates(city.x, city.y), visitEntity.visit.id));
+      }
+      visits.add(new CountryVisit(visitEntity.visit.id, visitEntity.visit.country, cities,
+          trip.id));
+    }
+    List<NoteEntity> noteEntities = new ArrayList<>(entity.notes);
+    noteEntities.sort(Comparator.comparingInt(note -> note.position));
+    List<Note> notes = new ArrayList<>(noteEntities.size());
+    for (NoteEntity note : noteEntities) {
+      notes.add(new Note(note.id, note.title, note.photoUrl, note.googlePlaceId, note.text,
+          trip.id));
+    }
+    return new Trip(trip.id, trip.userId, trip.title, trip.moneyInUsd, trip.mainPhotoUrl,
+        trip.departureDate == null ? null : new Date(trip.departureDate),
+        trip.arrivalDate == null ? null : new Date(trip.arrivalDate),
+        trip.publicationTimestamp == null ? null : new Timestamp(trip.publicationTimestamp),
+        trip.state == null ? null : TripState.valueOf(trip.state), notes, visits);
+  }
+
+  private static List<Trip> fromEntities(List<TripWithDetails> entities) {
+    List<Trip> trips = new ArrayList<>(entities.size());
+    for (TripWithDetails entity : entities) {
+      trips.add(fromEntity(entity));
+    }
+    return trips;
+  }
+
+  private CompletableFuture<List<Trip>> load(Supplier<List<TripWithDetails>> query) {
+    return CompletableFuture.supplyAsync(() -> {
+      TripDao dao = getDao();
+      if (dao == null) {
+        return null;
+      }
+      List<TripWithDetails> entities = query.get();
+      return entities.isEmpty() ? null : fromEntities(entities);
+    }, executor);
+  }
+
+  /**
+   * Load cached trips of user.
+   *
+   * @param userId id of user.
+   * @return future of trips, null if nothing is cached.
+   */
+  public CompletableFuture<List<Trip>> loadUserTrips(int userId) {
+    return load(() -> getDao().getUserTrips(userId));
+  }
+
+  /**
+   * Load cached trip.
+   *
+   * @param tripId id of trip.
+   * @return future of trip, null if it isn't cached.
+   */
+  public CompletableFuture<Trip> loadTrip(int tripId) {
+    return CompletableFuture.supplyAsync(() -> {
+      TripDao dao = getDao();
+      if (dao == null) {
+        return null;
+      }
+      TripWithDetails entity = dao.getTrip(tripId);
+      return entity == null ? null : fromEntity(entity);
+    }, executor);
+  }
+
+  /**
+   * Load cached published trips of author.
+   *
+   * @param handle handle of author.
+   * @return future of trips, null if nothing is cached.
+   */
+  public CompletableFuture<List<Trip>> loadAuthorTrips(String handle) {
+    return load(() -> getDao().getAuthorTrips(handle));
+  }
+
+  /**
+   * Replace cached trips of user.
+   *
+   * @param userId id of user.
+   * @param handle handle of user.
+   * @param trips  all trips of user.
+   */
+  public void saveUserTrips(int userId, @Nullable String handle, List<Trip> trips) {
+    writer.execute(() -> {
+      TripDao dao = getDao();
+      if (dao == null) {
+        return;
+      }
+      List<TripWithDetails> entities = new ArrayList<>(trips.size());
+      try {
+        for (Trip trip : trips) {
+          entities.add(toEntity(trip, handle));
+        }
+        dao.replaceUserTrips(userId, entities);
+      } catch (RuntimeException e) {
+        Log.e(TripStore.class.getSimpleName(), "Cannot cache trips: " + e);
+      }
+    });
+  }
+
+  /**
+   * Apply changes to cached trips of user.
+   *
+   * @param handle     handle of user.
+   * @param updated    changed trips.
+   * @param deletedIds ids of deleted trips.
+   */
+  public void saveUserTripChanges(@Nullable String handle, List<Trip> updated,
+      List<Integer> deletedIds) {
+    writer.execute(() -> {
+      TripDao dao = getDao();
+      if (dao == null) {
+        return;
+      }
+      List<TripWithDetails> entities = new ArrayList<>(updated.size());
+      try {
+        for (Trip trip : updated) {
+          entities.add(toEntity(trip, handle));
+        }
+        dao.applyTripChanges(entities, deletedIds);
+      } catch (RuntimeException e) {
+        Log.e(TripStore.class.getSimpleName(), "Cannot cache trips: " + e);
+      }
+    });
+  }
+
+  /**
+   * Replace cached published trips of author.
+   *
+   * @param handle handle of author.
+   * @param trips  all published trips of author.
+   */
+  public void saveAuthorTrips(String handle, List<Trip> trips) {
+    writer.execute(() -> {
+      TripDao dao = getDao();
+      if (dao == null) {
+        return;
+      }
+      List<TripWithDetails> entities = new ArrayList<>(trips.size());
+      try {
+        for (Trip trip : trips) {
+          entities.add(toEntity(trip, handle));
+        }
+        dao.replaceAuthorTrips(handle, entities);
+      } catch (RuntimeException e) {
+        Log.e(TripStore.class.getSimpleName(), "Cannot cache trips: " + e);
+      }
+    });
+  }
+}
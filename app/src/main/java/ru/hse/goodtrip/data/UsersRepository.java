@@ -9,13 +9,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import lombok.Getter;
 import retrofit2.Call;
 import ru.hse.goodtrip.data.model.Result;
-import ru.hse.goodtrip.data.model.ResultHolder;
 import ru.hse.goodtrip.data.model.User;
 import ru.hse.goodtrip.network.NetworkManager;
 import ru.hse.goodtrip.network.authentication.LoginService;
@@ -45,6 +43,8 @@ public class UsersRepository extends AbstractRepository {
   @Getter
   private ArrayList<User> following = new ArrayList<>(); // TODO
 
+  private ScheduledFuture<?> tokenUpdating;
+
   private UsersRepository() {
     super();
     this.loginService = NetworkManager.getInstance().getInstanceOfService(LoginService.class);
@@ -71,8 +71,20 @@ public class UsersRepository extends AbstractRepository {
   }
 
 
-  public void logout() {
+  /**
+   * Log out user and stop updating of token.
+   */
+  public synchronized void logout() {
     user = null;
+    executors.disk().execute(() -> NetworkManager.getInstance().evictCache());
+    TripRepository.getInstance().getTripDetailsCache().clear();
+    TripRepository.getInstance().getSpeculativeLoader().reset();
+    TripRepository.getInstance().getUserTripsSync().reset();
+    PlaceRegistry.getInstance().clear();
+    if (tokenUpdating != null) {
+      tokenUpdating.cancel(false);
+      tokenUpdating = null;
+    }
   }
 
   /**
@@ -100,35 +112,46 @@ public class UsersRepository extends AbstractRepository {
     Call<List<ru.hse.goodtrip.network.social.entities.User>>
         getFollowersCall = communicationService.getFollowers(user.getId(),
         getWrappedToken(user.getToken()));
-    final ResultHolder<List<ru.hse.goodtrip.network.social.entities.User>>
-        resultOfGetFollowers = new ResultHolder<>();
-    getFollowersCall.enqueue(getCallback(resultOfGetFollowers,
-        "Cannot get followers",
+    enqueue(getFollowersCall, "Cannot get followers",
         (result) -> this.followers = result.stream()
             .map(this::getUserFromNetworkUser)
-            .collect(toCollection(ArrayList::new))));
+            .collect(toCollection(ArrayList::new)));
     Call<List<ru.hse.goodtrip.network.social.entities.User>>
         getSubscriptions = communicationService
         .getSubscriptions(user.getId(),
             getWrappedToken(user.getToken()));
-    final ResultHolder<List<ru.hse.goodtrip.network.social.entities.User>>
-        resultOfGetSubscriptions = new ResultHolder<>();
-    getSubscriptions.enqueue(getCallback(resultOfGetSubscriptions,
-        "Cannot get subscriptions",
+    enqueue(getSubscriptions, "Cannot get subscriptions",
         (result) -> this.following = result.stream()
             .map(this::getUserFromNetworkUser)
-            .collect(toCollection(ArrayList::new))));
+            .collect(toCollection(ArrayList::new)));
   }
 
-  private void updatingToken(String username, String password) {
-    ScheduledExecutorService executor = Executors
-        .newSingleThreadScheduledExecutor();
-    executor.scheduleAtFixedRate(() -> {
+  private synchronized void updatingToken(String username, String password) {
+    if (tokenUpdating != null) {
+      tokenUpdating.cancel(false);
+    }
+    tokenUpdating = executors.scheduled().scheduleAtFixedRate(
+        () -> refreshToken(username, password), 4, 4, TimeUnit.MINUTES);
+  }
+
+  /**
+   * Request new token of logged user. Only token of user is replaced, user, followers and
+   * schedule of updating are kept.
+   *
+   * @param username user name.
+   * @param password password.
+   */
+  private void refreshToken(String username, String password) {
+    Call<AuthenticationResponse> refreshCall = loginService.login(
+        new AuthorizationRequest(username, password));
+    enqueue(refreshCall, "Cannot refresh token", (result) -> {
       synchronized (this) {
-        login(username, password);
+        // User may have logged out or logged in as other user meanwhile.
+        if (user != null && user.getId() == result.getId()) {
+          user.setToken(result.getToken());
+        }
       }
-    }, 4, 4, TimeUnit.MINUTES);
-    executor.shutdown();
+    });
   }
 
   /**
@@ -139,23 +162,21 @@ public class UsersRepository extends AbstractRepository {
    * @return result value.
    */
   public CompletableFuture<Result<AuthenticationResponse>> login(String username, String password) {
-    final ResultHolder<AuthenticationResponse> resultOfAuthorization = new ResultHolder<>();
     Call<AuthenticationResponse> loginServiceCall = loginService.login(
         new AuthorizationRequest(username, password));
-    loginServiceCall.enqueue(
-        getCallback(resultOfAuthorization, "Username or password are not correct"
-            , (result) -> setLoggedInUser(
-                new User(result.getId(), result.getHandle(),
-                    result.getName() + " " + result.getSurname(),
-                    result.getUrl(), result.getToken()))));
-    updatingToken(username, password);
-    return getCompletableFuture(resultOfAuthorization)
+    CompletableFuture<Result<AuthenticationResponse>> resultOfAuthorization = enqueue(
+        loginServiceCall, "Username or password are not correct",
+        (result) -> setLoggedInUser(
+            new User(result.getId(), result.getHandle(),
+                result.getName() + " " + result.getSurname(),
+                result.getUrl(), result.getToken())));
+    return resultOfAuthorization
         .whenCompleteAsync((result, throwable) -> {
-          if (result.isSuccess()) {
+          if (throwable == null && result != null && result.isSuccess()) {
             updatingToken(username, password);
             updateFollowersAndFollowing();
           }
-        });
+        }, executors.cpu());
   }
 
   /**
@@ -166,14 +187,11 @@ public class UsersRepository extends AbstractRepository {
    * @param token  Jwt token.
    */
   public void updatePhoto(int userId, String uri, String token) {
-    final ResultHolder<String> resultOfUpdatingPhoto = new ResultHolder<>();
     Call<String> loginServiceCall = loginService
         .updateUserPhoto(userId, new UrlHandler(uri),
             getWrappedToken(token));
-    loginServiceCall.enqueue(
-        getCallback(resultOfUpdatingPhoto, "Updating photo failed",
-            (result) -> {
-            }));
+    enqueue(loginServiceCall, "Updating photo failed", (result) -> {
+    });
   }
 
   /**
@@ -190,21 +208,20 @@ public class UsersRepository extends AbstractRepository {
       String handle,
       String name,
       String surname) {
-    final ResultHolder<AuthenticationResponse> resultOfAuthorization = new ResultHolder<>();
     Call<AuthenticationResponse> loginServiceCall = loginService.register(
         new RegisterRequest(username, handle, password, name, surname));
-    loginServiceCall.enqueue(
-        getCallback(resultOfAuthorization, "Username is not correct or is already taken"
-            , authenticationResponse -> setLoggedInUser(
-                new User(authenticationResponse.getId(), authenticationResponse.getHandle(),
-                    authenticationResponse.getName() + " " + authenticationResponse.getSurname(),
-                    authenticationResponse.getUrl(), authenticationResponse.getToken()))));
-    return getCompletableFuture(resultOfAuthorization).whenCompleteAsync((result, throwable) -> {
-      if (result.isSuccess()) {
+    CompletableFuture<Result<AuthenticationResponse>> resultOfAuthorization = enqueue(
+        loginServiceCall, "Username is not correct or is already taken",
+        authenticationResponse -> setLoggedInUser(
+            new User(authenticationResponse.getId(), authenticationResponse.getHandle(),
+                authenticationResponse.getName() + " " + authenticationResponse.getSurname(),
+                authenticationResponse.getUrl(), authenticationResponse.getToken())));
+    return resultOfAuthorization.whenCompleteAsync((result, throwable) -> {
+      if (throwable == null && result != null && result.isSuccess()) {
         updatingToken(username, password);
         updateFollowersAndFollowing();
       }
-    });
+    }, executors.cpu());
 
 
   }
@@ -0,0 +1,83 @@
+package ru.hse.goodtrip.data.feed;
+
+import androidx.annotation.NonNull;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import ru.hse.goodtrip.network.trips.model.TripView;
+
+/**
+ * Position in authors feed. Feed is ordered by publication timestamp and then by id, both
+ * descending, so the pair identifies position independently of posts published later.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class FeedCursor {
+
+  private static final char SEPARATOR = '_';
+
+  private final long publicationTimestamp;
+  private final int id;
+
+  private static long timestampOf(TripView post) {
+    return post.getPublicationTimestamp() == null ? 0 : post.getPublicationTimestamp().getTime();
+  }
+
+  /**
+   * Cursor pointing at post.
+   *
+   * @param post post.
+   * @return cursor.
+   */
+  public static FeedCursor of(TripView post) {
+    return new FeedCursor(timestampOf(post), post.getId());
+  }
+
+  /**
+   * Parses continuation token.
+   *
+   * @param token token made by {@link #encode()}.
+   * @return cursor.
+   * @throws IllegalArgumentException if token is malformed.
+   */
+  public static FeedCursor decode(String token) {
+    int separator = token.indexOf(SEPARATOR);
+    if (separator < 0) {
+      throw new IllegalArgumentException("Malformed feed cursor: " + token);
+    }
+    try {
+      return new FeedCursor(Long.parseLong(token.substring(0, separator)),
+          Integer.parseInt(token.substring(separator + 1)));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Malformed feed cursor: " + token, e);
+    }
+  }
+
+  /**
+   * Continuation token sent to the server.
+   *
+   * @return token.
+   */
+  public String encode() {
+    return Long.toString(publicationTimestamp) + SEPARATOR + id;
+  }
+
+  /**
+   * Checks whether post goes after this position in feed.
+   *
+   * @param post post.
+   * @return true if post is older than position.
+   */
+  public boolean precedes(TripView post) {
+    long timestamp = timestampOf(post);
+    return timestamp < publicationTimestamp
+        || (timestamp == publicationTimestamp && post.getId() < id);
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return encode();
+  }
+}
@@ -0,0 +1,188 @@
+package ru.hse.goodtrip.data.feed;
+
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.hse.goodtrip.network.trips.model.TripView;
+
+/**
+ * Tracks position of client in authors feed while it is paged.
+ *
+ * <p>In cursor mode every request carries position of the oldest post received, so posts
+ * published while user scrolls can't shift the page. If the server ignores the cursor, tracker
+ * falls back to offset mode. There each request overlaps previous page by one post: when the page
+ * starts after the cursor, posts were removed above it and some posts were skipped, so the
+ * tracker steps back to fill the gap. In both modes posts which were already received are dropped
+ * by id.
+ */
+public class FeedPageTracker {
+
+  private static final int EXPECTED_POSTS = 64;
+
+  private final IntHashSet seen = new IntHashSet(EXPECTED_POSTS);
+  private final Mode initialMode;
+  @Getter
+  private Mode mode;
+  @Getter
+  @Nullable
+  private FeedCursor cursor;
+  private int offset;
+  /**
+   * Number of dropped posts which were received before, not counting the expected overlap.
+   */
+  @Getter
+  private int duplicates;
+  @Getter
+  private int gaps;
+
+  /**
+   * Creates tracker.
+   *
+   * @param mode mode of pagination to start with.
+   */
+  public FeedPageTracker(Mode mode) {
+    this.initialMode = mode;
+    this.mode = mode;
+  }
+
+  /**
+   * Forget position, next request is for the first page.
+   */
+  public synchronized void reset() {
+    seen.clear();
+    mode = initialMode;
+    cursor = null;
+    offset = 0;
+  }
+
+  /**
+   * Checks whether any page was received since the last reset.
+   *
+   * @return true if position is known.
+   */
+  public synchronized boolean isStarted() {
+    return cursor != null || offset > 0;
+  }
+
+  /**
+   * Continue from posts received before, e.g. the ones cached in local storage. Their ids are
+   * remembered, so they are dropped if they are received again.
+   *
+   * @param receivedIds ids of received posts.
+   * @param oldest      cursor at the oldest received post.
+   */
+  public synchronized void resume(List<Integer> receivedIds, FeedCursor oldest) {
+    for (int id : receivedIds) {
+      seen.add(id);
+    }
+    offset = receivedIds.size();
+    cursor = oldest;
+  }
+
+  /**
+   * Request of the next page.
+   *
+   * @return request.
+   */
+  public synchronized PageRequest nextRequest() {
+    if (mode == Mode.CURSOR) {
+      return new PageRequest(offset, cursor, false);
+    }
+    boolean overlapping = offset > 0 && cursor != null;
+    return new PageRequest(overlapping ? offset - 1 : offset, null, overlapping);
+  }
+
+  /**
+   * Accepts page received for request.
+   *
+   * @param request request of page.
+   * @param page    posts received from the server, newest first.
+   * @return posts which were not received before. The end is reached when the page holds nothing
+   *     after previous page; in offset mode that is a page of the overlapping post alone.
+   */
+  public synchronized Page accept(PageRequest request, List<TripView> page) {
+    List<TripView> posts = new ArrayList<>(page.size());
+    boolean cursorIgnored = false;
+    for (int i = 0; i < page.size(); i++) {
+      TripView post = page.get(i);
+      if (cursor != null && !cursor.precedes(post)) {
+        cursorIgnored = true;
+      }
+      if (seen.add(post.getId())) {
+        posts.add(post);
+      } else if (i > 0 || !request.isOverlapping()) {
+        duplicates++;
+      }
+    }
+    if (mode == Mode.CURSOR && cursorIgnored) {
+      mode = Mode.OFFSET;
+    }
+    boolean gap = request.isOverlapping() && !page.isEmpty() && request.getStart() > 0
+        && cursor != null && cursor.precedes(page.get(0));
+    boolean endReached = page.isEmpty()
+        || (request.isOverlapping() && page.size() == 1 && !gap);
+    if (gap) {
+      gaps++;
+      offset = Math.max(0, request.getStart() - page.size() + 1);
+    } else {
+      offset = request.getStart() + page.size();
+      if (!page.isEmpty()) {
+        TripView last = page.get(page.size() - 1);
+        if (cursor == null || cursor.precedes(last)) {
+          cursor = FeedCursor.of(last);
+        }
+      }
+    }
+    return new Page(posts, gap, endReached);
+  }
+
+  /**
+   * Number of distinct posts received since the last reset.
+   *
+   * @return number of posts.
+   */
+  public synchronized int getReceived() {
+    return seen.size();
+  }
+
+  /**
+   * Mode of pagination.
+   */
+  public enum Mode {
+    /**
+     * Pages are requested after continuation token.
+     */
+    CURSOR,
+    /**
+     * Pages are requested by number of posts before them.
+     */
+    OFFSET
+  }
+
+  /**
+   * Request of page. Server which supports cursor uses it, other servers use start.
+   */
+  @Getter
+  @AllArgsConstructor
+  public static class PageRequest {
+
+    private final int start;
+    @Nullable
+    private final FeedCursor cursor;
+    private final boolean overlapping;
+  }
+
+  /**
+   * Page after deduplication.
+   */
+  @Getter
+  @AllArgsConstructor
+  public static class Page {
+
+    private final List<TripView> posts;
+    private final boolean gap;
+    private final boolean endReached;
+  }
+}
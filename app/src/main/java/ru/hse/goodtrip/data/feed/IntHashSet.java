@@ -0,0 +1,129 @@
+package ru.hse.goodtrip.data.feed;
+
+import java.util.Arrays;
+
+/**
+ * Set of ints with open addressing over primitive array, so ids are stored without boxing and
+ * lookups take constant time.
+ */
+public class IntHashSet {
+
+  private static final int EMPTY = Integer.MIN_VALUE;
+  private static final int MIN_CAPACITY = 16;
+
+  private int[] keys;
+  private int size;
+  private boolean containsEmpty;
+
+  /**
+   * Creates set.
+   *
+   * @param expectedSize number of elements which fit without resizing.
+   */
+  public IntHashSet(int expectedSize) {
+    keys = newKeys(capacityFor(expectedSize));
+  }
+
+  private static int capacityFor(int size) {
+    int capacity = MIN_CAPACITY;
+    while (capacity < 2 * size) {
+      capacity <<= 1;
+    }
+    return capacity;
+  }
+
+  private static int[] newKeys(int capacity) {
+    int[] keys = new int[capacity];
+    Arrays.fill(keys, EMPTY);
+    return keys;
+  }
+
+  private static int slot(int key, int mask) {
+    int hash = key * 0x9E3779B9;
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+
+  /**
+   * Adds value.
+   *
+   * @param value value.
+   * @return true if value was not in the set.
+   */
+  public boolean add(int value) {
+    if (value == EMPTY) {
+      if (containsEmpty) {
+        return false;
+      }
+      containsEmpty = true;
+      size++;
+      return true;
+    }
+    int mask = keys.length - 1;
+    int i = slot(value, mask);
+    while (keys[i] != EMPTY) {
+      if (keys[i] == value) {
+        return false;
+      }
+      i = (i + 1) & mask;
+    }
+    keys[i] = value;
+    size++;
+    if (2 * size > keys.length) {
+      resize(keys.length << 1);
+    }
+    return true;
+  }
+
+  /**
+   * Checks whether value is in the set.
+   *
+   * @param value value.
+   * @return true if value is in the set.
+   */
+  public boolean contains(int value) {
+    if (value == EMPTY) {
+      return containsEmpty;
+    }
+    int mask = keys.length - 1;
+    int i = slot(value, mask);
+    while (keys[i] != EMPTY) {
+      if (keys[i] == value) {
+        return true;
+      }
+      i = (i + 1) & mask;
+    }
+    return false;
+  }
+
+  private void resize(int capacity) {
+    int[] old = keys;
+    keys = newKeys(capacity);
+    int mask = capacity - 1;
+    for (int key : old) {
+      if (key != EMPTY) {
+        int i = slot(key, mask);
+        while (keys[i] != EMPTY) {
+          i = (i + 1) & mask;
+        }
+        keys[i] = key;
+      }
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Removes all values keeping allocated capacity.
+   */
+  public void clear() {
+    Arrays.fill(keys, EMPTY);
+    size = 0;
+    containsEmpty = false;
+  }
+}
@@ -5,12 +5,13 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 
 /**
- * AbstractPlace.
+ * AbstractPlace. Places are immutable, so they may be shared, see
+ * {@link ru.hse.goodtrip.data.PlaceRegistry}.
  */
 @Data
 @AllArgsConstructor
 public abstract class AbstractPlace implements Serializable {
 
-  private String name;
-  private Coordinates coordinates;
+  private final String name;
+  private final Coordinates coordinates;
 }
@@ -0,0 +1,112 @@
+package ru.hse.goodtrip.data.model.trips;
+
+import androidx.annotation.Nullable;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Route of trip: coordinates of visited cities in order of visits, packed into one array of
+ * latitude and longitude pairs. Maps and distances iterate the array instead of visits, cities
+ * and their coordinates.
+ */
+public final class Route implements Serializable {
+
+  /**
+   * Route without cities.
+   */
+  public static final Route EMPTY = new Route(new double[0]);
+  private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+  private final double[] points;
+  private final double lengthMeters;
+
+  private Route(double[] points) {
+    this.points = points;
+    double length = 0;
+    for (int i = 2; i < points.length; i += 2) {
+      length += distanceMeters(points[i - 2], points[i - 1], points[i], points[i + 1]);
+    }
+    this.lengthMeters = length;
+  }
+
+  /**
+   * Creates route of cities of visits.
+   *
+   * @param countries visits of countries, may be null.
+   * @return route.
+   */
+  public static Route of(@Nullable List<CountryVisit> countries) {
+    if (countries == null) {
+      return EMPTY;
+    }
+    int size = 0;
+    for (CountryVisit visit : countries) {
+      size += visit.getVisitedCities().size();
+    }
+    if (size == 0) {
+      return EMPTY;
+    }
+    double[] points = new double[2 * size];
+    int index = 0;
+    for (CountryVisit visit : countries) {
+      for (City city : visit.getVisitedCities()) {
+        points[index++] = city.getCoordinates().getLatitude();
+        points[index++] = city.getCoordinates().getLongitude();
+      }
+    }
+    return new Route(points);
+  }
+
+  /**
+   * Great-circle distance between two points by haversine formula.
+   *
+   * @param latitude1  latitude of first point in degrees.
+   * @param longitude1 longitude of first point in degrees.
+   * @param latitude2  latitude of second point in degrees.
+   * @param longitude2 longitude of second point in degrees.
+   * @return distance in meters.
+   */
+  public static double distanceMeters(double latitude1, double longitude1, double latitude2,
+      double longitude2) {
+    double sinLatitude = Math.sin(Math.toRadians(latitude2 - latitude1) / 2);
+    double sinLongitude = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+    double a = sinLatitude * sinLatitude + Math.cos(Math.toRadians(latitude1))
+        * Math.cos(Math.toRadians(latitude2)) * sinLongitude * sinLongitude;
+    return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+  }
+
+  /**
+   * Number of cities in route.
+   *
+   * @return number of points.
+   */
+  public int size() {
+    return points.length / 2;
+  }
+
+  public double getLatitude(int index) {
+    return points[2 * index];
+  }
+
+  public double getLongitude(int index) {
+    return points[2 * index + 1];
+  }
+
+  /**
+   * Length of route through all its cities.
+   *
+   * @return length in meters.
+   */
+  public double getLengthMeters() {
+    return lengthMeters;
+  }
+
+  /**
+   * Approximate size of route in memory.
+   *
+   * @return bytes.
+   */
+  public int estimateBytes() {
+    return 32 + 8 * points.length;
+  }
+}
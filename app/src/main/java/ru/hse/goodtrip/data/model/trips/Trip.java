@@ -3,14 +3,25 @@ package ru.hse.goodtrip.data.model.trips;
 import androidx.annotation.Nullable;
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import ru.hse.goodtrip.data.model.User;
 import ru.hse.goodtrip.network.trips.model.TripState;
 
 /**
- * Users trip.
+ * Users trip. Trip remembers values of its fields when it was received from the server, so that
+ * only changed fields are sent when it is saved. Route of trip is packed when trip is marked
+ * clean, so it is computed once when trip is received.
  */
 @Data
 public class Trip implements Serializable {
@@ -28,7 +39,18 @@ public class Trip implements Serializable {
   private LocalDate timeOfPublication;
   private TripState tripState;
   private Integer tripId;
-
+  @Nullable
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private Baseline baseline;
+  @Nullable
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private Route route;
 
   /**
    * creates trip.
@@ -60,4 +82,167 @@ public class Trip implements Serializable {
     this.tripState = state;
     this.tripId = tripId;
   }
+
+  /**
+   * Copy of trip with another author. Trips are shared through caches, so author known only to the
+   * caller is set on a copy. Visits, notes and places are shared with this trip.
+   *
+   * @param user author of trip.
+   * @return copy of trip.
+   */
+  public Trip withUser(User user) {
+    Trip copy = new Trip(title, countries, startTripDate, endTripDate, timeOfPublication,
+        mainPhotoUrl, moneyInUsd, interestingPlacesToVisit, user, tripId, tripState);
+    copy.notes = notes;
+    copy.baseline = baseline;
+    copy.route = route;
+    return copy;
+  }
+
+  @Nullable
+  private static List<Note> copyNotes(@Nullable List<Note> notes) {
+    if (notes == null) {
+      return null;
+    }
+    List<Note> copy = new ArrayList<>(notes.size());
+    for (Note note : notes) {
+      copy.add(note == null ? null : new Note(note.getHeadline(), note.getNote(),
+          note.getPhotoUrl(), note.getPlace()));
+    }
+    return copy;
+  }
+
+  @Nullable
+  private static List<CountryVisit> copyCountries(@Nullable List<CountryVisit> countries) {
+    if (countries == null) {
+      return null;
+    }
+    List<CountryVisit> copy = new ArrayList<>(countries.size());
+    for (CountryVisit visit : countries) {
+      copy.add(visit == null ? null : new CountryVisit(visit.getCountry(),
+          visit.getVisitedCities() == null ? null : new ArrayList<>(visit.getVisitedCities())));
+    }
+    return copy;
+  }
+
+  /**
+   * Copy of trip which may be edited without changing this trip, e.g. one shared through caches.
+   * Notes and visits are copied, places are immutable and are shared. Changes are tracked against
+   * the same saved state as in this trip.
+   *
+   * @return copy of trip.
+   */
+  public Trip editableCopy() {
+    Trip copy = new Trip(title, copyCountries(countries), startTripDate, endTripDate,
+        timeOfPublication, mainPhotoUrl, moneyInUsd, interestingPlacesToVisit == null ? null
+        : new HashSet<>(interestingPlacesToVisit), user, tripId, tripState);
+    copy.notes = copyNotes(notes);
+    copy.baseline = baseline;
+    copy.route = route;
+    return copy;
+  }
+
+  /**
+   * Remember current values of fields as saved on the server.
+   */
+  public void markClean() {
+    baseline = new Baseline(this);
+    route = Route.of(countries);
+  }
+
+  /**
+   * Set visits of trip, route is packed again when it is requested.
+   *
+   * @param countries visits of countries.
+   */
+  public void setCountries(List<CountryVisit> countries) {
+    this.countries = countries;
+    route = null;
+  }
+
+  /**
+   * Route through visited cities. Trip changed in place since it was marked clean should set its
+   * countries again, so that route is packed again.
+   *
+   * @return route.
+   */
+  public Route getRoute() {
+    if (route == null) {
+      route = Route.of(countries);
+    }
+    return route;
+  }
+
+  /**
+   * Fields changed since trip was received from the server or saved. Notes and visits are compared
+   * with copies taken when trip was marked clean, so they may be changed in place.
+   *
+   * @return changed fields, all fields if trip was not received from the server.
+   */
+  public EnumSet<Field> getDirtyFields() {
+    if (baseline == null) {
+      return EnumSet.allOf(Field.class);
+    }
+    return baseline.compare(this);
+  }
+
+  /**
+   * Field of trip which is tracked for changes.
+   */
+  public enum Field {
+    TITLE, MONEY, MAIN_PHOTO, DATES, STATE, NOTES, COUNTRIES
+  }
+
+  private static class Baseline implements Serializable {
+
+    private final String title;
+    private final int moneyInUsd;
+    @Nullable
+    private final String mainPhotoUrl;
+    private final LocalDate startTripDate;
+    private final LocalDate endTripDate;
+    private final TripState tripState;
+    @Nullable
+    private final List<Note> notes;
+    @Nullable
+    private final List<CountryVisit> countries;
+
+    Baseline(Trip trip) {
+      title = trip.title;
+      moneyInUsd = trip.moneyInUsd;
+      mainPhotoUrl = trip.mainPhotoUrl;
+      startTripDate = trip.startTripDate;
+      endTripDate = trip.endTripDate;
+      tripState = trip.tripState;
+      notes = copyNotes(trip.notes);
+      countries = copyCountries(trip.countries);
+    }
+
+    EnumSet<Field> compare(Trip current) {
+      EnumSet<Field> changed = EnumSet.noneOf(Field.class);
+      if (!Objects.equals(title, current.title)) {
+        changed.add(Field.TITLE);
+      }
+      if (moneyInUsd != current.moneyInUsd) {
+        changed.add(Field.MONEY);
+      }
+      if (!Objects.equals(mainPhotoUrl, current.mainPhotoUrl)) {
+        changed.add(Field.MAIN_PHOTO);
+      }
+      if (!Objects.equals(startTripDate, current.startTripDate)
+          || !Objects.equals(endTripDate, current.endTripDate)) {
+        changed.add(Field.DATES);
+      }
+      if (tripState != current.tripState) {
+        changed.add(Field.STATE);
+      }
+      if (!Objects.equals(notes, current.notes)) {
+        changed.add(Field.NOTES);
+      }
+      if (!Objects.equals(countries, current.countries)) {
+        changed.add(Field.COUNTRIES);
+      }
+      return changed;
+    }
+  }
 }
\ No newline at end of file
@@ -0,0 +1,288 @@
+package ru.hse.goodtrip.data.sync;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.hse.goodtrip.data.model.Result;
+import ru.hse.goodtrip.network.NetworkException;
+import ru.hse.goodtrip.network.trips.model.Trip;
+import ru.hse.goodtrip.network.trips.model.TripChanges;
+
+/**
+ * Keeps trips of user in sync with the server.
+ *
+ * <p>Client holds sync token of the last changes it applied and requests only trips changed or
+ * deleted since it, so that only changed trips are transferred and mapped. Token rejected by the
+ * server is dropped and all trips are requested again. Changes are requested only if they are
+ * enabled, as not every server supports them. If the server doesn't support changes after all,
+ * engine falls back to fetching all trips; mapped trips which didn't change are reused then too.
+ *
+ * @param <T> type of mapped trip.
+ */
+public class TripSyncEngine<T> {
+
+  private final Function<Trip, T> mapper;
+  private final Predicate<T> reusable;
+  private final boolean changesEnabled;
+  private final LinkedHashMap<Integer, Entry<T>> trips = new LinkedHashMap<>();
+  @Nullable
+  private String syncToken;
+  private boolean changesSupported;
+  private long deltaSyncs;
+  private long fullSyncs;
+  private long staleChanges;
+  private long mappedTrips;
+  private long reusedTrips;
+
+  /**
+   * Creates engine.
+   *
+   * @param mapper mapper of received trips, called only for trips which changed.
+   */
+  public TripSyncEngine(Function<Trip, T> mapper) {
+    this(mapper, mapped -> true);
+  }
+
+  /**
+   * Creates engine.
+   *
+   * @param mapper   mapper of received trips, called only for trips which changed.
+   * @param reusable whether mapped trip may be reused if its trip didn't change, e.g. it has no
+   *                 unsaved edits.
+   */
+  public TripSyncEngine(Function<Trip, T> mapper, Predicate<T> reusable) {
+    this(mapper, reusable, true);
+  }
+
+  /**
+   * Creates engine.
+   *
+   * @param mapper         mapper of received trips, called only for trips which changed.
+   * @param reusable       whether mapped trip may be reused if its trip didn't change, e.g. it has
+   *                       no unsaved edits.
+   * @param changesEnabled whether changes are requested, otherwise all trips are fetched every
+   *                       time.
+   */
+  public TripSyncEngine(Function<Trip, T> mapper, Predicate<T> reusable,
+      boolean changesEnabled) {
+    this.mapper = mapper;
+    this.reusable = reusable;
+    this.changesEnabled = changesEnabled;
+    this.changesSupported = changesEnabled;
+  }
+
+  private static boolean isTokenRejected(int code) {
+    return code == 400 || code == 410;
+  }
+
+  private static boolean isUnsupported(int code) {
+    return code == 404 || code == 405 || code == 501
+        || code == NetworkException.UNDECODABLE_RESPONSE;
+  }
+
+  private static <E> List<E> orEmpty(@Nullable List<E> list) {
+    return list == null ? Collections.emptyList() : list;
+  }
+
+  /**
+   * Sync trips with the server.
+   *
+   * @param source requests to the server.
+   * @return future of all trips after sync.
+   */
+  public CompletableFuture<Result<Update<T>>> sync(Source source) {
+    String token;
+    synchronized (this) {
+      if (!changesSupported) {
+        return fetchAll(source);
+      }
+      token = syncToken;
+    }
+    return source.fetchChanges(token).thenCompose(result -> {
+      if (result.isSuccess()) {
+        TripChanges changes = ((Result.Success<TripChanges>) result).getData();
+        if (changes.getSyncToken() != null) {
+          return CompletableFuture.completedFuture(new Result.Success<>(apply(token, changes)));
+        }
+      } else {
+        Exception error = ((Result.Error<TripChanges>) result).getError();
+        int code = error instanceof NetworkException ? ((NetworkException) error).getCode()
+            : NetworkException.NO_RESPONSE;
+        if (token != null && isTokenRejected(code)) {
+          dropToken(token);
+          return sync(source);
+        }
+        if (!isUnsupported(code)) {
+          return CompletableFuture.completedFuture(new Result.Error<>(error));
+        }
+      }
+      synchronized (this) {
+        changesSupported = false;
+      }
+      return fetchAll(source);
+    });
+  }
+
+  private CompletableFuture<Result<Update<T>>> fetchAll(Source source) {
+    return source.fetchAll().thenApply(result -> {
+      if (!result.isSuccess()) {
+        return new Result.Error<>(((Result.Error<List<Trip>>) result).getError());
+      }
+      synchronized (this) {
+        replaceAll(((Result.Success<List<Trip>>) result).getData());
+        syncToken = null;
+        return new Result.Success<>(
+            snapshot(true, Collections.emptyList(), Collections.emptyList()));
+      }
+    });
+  }
+
+  private synchronized void dropToken(String token) {
+    if (token.equals(syncToken)) {
+      syncToken = null;
+    }
+  }
+
+  private synchronized Update<T> apply(@Nullable String sinceToken, TripChanges changes) {
+    if (!Objects.equals(sinceToken, syncToken)) {
+      // Other sync applied changes after the token meanwhile, these may be older than its ones.
+      staleChanges++;
+      return snapshot(false, Collections.emptyList(), Collections.emptyList());
+    }
+    List<Trip> updated = orEmpty(changes.getUpdated());
+    List<Integer> deleted = orEmpty(changes.getDeleted());
+    syncToken = changes.getSyncToken();
+    if (sinceToken == null || changes.isFull()) {
+      replaceAll(updated);
+      return snapshot(true, Collections.emptyList(), Collections.emptyList());
+    }
+    deltaSyncs++;
+    for (Trip trip : updated) {
+      trips.put(trip.getId(), map(trip, trips.get(trip.getId())));
+    }
+    for (Integer tripId : deleted) {
+      trips.remove(tripId);
+    }
+    return snapshot(false, updated, deleted);
+  }
+
+  private void replaceAll(List<Trip> received) {
+    fullSyncs++;
+    LinkedHashMap<Integer, Entry<T>> previous = new LinkedHashMap<>(trips);
+    trips.clear();
+    for (Trip trip : received) {
+      trips.put(trip.getId(), map(trip, previous.get(trip.getId())));
+    }
+  }
+
+  private Entry<T> map(Trip trip, @Nullable Entry<T> previous) {
+    if (previous != null && previous.trip.equals(trip) && reusable.test(previous.mapped)) {
+      reusedTrips++;
+      return previous;
+    }
+    mappedTrips++;
+    return new Entry<>(trip, mapper.apply(trip));
+  }
+
+  private Update<T> snapshot(boolean full, List<Trip> updated, List<Integer> deleted) {
+    List<Trip> received = new ArrayList<>(trips.size());
+    List<T> mapped = new ArrayList<>(trips.size());
+    for (Entry<T> entry : trips.values()) {
+      received.add(entry.trip);
+      mapped.add(entry.mapped);
+    }
+    return new Update<>(received, mapped, full, updated, deleted);
+  }
+
+  /**
+   * Forget trips and sync token, e.g. when user logs out.
+   */
+  public synchronized void reset() {
+    trips.clear();
+    syncToken = null;
+    changesSupported = changesEnabled;
+  }
+
+  @Nullable
+  public synchronized String getSyncToken() {
+    return syncToken;
+  }
+
+  public synchronized long getMappedCount() {
+    return mappedTrips;
+  }
+
+  public synchronized long getReusedCount() {
+    return reusedTrips;
+  }
+
+  @NonNull
+  @Override
+  public synchronized String toString() {
+    return String.format(Locale.US,
+        "trip sync: trips=%d delta=%d full=%d stale=%d mapped=%d reused=%d changes=%s",
+        trips.size(), deltaSyncs, fullSyncs, staleChanges, mappedTrips, reusedTrips,
+        !changesEnabled ? "disabled" : changesSupported ? "supported" : "unsupported");
+  }
+
+  /**
+   * Requests to the server.
+   */
+  public interface Source {
+
+    /**
+     * Request trips changed since sync token.
+     *
+     * @param syncToken token of the last applied changes, null to request all trips.
+     * @return future of changes.
+     */
+    CompletableFuture<Result<TripChanges>> fetchChanges(@Nullable String syncToken);
+
+    /**
+     * Request all trips, used if the server doesn't support changes.
+     *
+     * @return future of all trips.
+     */
+    CompletableFuture<Result<List<Trip>>> fetchAll();
+  }
+
+  /**
+   * Trips after sync.
+   *
+   * @param <T> type of mapped trip.
+   */
+  @Getter
+  @AllArgsConstructor
+  public static class Update<T> {
+
+    private final List<Trip> trips;
+    private final List<T> mapped;
+    /**
+     * Whether all trips were received, so updated and deleted are not filled.
+     */
+    private final boolean full;
+    private final List<Trip> updated;
+    private final List<Integer> deleted;
+  }
+
+  private static class Entry<T> {
+
+    private final Trip trip;
+    private final T mapped;
+
+    Entry(Trip trip, T mapped) {
+      this.trip = trip;
+      this.mapped = mapped;
+    }
+  }
+}
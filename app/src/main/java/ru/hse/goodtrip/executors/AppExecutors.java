@@ -0,0 +1,125 @@
+package ru.hse.goodtrip.executors;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Singleton registry of application thread pools. Repositories, ViewModels and fragments take
+ * their executors from here instead of creating their own or falling back to the common pool.
+ */
+public class AppExecutors {
+
+  private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
+  private static final int NETWORK_THREADS = 8;
+  private static final int NETWORK_QUEUE_CAPACITY = 64;
+  private static final int CPU_THREADS = Math.max(2, CPU_COUNT);
+  private static final int CPU_QUEUE_CAPACITY = 128;
+  private static final int DISK_THREADS = 2;
+  private static final int DISK_QUEUE_CAPACITY = 64;
+
+  private static volatile AppExecutors instance;
+
+  private final InstrumentedThreadPoolExecutor network;
+  private final InstrumentedThreadPoolExecutor cpu;
+  private final InstrumentedThreadPoolExecutor disk;
+  private final ScheduledThreadPoolExecutor scheduled;
+  private final Executor mainThread;
+
+  private AppExecutors() {
+    network = new InstrumentedThreadPoolExecutor("network", NETWORK_THREADS,
+        NETWORK_QUEUE_CAPACITY, Process.THREAD_PRIORITY_BACKGROUND, false);
+    cpu = new InstrumentedThreadPoolExecutor("cpu", CPU_THREADS, CPU_QUEUE_CAPACITY,
+        Process.THREAD_PRIORITY_DEFAULT, true);
+    disk = new InstrumentedThreadPoolExecutor("disk", DISK_THREADS, DISK_QUEUE_CAPACITY,
+        Process.THREAD_PRIORITY_BACKGROUND, true);
+    scheduled = new ScheduledThreadPoolExecutor(1,
+        InstrumentedThreadPoolExecutor.namedThreadFactory("scheduled",
+            Process.THREAD_PRIORITY_BACKGROUND));
+    scheduled.setRemoveOnCancelPolicy(true);
+    Handler mainHandler = new Handler(Looper.getMainLooper());
+    mainThread = mainHandler::post;
+  }
+
+  /**
+   * Get instance of AppExecutors.
+   *
+   * @return instance of AppExecutors.
+   */
+  public static AppExecutors getInstance() {
+    if (instance == null) {
+      synchronized (AppExecutors.class) {
+        if (instance == null) {
+          instance = new AppExecutors();
+        }
+      }
+    }
+    return instance;
+  }
+
+  /**
+   * Pool which runs network calls.
+   *
+   * @return network pool.
+   */
+  public InstrumentedThreadPoolExecutor network() {
+    return network;
+  }
+
+  /**
+   * Pool for CPU work: mapping of responses, sorting, Retrofit callbacks.
+   *
+   * @return cpu pool.
+   */
+  public InstrumentedThreadPoolExecutor cpu() {
+    return cpu;
+  }
+
+  /**
+   * Pool for local storage access.
+   *
+   * @return disk pool.
+   */
+  public InstrumentedThreadPoolExecutor disk() {
+    return disk;
+  }
+
+  /**
+   * Single thread for delayed and periodic tasks.
+   *
+   * @return scheduled executor.
+   */
+  public ScheduledThreadPoolExecutor scheduled() {
+    return scheduled;
+  }
+
+  /**
+   * Executor which posts tasks to main looper.
+   *
+   * @return main thread executor.
+   */
+  public Executor mainThread() {
+    return mainThread;
+  }
+
+  /**
+   * Get queue depth and thread metrics of all pools.
+   *
+   * @return list of stats of pools.
+   */
+  public List<ExecutorStats> getStats() {
+    List<ExecutorStats> stats = new ArrayList<>();
+    stats.add(network.getStats());
+    stats.add(cpu.getStats());
+    stats.add(disk.getStats());
+    stats.add(new ExecutorStats("scheduled", scheduled.getPoolSize(),
+        scheduled.getMaximumPoolSize(), scheduled.getActiveCount(),
+        scheduled.getLargestPoolSize(), scheduled.getQueue().size(), Integer.MAX_VALUE,
+        scheduled.getCompletedTaskCount(), 0));
+    return stats;
+  }
+}
@@ -0,0 +1,24 @@
+package ru.hse.goodtrip.executors;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Snapshot of state of named executor.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ExecutorStats {
+
+  private final String name;
+  private final int poolSize;
+  private final int maximumPoolSize;
+  private final int activeThreads;
+  private final int largestPoolSize;
+  private final int queueDepth;
+  private final int queueCapacity;
+  private final long completedTasks;
+  private final long rejectedTasks;
+}
@@ -0,0 +1,76 @@
+package ru.hse.goodtrip.executors;
+
+import android.os.Process;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded thread pool with named threads which counts rejected tasks.
+ */
+public class InstrumentedThreadPoolExecutor extends ThreadPoolExecutor {
+
+  private static final long KEEP_ALIVE_SECONDS = 30;
+
+  private final String name;
+  private final int queueCapacity;
+  private final AtomicLong rejectedTasks = new AtomicLong();
+
+  /**
+   * Creates pool.
+   *
+   * @param name           name of pool, used as prefix of thread names.
+   * @param threads        maximum number of threads.
+   * @param queueCapacity  capacity of queue of waiting tasks.
+   * @param threadPriority android priority of threads of pool.
+   * @param callerRuns     if true, rejected tasks are run by submitting thread, otherwise they are
+   *                       rejected with exception.
+   */
+  public InstrumentedThreadPoolExecutor(String name, int threads, int queueCapacity,
+      int threadPriority, boolean callerRuns) {
+    super(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), namedThreadFactory(name, threadPriority));
+    this.name = name;
+    this.queueCapacity = queueCapacity;
+    allowCoreThreadTimeOut(true);
+    RejectedExecutionHandler handler = callerRuns ? new CallerRunsPolicy() : new AbortPolicy();
+    setRejectedExecutionHandler((runnable, executor) -> {
+      rejectedTasks.incrementAndGet();
+      handler.rejectedExecution(runnable, executor);
+    });
+  }
+
+  /**
+   * Creates factory of threads named "gt-{name}-{index}" with provided android priority.
+   *
+   * @param name           name of pool.
+   * @param threadPriority android priority of threads.
+   * @return thread factory.
+   */
+  static ThreadFactory namedThreadFactory(String name, int threadPriority) {
+    AtomicInteger index = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(() -> {
+        Process.setThreadPriority(threadPriority);
+        runnable.run();
+      }, "gt-" + name + "-" + index.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * Get current state of pool.
+   *
+   * @return stats of pool.
+   */
+  public ExecutorStats getStats() {
+    return new ExecutorStats(name, getPoolSize(), getMaximumPoolSize(), getActiveCount(),
+        getLargestPoolSize(), getQueue().size(), queueCapacity, getCompletedTaskCount(),
+        rejectedTasks.get());
+  }
+}
@@ -0,0 +1,47 @@
+package ru.hse.goodtrip.executors;
+
+import androidx.annotation.NonNull;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs tasks one at a time in order of submission on a shared pool, so that e.g. writes to local
+ * storage can't overtake each other while they still use threads of the pool.
+ */
+public class SerialExecutor implements Executor {
+
+  private final Executor delegate;
+  private final Queue<Runnable> tasks = new ArrayDeque<>();
+  private Runnable active;
+
+  /**
+   * Creates executor.
+   *
+   * @param delegate pool which runs tasks.
+   */
+  public SerialExecutor(Executor delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public synchronized void execute(@NonNull Runnable task) {
+    tasks.add(() -> {
+      try {
+        task.run();
+      } finally {
+        scheduleNext();
+      }
+    });
+    if (active == null) {
+      scheduleNext();
+    }
+  }
+
+  private synchronized void scheduleNext() {
+    active = tasks.poll();
+    if (active != null) {
+      delegate.execute(active);
+    }
+  }
+}
@@ -16,7 +16,6 @@ import ru.hse.goodtrip.data.model.trips.Trip;
 import ru.hse.goodtrip.databinding.ActivityMainBinding;
 import ru.hse.goodtrip.ui.profile.followers.FollowingFragment.PAGE_TYPE;
 import ru.hse.goodtrip.ui.profile.followers.ProfileFollowingFragment;
-import ru.hse.goodtrip.ui.trips.feed.FeedAdapter;
 
 /**
  * Main application navigation fragment.
@@ -136,27 +135,31 @@ public class GtNavigationGraphMain extends NavHostFragment {
   }
 
   /**
-   * Opens PostFragment with provided trip and owns PostDetails and PostNotes Fragments.
+   * Opens PostFragment with provided trip and owns PostDetails and PostNotes Fragments. Trip is
+   * handed over by id, see {@link TripHandoff}.
    *
    * @param trip trip to open.
    */
   public void navigateToPostPage(Trip trip) {
-    Bundle bundle = new Bundle();
-    bundle.putSerializable(FeedAdapter.POST_ARG, trip);
-
-    navController.navigate(R.id.navigation_post, bundle);
+    navController.navigate(R.id.navigation_post, TripHandoff.getInstance().toArguments(trip));
   }
 
   /**
-   * Opens PostEditorFragment with provided trip.
+   * Opens PostEditorFragment with provided trip. Trip is handed over by id, see
+   * {@link TripHandoff}.
    *
    * @param trip trip to open.
    */
   public void navigateToPostEditorPage(Trip trip) {
-    Bundle bundle = new Bundle();
-    bundle.putSerializable(FeedAdapter.POST_ARG, trip);
+    navController.navigate(R.id.navigation_post_editor,
+        TripHandoff.getInstance().toArguments(trip));
+  }
 
-    navController.navigate(R.id.navigation_post_editor, bundle);
+  /**
+   * Opens NetworkStatsFragment.
+   */
+  public void navigateToNetworkStats() {
+    navController.navigate(R.id.navigation_network_stats);
   }
 
   /**
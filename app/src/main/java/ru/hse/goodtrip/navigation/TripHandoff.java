@@ -0,0 +1,267 @@
+package ru.hse.goodtrip.navigation;
+
+import android.os.Bundle;
+import android.os.Parcel;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import ru.hse.goodtrip.data.TripRepository;
+import ru.hse.goodtrip.data.UsersRepository;
+import ru.hse.goodtrip.data.model.Result;
+import ru.hse.goodtrip.data.model.User;
+import ru.hse.goodtrip.data.model.trips.Trip;
+import ru.hse.goodtrip.network.metrics.LatencyHistogram;
+
+/**
+ * Hands trips over to opened pages by id instead of serializing whole trips into arguments.
+ *
+ * <p>Arguments of page hold only id of trip, version of handoff and name and photo of author,
+ * while trip itself is kept in memory. If process was restarted since then, trip is loaded from
+ * Room or, if it isn't stored, from the server. Trips without id are written with
+ * {@link TripParcel}.
+ */
+public class TripHandoff {
+
+  public static final String TRIP_ID_ARG = "tripId";
+  public static final String TRIP_VERSION_ARG = "tripVersion";
+  public static final String TRIP_PARCEL_ARG = "tripParcel";
+  public static final String AUTHOR_ID_ARG = "tripAuthorId";
+  public static final String AUTHOR_NAME_ARG = "tripAuthorName";
+  public static final String AUTHOR_PHOTO_ARG = "tripAuthorPhoto";
+  private static final int MAX_TRIPS = 32;
+
+  private static volatile TripHandoff instance;
+
+  private final Map<Integer, Entry> trips = new LinkedHashMap<Integer, Entry>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+      return size() > MAX_TRIPS;
+    }
+  };
+  private final AtomicInteger versions = new AtomicInteger();
+  private final AtomicLong handoffs = new AtomicLong();
+  private final AtomicLong argumentBytes = new AtomicLong();
+  private final AtomicLong maxArgumentBytes = new AtomicLong();
+  private final AtomicLong memoryHits = new AtomicLong();
+  private final AtomicLong newerHits = new AtomicLong();
+  private final AtomicLong parcelHits = new AtomicLong();
+  private final AtomicLong storeHits = new AtomicLong();
+  private final AtomicLong networkLoads = new AtomicLong();
+  private final LatencyHistogram navigationLatency = new LatencyHistogram();
+  private final LatencyHistogram restoreLatency = new LatencyHistogram();
+
+  /**
+   * Get instance of TripHandoff.
+   *
+   * @return instance of TripHandoff.
+   */
+  public static TripHandoff getInstance() {
+    if (instance == null) {
+      synchronized (TripHandoff.class) {
+        if (instance == null) {
+          instance = new TripHandoff();
+        }
+      }
+    }
+    return instance;
+  }
+
+  private static int sizeOf(Bundle bundle) {
+    Parcel parcel = Parcel.obtain();
+    try {
+      parcel.writeBundle(bundle);
+      return parcel.dataSize();
+    } finally {
+      parcel.recycle();
+    }
+  }
+
+  /**
+   * Make arguments of page which shows trip.
+   *
+   * @param trip trip to show.
+   * @return arguments.
+   */
+  public Bundle toArguments(Trip trip) {
+    Bundle bundle = new Bundle();
+    int version = 0;
+    if (trip.getTripId() == null) {
+      bundle.putParcelable(TRIP_PARCEL_ARG, new TripParcel(trip));
+    } else {
+      version = versions.incrementAndGet();
+      bundle.putInt(TRIP_ID_ARG, trip.getTripId());
+      bundle.putInt(TRIP_VERSION_ARG, version);
+      User author = trip.getUser();
+      if (author != null) {
+        bundle.putInt(AUTHOR_ID_ARG, author.getId());
+        bundle.putString(AUTHOR_NAME_ARG, author.getDisplayName());
+        bundle.putString(AUTHOR_PHOTO_ARG,
+            author.getMainPhotoUrl() == null ? null : author.getMainPhotoUrl().toString());
+      }
+    }
+    int size = sizeOf(bundle);
+    argumentBytes.addAndGet(size);
+    maxArgumentBytes.accumulateAndGet(size, Math::max);
+    handoffs.incrementAndGet();
+    if (trip.getTripId() != null) {
+      // Navigation latency starts after measurements, so they are not counted in it.
+      synchronized (trips) {
+        trips.put(trip.getTripId(), new Entry(version, trip, System.nanoTime()));
+      }
+    }
+    return bundle;
+  }
+
+  /**
+   * Get trip of arguments if it is available without loading.
+   *
+   * @param args arguments of page.
+   * @return trip, null if it should be resolved by {@link #resolve(Bundle)}.
+   */
+  @Nullable
+  public Trip peek(Bundle args) {
+    TripParcel parcel = args.getParcelable(TRIP_PARCEL_ARG);
+    if (parcel != null) {
+      parcelHits.incrementAndGet();
+      return parcel.getTrip();
+    }
+    if (!args.containsKey(TRIP_ID_ARG)) {
+      return null;
+    }
+    Entry entry;
+    boolean opened;
+    synchronized (trips) {
+      entry = trips.get(args.getInt(TRIP_ID_ARG));
+      if (entry == null) {
+        return null;
+      }
+      opened = entry.opened;
+      entry.opened = true;
+    }
+    memoryHits.incrementAndGet();
+    if (entry.version > args.getInt(TRIP_VERSION_ARG)) {
+      // Trip was handed over again since then, its latest state is shown.
+      newerHits.incrementAndGet();
+    }
+    if (!opened) {
+      navigationLatency.recordNanos(System.nanoTime() - entry.handedOverAt);
+    }
+    return entry.trip;
+  }
+
+  /**
+   * Resolve trip of arguments: trip kept in memory, stored in Room or received from the server.
+   *
+   * @param args arguments of page.
+   * @return future of trip.
+   */
+  public CompletableFuture<Result<Trip>> resolve(Bundle args) {
+    Trip trip = peek(args);
+    if (trip != null) {
+      return CompletableFuture.completedFuture(new Result.Success<>(trip));
+    }
+    if (!args.containsKey(TRIP_ID_ARG)) {
+      return CompletableFuture.completedFuture(
+          new Result.Error<>(new IllegalArgumentException("No trip in arguments")));
+    }
+    long start = System.nanoTime();
+    int tripId = args.getInt(TRIP_ID_ARG);
+    User author = getAuthor(args);
+    return TripRepository.getInstance().loadStoredTrip(tripId, author).thenCompose(stored -> {
+      if (stored != null) {
+        storeHits.incrementAndGet();
+        return CompletableFuture.<Result<Trip>>completedFuture(new Result.Success<>(stored));
+      }
+      User loggedUser = UsersRepository.getInstance().getLoggedUser();
+      if (loggedUser == null) {
+        return CompletableFuture.<Result<Trip>>completedFuture(
+            new Result.Error<>(new IllegalStateException("User is not logged in")));
+      }
+      networkLoads.incrementAndGet();
+      return TripRepository.getInstance().getTripDetails(tripId, loggedUser.getToken())
+          .thenApply(result -> result.isSuccess()
+              ? new Result.Success<>(((Result.Success<Trip>) result).getData().withUser(author))
+              : result);
+    }).thenApply(result -> {
+      restoreLatency.recordNanos(System.nanoTime() - start);
+      if (result.isSuccess()) {
+        Trip resolved = ((Result.Success<Trip>) result).getData();
+        Entry entry = new Entry(args.getInt(TRIP_VERSION_ARG), resolved, start);
+        entry.opened = true;
+        synchronized (trips) {
+          trips.put(tripId, entry);
+        }
+      }
+      return result;
+    });
+  }
+
+  /**
+   * Author of trip in arguments. Trip stored in Room or received from the server knows only id of
+   * its author, so name and photo are taken from arguments.
+   */
+  @Nullable
+  private static User getAuthor(Bundle args) {
+    if (!args.containsKey(AUTHOR_ID_ARG)) {
+      return null;
+    }
+    int id = args.getInt(AUTHOR_ID_ARG);
+    User loggedUser = UsersRepository.getInstance().getLoggedUser();
+    if (loggedUser != null && loggedUser.getId() == id) {
+      return loggedUser;
+    }
+    URL photoUrl = null;
+    try {
+      String photo = args.getString(AUTHOR_PHOTO_ARG);
+      photoUrl = photo == null ? null : new URL(photo);
+    } catch (MalformedURLException ignored) {
+      // Url was valid when it was handed over.
+    }
+    return new User(id, null, args.getString(AUTHOR_NAME_ARG), photoUrl, null);
+  }
+
+  /**
+   * Forget trips, e.g. when user logs out.
+   */
+  public void clear() {
+    synchronized (trips) {
+      trips.clear();
+    }
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    long count = handoffs.get();
+    return String.format(Locale.US,
+        "trip handoff: handoffs=%d args avg=%dB max=%dB"
+            + " memory=%d newer=%d parcel=%d room=%d network=%d"
+            + " navigation p50=%dus p99=%dus restore p50=%dus max=%dus",
+        count, count == 0 ? 0 : argumentBytes.get() / count, maxArgumentBytes.get(),
+        memoryHits.get(), newerHits.get(), parcelHits.get(), storeHits.get(),
+        networkLoads.get(), navigationLatency.getPercentileMicros(50),
+        navigationLatency.getPercentileMicros(99), restoreLatency.getPercentileMicros(50),
+        restoreLatency.getMaxMicros());
+  }
+
+  private static class Entry {
+
+    private final int version;
+    private final Trip trip;
+    private final long handedOverAt;
+    private boolean opened;
+
+    Entry(int version, Trip trip, long handedOverAt) {
+      this.version = version;
+      this.trip = trip;
+      this.handedOverAt = handedOverAt;
+    }
+  }
+}
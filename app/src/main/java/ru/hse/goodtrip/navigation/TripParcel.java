@@ -0,0 +1,246 @@
+package ru.hse.goodtrip.navigation;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.Getter;
+import ru.hse.goodtrip.data.PlaceRegistry;
+import ru.hse.goodtrip.data.UsersRepository;
+import ru.hse.goodtrip.data.model.User;
+import ru.hse.goodtrip.data.model.trips.AbstractPlace;
+import ru.hse.goodtrip.data.model.trips.City;
+import ru.hse.goodtrip.data.model.trips.Coordinates;
+import ru.hse.goodtrip.data.model.trips.Country;
+import ru.hse.goodtrip.data.model.trips.CountryVisit;
+import ru.hse.goodtrip.data.model.trips.Note;
+import ru.hse.goodtrip.data.model.trips.ShowPlace;
+import ru.hse.goodtrip.data.model.trips.Trip;
+import ru.hse.goodtrip.network.trips.model.TripState;
+
+/**
+ * Compact parcelable form of trip for trips which can't be resolved by id, e.g. trips which are
+ * not saved yet or trips sent to other process. Fields are written as primitives and strings
+ * instead of Java serialization, places are read back through {@link PlaceRegistry}. Token of
+ * author is not written.
+ */
+public class TripParcel implements Parcelable {
+
+  public static final Creator<TripParcel> CREATOR = new Creator<TripParcel>() {
+    @Override
+    public TripParcel createFromParcel(Parcel in) {
+      return new TripParcel(readTrip(in));
+    }
+
+    @Override
+    public TripParcel[] newArray(int size) {
+      return new TripParcel[size];
+    }
+  };
+
+  private static final long NO_DATE = Long.MIN_VALUE;
+  private static final byte NO_PLACE = 0;
+  private static final byte COUNTRY = 1;
+  private static final byte CITY = 2;
+  private static final byte OTHER_PLACE = 3;
+
+  @Getter
+  private final Trip trip;
+
+  public TripParcel(Trip trip) {
+    this.trip = trip;
+  }
+
+  private static void writeDate(Parcel dest, @Nullable LocalDate date) {
+    dest.writeLong(date == null ? NO_DATE : date.toEpochDay());
+  }
+
+  @Nullable
+  private static LocalDate readDate(Parcel in) {
+    long epochDay = in.readLong();
+    return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+  }
+
+  private static void writeCoordinates(Parcel dest, Coordinates coordinates) {
+    dest.writeDouble(coordinates.getLatitude());
+    dest.writeDouble(coordinates.getLongitude());
+  }
+
+  private static Coordinates readCoordinates(Parcel in) {
+    return new Coordinates(in.readDouble(), in.readDouble());
+  }
+
+  private static void writeUser(Parcel dest, @Nullable User user) {
+    dest.writeByte((byte) (user == null ? 0 : 1));
+    if (user != null) {
+      dest.writeInt(user.getId());
+      dest.writeString(user.getHandle());
+      dest.writeString(user.getDisplayName());
+      dest.writeString(user.getMainPhotoUrl() == null ? null : user.getMainPhotoUrl().toString());
+    }
+  }
+
+  @Nullable
+  private static User readUser(Parcel in) {
+    if (in.readByte() == 0) {
+      return null;
+    }
+    int id = in.readInt();
+    String handle = in.readString();
+    String displayName = in.readString();
+    String photoUrl = in.readString();
+    User loggedUser = UsersRepository.getInstance().getLoggedUser();
+    if (loggedUser != null && loggedUser.getId() == id && id != 0) {
+      return loggedUser;
+    }
+    URL url = null;
+    try {
+      url = photoUrl == null ? null : new URL(photoUrl);
+    } catch (MalformedURLException ignored) {
+      // Url was valid when it was written.
+    }
+    return new User(id, handle, displayName, url, null);
+  }
+
+  private static void writePlace(Parcel dest, @Nullable AbstractPlace place) {
+    if (place == null) {
+      dest.writeByte(NO_PLACE);
+      return;
+    }
+    dest.writeByte(place instanceof Country ? COUNTRY : place instanceof City ? CITY : OTHER_PLACE);
+    dest.writeString(place.getName());
+    writeCoordinates(dest, place.getCoordinates());
+    if (place instanceof City) {
+      Country country = ((City) place).getCountry();
+      dest.writeString(country == null ? null : country.getName());
+    }
+  }
+
+  @Nullable
+  private static AbstractPlace readPlace(Parcel in) {
+    byte kind = in.readByte();
+    if (kind == NO_PLACE) {
+      return null;
+    }
+    String name = in.readString();
+    Coordinates coordinates = readCoordinates(in);
+    PlaceRegistry places = PlaceRegistry.getInstance();
+    if (kind == CITY) {
+      return places.city(name, coordinates, places.country(in.readString()));
+    }
+    // Places of notes are read as countries, like notes received from the server.
+    return places.country(name, coordinates);
+  }
+
+  private static void writeTrip(Parcel dest, Trip trip) {
+    dest.writeString(trip.getTitle());
+    dest.writeInt(trip.getMoneyInUsd());
+    dest.writeString(trip.getMainPhotoUrl());
+    writeDate(dest, trip.getStartTripDate());
+    writeDate(dest, trip.getEndTripDate());
+    writeDate(dest, trip.getTimeOfPublication());
+    dest.writeInt(trip.getTripState() == null ? -1 : trip.getTripState().ordinal());
+    dest.writeByte((byte) (trip.getTripId() == null ? 0 : 1));
+    dest.writeInt(trip.getTripId() == null ? 0 : trip.getTripId());
+    writeUser(dest, trip.getUser());
+
+    List<CountryVisit> countries = trip.getCountries();
+    dest.writeInt(countries == null ? 0 : countries.size());
+    if (countries != null) {
+      for (CountryVisit visit : countries) {
+        dest.writeString(visit.getCountry().getName());
+        writeCoordinates(dest, visit.getCountry().getCoordinates());
+        dest.writeInt(visit.getVisitedCities().size());
+        for (City city : visit.getVisitedCities()) {
+          dest.writeString(city.getName());
+          writeCoordinates(dest, city.getCoordinates());
+        }
+      }
+    }
+
+    List<Note> notes = trip.getNotes();
+    dest.writeInt(notes == null ? 0 : notes.size());
+    if (notes != null) {
+      for (Note note : notes) {
+        dest.writeString(note.getHeadline());
+        dest.writeString(note.getNote());
+        dest.writeString(note.getPhotoUrl());
+        writePlace(dest, note.getPlace());
+      }
+    }
+
+    Set<ShowPlace> showPlaces = trip.getInterestingPlacesToVisit();
+    dest.writeInt(showPlaces == null ? 0 : showPlaces.size());
+    if (showPlaces != null) {
+      for (ShowPlace place : showPlaces) {
+        dest.writeString(place.getName());
+        writeCoordinates(dest, place.getCoordinates());
+        dest.writeString(place.getImage() == null ? null : place.getImage().getPath());
+      }
+    }
+  }
+
+  private static Trip readTrip(Parcel in) {
+    String title = in.readString();
+    int moneyInUsd = in.readInt();
+    String mainPhotoUrl = in.readString();
+    LocalDate start = readDate(in);
+    LocalDate end = readDate(in);
+    LocalDate publication = readDate(in);
+    int state = in.readInt();
+    boolean hasId = in.readByte() != 0;
+    int tripId = in.readInt();
+    User user = readUser(in);
+
+    PlaceRegistry places = PlaceRegistry.getInstance();
+    int countryCount = in.readInt();
+    List<CountryVisit> countries = new ArrayList<>(countryCount);
+    for (int i = 0; i < countryCount; i++) {
+      Country country = places.country(in.readString(), readCoordinates(in));
+      int cityCount = in.readInt();
+      List<City> cities = new ArrayList<>(cityCount);
+      for (int j = 0; j < cityCount; j++) {
+        cities.add(places.city(in.readString(), readCoordinates(in), country));
+      }
+      countries.add(new CountryVisit(country, cities));
+    }
+
+    int noteCount = in.readInt();
+    List<Note> notes = new ArrayList<>(noteCount);
+    for (int i = 0; i < noteCount; i++) {
+      notes.add(new Note(in.readString(), in.readString(), in.readString(), readPlace(in)));
+    }
+
+    int showPlaceCount = in.readInt();
+    Set<ShowPlace> showPlaces = new HashSet<>();
+    for (int i = 0; i < showPlaceCount; i++) {
+      String name = in.readString();
+      Coordinates coordinates = readCoordinates(in);
+      String image = in.readString();
+      showPlaces.add(new ShowPlace(name, coordinates, image == null ? null : new File(image)));
+    }
+
+    Trip trip = new Trip(title, countries, start, end, publication, mainPhotoUrl, moneyInUsd,
+        showPlaces, user, hasId ? tripId : null, state < 0 ? null : TripState.values()[state]);
+    trip.setNotes(notes);
+    return trip;
+  }
+
+  @Override
+  public int describeContents() {
+    return 0;
+  }
+
+  @Override
+  public void writeToParcel(@NonNull Parcel dest, int flags) {
+    writeTrip(dest, trip);
+  }
+}
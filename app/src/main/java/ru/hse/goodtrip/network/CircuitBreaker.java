@@ -0,0 +1,110 @@
+package ru.hse.goodtrip.network;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker of one service. After several consecutive failures it opens and rejects
+ * requests without sending them; after cool down it lets one trial request through and closes
+ * again if that request succeeds.
+ */
+public class CircuitBreaker {
+
+  private final String name;
+  private final int failureThreshold;
+  private final long openMillis;
+  private State state = State.CLOSED;
+  private int consecutiveFailures;
+  private long openedAt;
+  private boolean trialInFlight;
+
+  /**
+   * Creates closed circuit breaker.
+   *
+   * @param name             name of service.
+   * @param failureThreshold number of consecutive failures which opens circuit.
+   * @param openMillis       time in milliseconds during which open circuit rejects requests.
+   */
+  public CircuitBreaker(String name, int failureThreshold, long openMillis) {
+    this.name = name;
+    this.failureThreshold = failureThreshold;
+    this.openMillis = openMillis;
+  }
+
+  private static long now() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+  }
+
+  /**
+   * Current state of circuit.
+   *
+   * @return state.
+   */
+  public synchronized State getState() {
+    return state;
+  }
+
+  /**
+   * Whether request to service may be sent now.
+   *
+   * @return true if request is allowed.
+   */
+  public synchronized boolean allowRequest() {
+    switch (state) {
+      case CLOSED:
+        return true;
+      case OPEN:
+        if (now() - openedAt < openMillis) {
+          return false;
+        }
+        state = State.HALF_OPEN;
+        trialInFlight = true;
+        return true;
+      default:
+        if (trialInFlight) {
+          return false;
+        }
+        trialInFlight = true;
+        return true;
+    }
+  }
+
+  /**
+   * Records that service responded.
+   */
+  public synchronized void onSuccess() {
+    consecutiveFailures = 0;
+    trialInFlight = false;
+    state = State.CLOSED;
+  }
+
+  /**
+   * Records that service didn't respond or responded with server error.
+   */
+  public synchronized void onFailure() {
+    trialInFlight = false;
+    consecutiveFailures++;
+    if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+      state = State.OPEN;
+      openedAt = now();
+    }
+  }
+
+  /**
+   * Records that request was cancelled before service responded, so it doesn't count as trial.
+   */
+  public synchronized void onCancelled() {
+    trialInFlight = false;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "CircuitBreaker(" + name + ", " + state + ", failures=" + consecutiveFailures + ")";
+  }
+
+  /**
+   * State of circuit.
+   */
+  public enum State {
+    CLOSED, OPEN, HALF_OPEN
+  }
+}
@@ -0,0 +1,21 @@
+package ru.hse.goodtrip.network;
+
+/**
+ * Error of request which was not sent because circuit breaker of its service is open.
+ */
+public class CircuitOpenException extends NetworkException {
+
+  /**
+   * Creates error of request rejected by circuit breaker.
+   *
+   * @param message message of error.
+   */
+  public CircuitOpenException(String message) {
+    super(message, NO_RESPONSE, null);
+  }
+
+  @Override
+  public boolean isTransient() {
+    return false;
+  }
+}
@@ -0,0 +1,38 @@
+package ru.hse.goodtrip.network;
+
+import java.util.Locale;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Snapshot of statistics of HTTP disk cache.
+ */
+@Getter
+@AllArgsConstructor
+public class HttpCacheStats {
+
+  private final int requestCount;
+  private final int networkCount;
+  /**
+   * Responses served from cache, including conditional hits revalidated by 304.
+   */
+  private final int hitCount;
+  private final long size;
+  private final long maxSize;
+
+  /**
+   * Share of requests served from cache.
+   *
+   * @return hit ratio from 0 to 1.
+   */
+  public double getHitRatio() {
+    return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(Locale.US,
+        "http cache requests=%d network=%d hits=%d (%.1f%%) size=%d/%d bytes",
+        requestCount, networkCount, hitCount, getHitRatio() * 100, size, maxSize);
+  }
+}
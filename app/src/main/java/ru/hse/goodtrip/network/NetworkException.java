@@ -0,0 +1,79 @@
+package ru.hse.goodtrip.network;
+
+import androidx.annotation.Nullable;
+import lombok.Getter;
+
+/**
+ * Error of request to server API which keeps HTTP status code of response.
+ */
+@Getter
+public class NetworkException extends Exception {
+
+  /**
+   * Status code used when no response was received.
+   */
+  public static final int NO_RESPONSE = 0;
+  /**
+   * Status code used when response was received but its body couldn't be decoded.
+   */
+  public static final int UNDECODABLE_RESPONSE = -1;
+
+  private final int code;
+  /**
+   * Body of error response sent by server, if any.
+   */
+  @Nullable
+  private final String errorBody;
+
+  /**
+   * Creates error of request.
+   *
+   * @param message message of error.
+   * @param code    HTTP status code, {@link #NO_RESPONSE} if server didn't respond or
+   *                {@link #UNDECODABLE_RESPONSE} if response couldn't be decoded.
+   * @param cause   cause of error, may be null.
+   */
+  public NetworkException(String message, int code, Throwable cause) {
+    this(message, code, null, cause);
+  }
+
+  /**
+   * Creates error of request with body of error response.
+   *
+   * @param message   message of error.
+   * @param code      HTTP status code.
+   * @param errorBody body of error response.
+   * @param cause     cause of error, may be null.
+   */
+  public NetworkException(String message, int code, @Nullable String errorBody,
+      Throwable cause) {
+    super(message, cause);
+    this.code = code;
+    this.errorBody = errorBody;
+  }
+
+  /**
+   * Whether server responded with HTTP status.
+   *
+   * @return true if error has HTTP status code.
+   */
+  public boolean hasResponse() {
+    return code != NO_RESPONSE;
+  }
+
+  /**
+   * Whether request may succeed if it is repeated: no response, timeout, throttling or server
+   * error.
+   *
+   * @return true if error is transient.
+   */
+  public boolean isTransient() {
+    return code == NO_RESPONSE || code == 408 || code == 429 || code >= 500;
+  }
+
+  @Override
+  public String toString() {
+    return super.toString() + " (code " + code + (errorBody == null ? "" : ", " + errorBody)
+        + ")";
+  }
+}
@@ -1,26 +1,102 @@
 package ru.hse.goodtrip.network;
 
+import android.util.Log;
+import androidx.annotation.Nullable;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.std.DateDeserializers;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.DateSerializer;
+import com.fasterxml.jackson.databind.ser.std.SqlDateSerializer;
+import java.io.File;
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
 import lombok.Setter;
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
 import retrofit2.Retrofit;
 import retrofit2.converter.jackson.JacksonConverterFactory;
+import ru.hse.goodtrip.executors.AppExecutors;
+import ru.hse.goodtrip.network.metrics.MetricsInterceptor;
+import ru.hse.goodtrip.network.metrics.MetricsRegistry;
+import ru.hse.goodtrip.network.trace.TraceRecorder;
 
 /**
- * Singleton class which saves basic settings about interaction with server API.
+ * Singleton class which saves basic settings about interaction with server API. It owns HTTP client
+ * with disk cache: responses with validators are revalidated with If-None-Match and
+ * If-Modified-Since, and OkHttp requests and decodes gzip transparently.
  */
 public class NetworkManager {
 
+  private static final long CACHE_SIZE_BYTES = 20L * 1024 * 1024;
+  private static final int MAX_REQUESTS = 8;
+  private static final int MAX_IDLE_CONNECTIONS = 8;
+  private static final long KEEP_ALIVE_MINUTES = 5;
+  private static final int CIRCUIT_FAILURE_THRESHOLD = 5;
+  private static final long CIRCUIT_OPEN_MILLIS = 30_000;
+  /**
+   * Mapper shared by Retrofit converter and all manual conversions, so its serializer and
+   * deserializer caches are built once.
+   */
+  @Getter
+  private static final ObjectMapper objectMapper = createObjectMapper();
   private static volatile NetworkManager instance;
   @Setter
   static private String baseUrl;
+  /**
+   * Directory for HTTP disk cache, cache is disabled if it is not set.
+   */
+  @Setter
+  static private File cacheDirectory;
   private final Retrofit retrofit;
+  private final Dispatcher dispatcher;
+  @Nullable
+  private final Cache cache;
+  private final ConcurrentHashMap<Class<?>, CircuitBreaker> circuitBreakers =
+      new ConcurrentHashMap<>();
+  @Getter
+  private final RetryPolicy retryPolicy = RetryPolicy.DEFAULT;
 
   private NetworkManager() {
+    AppExecutors executors = AppExecutors.getInstance();
+    dispatcher = new Dispatcher(executors.network());
+    dispatcher.setMaxRequests(MAX_REQUESTS);
+    dispatcher.setMaxRequestsPerHost(MAX_REQUESTS);
+    cache = cacheDirectory == null ? null
+        : new Cache(new File(cacheDirectory, "http"), CACHE_SIZE_BYTES);
+    OkHttpClient client = new OkHttpClient.Builder()
+        .dispatcher(dispatcher)
+        .connectionPool(
+            new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+        .cache(cache)
+        .addInterceptor(new MetricsInterceptor(MetricsRegistry.getInstance(),
+            TraceRecorder.getInstance()))
+        .build();
     retrofit = new Retrofit.Builder()
         .baseUrl(baseUrl)
-        .addConverterFactory(JacksonConverterFactory.create())
+        .client(client)
+        .callbackExecutor(executors.cpu())
+        .addConverterFactory(JacksonConverterFactory.create(objectMapper))
         .build();
   }
 
+  private static ObjectMapper createObjectMapper() {
+    SimpleModule sqlDates = new SimpleModule("SqlDates");
+    sqlDates.addSerializer(Date.class, new SqlDateSerializer());
+    sqlDates.addSerializer(Timestamp.class, DateSerializer.instance);
+    sqlDates.addDeserializer(Date.class, new DateDeserializers.SqlDateDeserializer());
+    sqlDates.addDeserializer(Timestamp.class, new DateDeserializers.TimestampDeserializer());
+    return new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+        .registerModule(sqlDates);
+  }
+
   /**
    * Return instance of Network Manager.
    *
@@ -43,4 +119,58 @@ public class NetworkManager {
   public <T> T getInstanceOfService(Class<T> type) {
     return retrofit.create(type);
   }
+
+  /**
+   * Statistics of HTTP disk cache.
+   *
+   * @return statistics, null if cache is disabled.
+   */
+  @Nullable
+  public HttpCacheStats getCacheStats() {
+    if (cache == null) {
+      return null;
+    }
+    long size;
+    try {
+      size = cache.size();
+    } catch (IOException e) {
+      size = -1;
+    }
+    return new HttpCacheStats(cache.requestCount(), cache.networkCount(), cache.hitCount(), size,
+        cache.maxSize());
+  }
+
+  /**
+   * Remove all responses from HTTP disk cache, for example when user logs out.
+   */
+  public void evictCache() {
+    if (cache == null) {
+      return;
+    }
+    try {
+      cache.evictAll();
+    } catch (IOException e) {
+      Log.e(getClass().getSimpleName(), "Cannot evict http cache: " + e);
+    }
+  }
+
+  /**
+   * Number of calls which are running or waiting for a free slot of dispatcher.
+   *
+   * @return number of calls.
+   */
+  public int getActiveCallCount() {
+    return dispatcher.runningCallsCount() + dispatcher.queuedCallsCount();
+  }
+
+  /**
+   * Returns circuit breaker shared by all calls of service.
+   *
+   * @param type interface of retrofit service.
+   * @return circuit breaker of service.
+   */
+  public CircuitBreaker getCircuitBreaker(Class<?> type) {
+    return circuitBreakers.computeIfAbsent(type, service -> new CircuitBreaker(
+        service.getSimpleName(), CIRCUIT_FAILURE_THRESHOLD, CIRCUIT_OPEN_MILLIS));
+  }
 }
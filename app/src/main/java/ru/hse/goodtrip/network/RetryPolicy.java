@@ -0,0 +1,67 @@
+package ru.hse.goodtrip.network;
+
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import okhttp3.Request;
+
+/**
+ * Decides whether failed request is repeated and how long to wait before next attempt. Only
+ * idempotent requests are repeated, delays grow exponentially and are randomized with full
+ * jitter, so clients don't retry in lockstep.
+ */
+@Getter
+@AllArgsConstructor
+public class RetryPolicy {
+
+  /**
+   * Policy used for all services.
+   */
+  public static final RetryPolicy DEFAULT = new RetryPolicy(3, 300, 5000);
+
+  private final int maxAttempts;
+  private final long baseDelayMillis;
+  private final long maxDelayMillis;
+
+  /**
+   * Whether request can be safely sent more than once.
+   *
+   * @param request request.
+   * @return true if method of request is idempotent.
+   */
+  public static boolean isIdempotent(Request request) {
+    switch (request.method()) {
+      case "GET":
+      case "HEAD":
+      case "OPTIONS":
+      case "PUT":
+      case "DELETE":
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Whether request should be repeated after error.
+   *
+   * @param request  failed request.
+   * @param error    error of request.
+   * @param attempts number of attempts already made.
+   * @return true if request should be repeated.
+   */
+  public boolean shouldRetry(Request request, NetworkException error, int attempts) {
+    return attempts < maxAttempts && error.isTransient() && isIdempotent(request);
+  }
+
+  /**
+   * Delay before next attempt.
+   *
+   * @param attempts number of attempts already made.
+   * @return delay in milliseconds.
+   */
+  public long delayMillis(int attempts) {
+    long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempts - 1, 20));
+    return ThreadLocalRandom.current().nextLong(ceiling + 1);
+  }
+}
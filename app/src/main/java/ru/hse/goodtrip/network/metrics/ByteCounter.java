@@ -0,0 +1,20 @@
+package ru.hse.goodtrip.network.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tag of request which counts bytes of its response body, for callers which need size of their
+ * own response rather than totals of the endpoint.
+ */
+public class ByteCounter {
+
+  private final AtomicLong bytes = new AtomicLong();
+
+  void add(long count) {
+    bytes.addAndGet(count);
+  }
+
+  public long get() {
+    return bytes.get();
+  }
+}
@@ -0,0 +1,78 @@
+package ru.hse.goodtrip.network.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+
+/**
+ * Metrics of one endpoint of server API.
+ */
+@Getter
+public class EndpointMetrics {
+
+  private final String name;
+  /**
+   * Time from sending request to receiving headers of response.
+   */
+  private final LatencyHistogram latency = new LatencyHistogram();
+  /**
+   * Time of reading and decoding response body.
+   */
+  private final LatencyHistogram decodeTime = new LatencyHistogram();
+  /**
+   * Time of repository handler of decoded response.
+   */
+  private final LatencyHistogram handlerTime = new LatencyHistogram();
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong requestBytes = new AtomicLong();
+  private final AtomicLong responseBytes = new AtomicLong();
+  private final AtomicLong httpErrors = new AtomicLong();
+  private final AtomicLong transportErrors = new AtomicLong();
+  private final AtomicLong failedResults = new AtomicLong();
+
+  EndpointMetrics(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Share of sent requests which failed with HTTP error or without response.
+   *
+   * @return error rate from 0 to 1.
+   */
+  public double getErrorRate() {
+    long sent = requests.get();
+    return sent == 0 ? 0 : (double) (httpErrors.get() + transportErrors.get()) / sent;
+  }
+
+  void reset() {
+    latency.reset();
+    decodeTime.reset();
+    handlerTime.reset();
+    requests.set(0);
+    requestBytes.set(0);
+    responseBytes.set(0);
+    httpErrors.set(0);
+    transportErrors.set(0);
+    failedResults.set(0);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(Locale.US,
+        "%s%n  requests=%d errors=%.1f%% (http=%d, transport=%d, failed results=%d)%n"
+            + "  latency ms p50=%.1f p90=%.1f p99=%.1f max=%.1f%n"
+            + "  decode ms p50=%.1f p99=%.1f, handler ms p50=%.1f p99=%.1f%n"
+            + "  bytes sent=%d received=%d",
+        name, requests.get(), getErrorRate() * 100, httpErrors.get(), transportErrors.get(),
+        failedResults.get(),
+        millis(latency.getPercentileMicros(50)), millis(latency.getPercentileMicros(90)),
+        millis(latency.getPercentileMicros(99)), millis(latency.getMaxMicros()),
+        millis(decodeTime.getPercentileMicros(50)), millis(decodeTime.getPercentileMicros(99)),
+        millis(handlerTime.getPercentileMicros(50)), millis(handlerTime.getPercentileMicros(99)),
+        requestBytes.get(), responseBytes.get());
+  }
+
+  private static double millis(long micros) {
+    return micros / 1000.0;
+  }
+}
@@ -0,0 +1,116 @@
+package ru.hse.goodtrip.network.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations in microseconds with log-linear buckets: every power of two is
+ * split into {@value #SUB_BUCKETS} buckets, so recorded values keep relative precision of 12.5%
+ * over the whole range while histogram takes fixed and small amount of memory.
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BITS;
+  private static final int MAX_EXPONENT = 40;
+  private static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BITS + 1) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong count = new AtomicLong();
+  private final AtomicLong sum = new AtomicLong();
+  private final AtomicLong max = new AtomicLong();
+
+  private static int bucketOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) Math.max(value, 0);
+    }
+    int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+    int shift = exponent - SUB_BITS;
+    int sub = (int) Math.min((value >>> shift) - SUB_BUCKETS, SUB_BUCKETS - 1);
+    return SUB_BUCKETS + shift * SUB_BUCKETS + sub;
+  }
+
+  private static long upperBoundOf(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+    long sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+    return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+  }
+
+  /**
+   * Record duration.
+   *
+   * @param nanos duration in nanoseconds.
+   */
+  public void recordNanos(long nanos) {
+    long micros = nanos / 1000;
+    counts.incrementAndGet(bucketOf(micros));
+    count.incrementAndGet();
+    sum.addAndGet(micros);
+    max.accumulateAndGet(micros, Math::max);
+  }
+
+  /**
+   * Number of recorded durations.
+   *
+   * @return count.
+   */
+  public long getCount() {
+    return count.get();
+  }
+
+  /**
+   * Mean of recorded durations.
+   *
+   * @return mean in microseconds, 0 if nothing is recorded.
+   */
+  public long getMeanMicros() {
+    long n = count.get();
+    return n == 0 ? 0 : sum.get() / n;
+  }
+
+  /**
+   * Maximal recorded duration.
+   *
+   * @return maximum in microseconds.
+   */
+  public long getMaxMicros() {
+    return max.get();
+  }
+
+  /**
+   * Duration which is not exceeded by given share of recorded durations.
+   *
+   * @param percentile percentile from 0 to 100.
+   * @return upper bound of bucket of percentile in microseconds, 0 if nothing is recorded.
+   */
+  public long getPercentileMicros(double percentile) {
+    long total = count.get();
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+    long seen = 0;
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      seen += counts.get(bucket);
+      if (seen >= rank) {
+        return Math.min(upperBoundOf(bucket), max.get());
+      }
+    }
+    return max.get();
+  }
+
+  /**
+   * Forget all recorded durations.
+   */
+  public void reset() {
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      counts.set(bucket, 0);
+    }
+    count.set(0);
+    sum.set(0);
+    max.set(0);
+  }
+}
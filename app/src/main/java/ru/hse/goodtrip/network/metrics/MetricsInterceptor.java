@@ -0,0 +1,160 @@
+package ru.hse.goodtrip.network.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.AllArgsConstructor;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import ru.hse.goodtrip.network.trace.TraceRecorder;
+
+/**
+ * OkHttp interceptor which records latency, payload sizes, decode time and errors of every request
+ * to {@link MetricsRegistry}, and finished requests to {@link TraceRecorder} when it is enabled.
+ * Bytes of response are also added to {@link ByteCounter} tag of request if it has one.
+ */
+public class MetricsInterceptor implements Interceptor {
+
+  private final MetricsRegistry registry;
+  private final TraceRecorder trace;
+
+  /**
+   * Creates interceptor.
+   *
+   * @param registry registry to record metrics to.
+   * @param trace    recorder of trace events.
+   */
+  public MetricsInterceptor(MetricsRegistry registry, TraceRecorder trace) {
+    this.registry = registry;
+    this.trace = trace;
+  }
+
+  @NonNull
+  @Override
+  public Response intercept(@NonNull Chain chain) throws IOException {
+    Request request = chain.request();
+    String endpoint = registry.endpointName(request);
+    EndpointMetrics metrics = registry.endpoint(endpoint);
+    int requestId = trace.isEnabled() ? trace.nextRequestId() : 0;
+    metrics.getRequests().incrementAndGet();
+    if (request.body() != null && request.body().contentLength() > 0) {
+      metrics.getRequestBytes().addAndGet(request.body().contentLength());
+    }
+    long start = System.nanoTime();
+    Response response;
+    try {
+      response = chain.proceed(request);
+    } catch (IOException e) {
+      metrics.getTransportErrors().incrementAndGet();
+      trace.record(requestId, endpoint, start, System.nanoTime(), 0,
+          TraceRecorder.STATUS_NO_RESPONSE);
+      throw e;
+    }
+    metrics.getLatency().recordNanos(System.nanoTime() - start);
+    if (!response.isSuccessful()) {
+      metrics.getHttpErrors().incrementAndGet();
+    }
+    ResponseBody body = response.body();
+    if (body == null) {
+      trace.record(requestId, endpoint, start, System.nanoTime(), 0, response.code());
+      return response;
+    }
+    return response.newBuilder().body(new CountingResponseBody(body, metrics,
+        request.tag(ByteCounter.class), new TraceEvent(requestId, endpoint, start,
+        response.code()))).build();
+  }
+
+  /**
+   * Request which is recorded to trace when its response body is closed.
+   */
+  @AllArgsConstructor
+  private static class TraceEvent {
+
+    private final int requestId;
+    private final String endpoint;
+    private final long start;
+    private final int status;
+  }
+
+  /**
+   * Response body which counts received bytes and measures time from first read to close, which
+   * is the time Retrofit converter spends reading and decoding body.
+   */
+  private class CountingResponseBody extends ResponseBody {
+
+    private final ResponseBody delegate;
+    private final EndpointMetrics metrics;
+    @Nullable
+    private final ByteCounter counter;
+    private final TraceEvent event;
+    private final AtomicBoolean recorded = new AtomicBoolean();
+    private BufferedSource source;
+    private long firstReadAt;
+    private long bytesRead;
+
+    CountingResponseBody(ResponseBody delegate, EndpointMetrics metrics,
+        @Nullable ByteCounter counter, TraceEvent event) {
+      this.delegate = delegate;
+      this.metrics = metrics;
+      this.counter = counter;
+      this.event = event;
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+      return delegate.contentType();
+    }
+
+    @Override
+    public long contentLength() {
+      return delegate.contentLength();
+    }
+
+    @NonNull
+    @Override
+    public BufferedSource source() {
+      if (source == null) {
+        source = Okio.buffer(new ForwardingSource(delegate.source()) {
+          @Override
+          public long read(@NonNull Buffer sink, long byteCount) throws IOException {
+            if (firstReadAt == 0) {
+              firstReadAt = System.nanoTime();
+            }
+            long read = super.read(sink, byteCount);
+            if (read > 0) {
+              bytesRead += read;
+              metrics.getResponseBytes().addAndGet(read);
+              if (counter != null) {
+                counter.add(read);
+              }
+            }
+            return read;
+          }
+
+          @Override
+          public void close() throws IOException {
+            if (recorded.compareAndSet(false, true)) {
+              long end = System.nanoTime();
+              if (firstReadAt != 0) {
+                metrics.getDecodeTime().recordNanos(end - firstReadAt);
+              }
+              trace.record(event.requestId, event.endpoint, event.start, end, bytesRead,
+                  event.status);
+            }
+            super.close();
+          }
+        });
+      }
+      return source;
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package ru.hse.goodtrip.network.metrics;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import okhttp3.Request;
+import retrofit2.Invocation;
+import retrofit2.http.DELETE;
+import retrofit2.http.GET;
+import retrofit2.http.PATCH;
+import retrofit2.http.POST;
+import retrofit2.http.PUT;
+
+/**
+ * In-process registry of metrics of server API endpoints.
+ */
+public class MetricsRegistry {
+
+  private static volatile MetricsRegistry instance;
+
+  private final ConcurrentHashMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Method, String> names = new ConcurrentHashMap<>();
+
+  private MetricsRegistry() {
+  }
+
+  /**
+   * Get instance of MetricsRegistry.
+   *
+   * @return instance of MetricsRegistry.
+   */
+  public static MetricsRegistry getInstance() {
+    if (instance == null) {
+      synchronized (MetricsRegistry.class) {
+        if (instance == null) {
+          instance = new MetricsRegistry();
+        }
+      }
+    }
+    return instance;
+  }
+
+  private static String describe(Method method) {
+    for (Annotation annotation : method.getAnnotations()) {
+      if (annotation instanceof GET) {
+        return "GET " + ((GET) annotation).value();
+      } else if (annotation instanceof POST) {
+        return "POST " + ((POST) annotation).value();
+      } else if (annotation instanceof PUT) {
+        return "PUT " + ((PUT) annotation).value();
+      } else if (annotation instanceof DELETE) {
+        return "DELETE " + ((DELETE) annotation).value();
+      } else if (annotation instanceof PATCH) {
+        return "PATCH " + ((PATCH) annotation).value();
+      }
+    }
+    return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+  }
+
+  /**
+   * Name of endpoint of request: HTTP method and path template of Retrofit method, such as
+   * {@code GET /trip/{tripId}}, so all requests of one Retrofit method share metrics.
+   *
+   * @param request request.
+   * @return name of endpoint.
+   */
+  public String endpointName(Request request) {
+    Invocation invocation = request.tag(Invocation.class);
+    if (invocation == null) {
+      return request.method() + " " + request.url().encodedPath();
+    }
+    return names.computeIfAbsent(invocation.method(), MetricsRegistry::describe);
+  }
+
+  /**
+   * Metrics of endpoint, created on first use.
+   *
+   * @param name name of endpoint.
+   * @return metrics of endpoint.
+   */
+  public EndpointMetrics endpoint(String name) {
+    return endpoints.computeIfAbsent(name, EndpointMetrics::new);
+  }
+
+  /**
+   * Metrics of endpoint of request.
+   *
+   * @param request request.
+   * @return metrics of endpoint.
+   */
+  public EndpointMetrics endpoint(Request request) {
+    return endpoint(endpointName(request));
+  }
+
+  /**
+   * Metrics of all endpoints which were requested, sorted by name.
+   *
+   * @return list of metrics.
+   */
+  public List<EndpointMetrics> getEndpoints() {
+    List<EndpointMetrics> result = new ArrayList<>(endpoints.values());
+    result.sort(Comparator.comparing(EndpointMetrics::getName));
+    return result;
+  }
+
+  /**
+   * Human-readable dump of all metrics.
+   *
+   * @return dump.
+   */
+  public String dump() {
+    StringBuilder builder = new StringBuilder();
+    for (EndpointMetrics metrics : getEndpoints()) {
+      builder.append(metrics).append('\n');
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Forget all recorded metrics.
+   */
+  public void reset() {
+    for (EndpointMetrics metrics : endpoints.values()) {
+      metrics.reset();
+    }
+  }
+}
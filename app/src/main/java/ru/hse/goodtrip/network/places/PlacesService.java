@@ -1,12 +1,16 @@
 package ru.hse.goodtrip.network.places;
 
+import java.util.List;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.GET;
 import retrofit2.http.Header;
+import retrofit2.http.Headers;
 import retrofit2.http.POST;
 import retrofit2.http.Query;
+import ru.hse.goodtrip.network.places.model.CoordinatesResponse;
 import ru.hse.goodtrip.network.places.model.PlaceRequest;
+import ru.hse.goodtrip.network.places.model.PlaceResponse;
 
 /**
  * Service to work with places API.
@@ -18,13 +22,21 @@ public interface PlacesService {
    *
    * @param placeRequest  PlaceRequest.
    * @param authorization Jwt token.
-   * @return Returns String when error happens, otherwise returns List of PlacesResponse.
+   * @return List of PlacesResponse, error message is kept in error of failed result.
    */
   @POST("/places")
-  Call<Object> getNearPlaces(@Body PlaceRequest placeRequest,
+  Call<List<PlaceResponse>> getNearPlaces(@Body PlaceRequest placeRequest,
       @Header("Authorization") String authorization);
 
+  /**
+   * Get coordinates of city.
+   *
+   * @param city          name of city.
+   * @param authorization Jwt token.
+   * @return Coordinates of city.
+   */
+  @Headers("Cache-Control: max-age=0")
   @GET("/coordinates")
-  Call<Object> getCoordinates(@Query("city") String city,
+  Call<CoordinatesResponse> getCoordinates(@Query("city") String city,
       @Header("Authorization") String authorization);
 }
@@ -0,0 +1,20 @@
+package ru.hse.goodtrip.network.places.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response for coordinates API.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CoordinatesResponse {
+
+  private double latitude;
+
+  private double longitude;
+}
@@ -4,6 +4,7 @@ import java.util.List;
 import retrofit2.Call;
 import retrofit2.http.GET;
 import retrofit2.http.Header;
+import retrofit2.http.Headers;
 import retrofit2.http.POST;
 import retrofit2.http.Query;
 import ru.hse.goodtrip.network.social.entities.User;
@@ -30,6 +31,7 @@ public interface CommunicationService {
   Call<List<User>> getSubscriptions(@Query("userId") int userId,
       @Header("Authorization") String authorization);
 
+  @Headers("Cache-Control: max-age=0")
   @GET("/user")
   Call<User> getUserByHandle(@Query("handle") String handle,
       @Header("Authorization") String authorization);
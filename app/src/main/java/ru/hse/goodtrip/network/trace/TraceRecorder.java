@@ -0,0 +1,178 @@
+package ru.hse.goodtrip.network.trace;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-size ring buffer of network trace events. Events are stored in preallocated primitive
+ * arrays, so recording doesn't allocate, and when recorder is disabled recording costs one
+ * volatile read. Oldest events are overwritten when buffer is full.
+ */
+public class TraceRecorder {
+
+  /**
+   * Status of request which failed without response.
+   */
+  public static final int STATUS_NO_RESPONSE = 0;
+  private static final int DEFAULT_CAPACITY = 1024;
+  private static volatile TraceRecorder instance;
+
+  private final int capacity;
+  private final int[] requestIds;
+  private final String[] endpoints;
+  private final long[] startNanos;
+  private final long[] endNanos;
+  private final long[] bytes;
+  private final int[] statuses;
+  private final long originNanos = System.nanoTime();
+  private final AtomicInteger nextRequestId = new AtomicInteger();
+  private volatile boolean enabled;
+  private long recorded;
+
+  /**
+   * Creates disabled recorder.
+   *
+   * @param capacity maximal number of kept events.
+   */
+  public TraceRecorder(int capacity) {
+    this.capacity = capacity;
+    requestIds = new int[capacity];
+    endpoints = new String[capacity];
+    startNanos = new long[capacity];
+    endNanos = new long[capacity];
+    bytes = new long[capacity];
+    statuses = new int[capacity];
+  }
+
+  /**
+   * Get instance of TraceRecorder.
+   *
+   * @return instance of TraceRecorder.
+   */
+  public static TraceRecorder getInstance() {
+    if (instance == null) {
+      synchronized (TraceRecorder.class) {
+        if (instance == null) {
+          instance = new TraceRecorder(DEFAULT_CAPACITY);
+        }
+      }
+    }
+    return instance;
+  }
+
+  private static void appendEscaped(StringBuilder builder, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        builder.append('\\');
+      }
+      builder.append(c);
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Id for next traced request.
+   *
+   * @return request id.
+   */
+  public int nextRequestId() {
+    return nextRequestId.incrementAndGet();
+  }
+
+  /**
+   * Record finished request if recorder is enabled.
+   *
+   * @param requestId id of request.
+   * @param endpoint  name of endpoint.
+   * @param start     {@link System#nanoTime()} when request was started.
+   * @param end       {@link System#nanoTime()} when request was finished.
+   * @param byteCount number of received bytes.
+   * @param status    HTTP status code or {@link #STATUS_NO_RESPONSE}.
+   */
+  public void record(int requestId, String endpoint, long start, long end, long byteCount,
+      int status) {
+    if (!enabled) {
+      return;
+    }
+    synchronized (this) {
+      int slot = (int) (recorded % capacity);
+      requestIds[slot] = requestId;
+      endpoints[slot] = endpoint;
+      startNanos[slot] = start;
+      endNanos[slot] = end;
+      bytes[slot] = byteCount;
+      statuses[slot] = status;
+      recorded++;
+    }
+  }
+
+  /**
+   * Number of kept events.
+   *
+   * @return number of events.
+   */
+  public synchronized int size() {
+    return (int) Math.min(recorded, capacity);
+  }
+
+  /**
+   * Forget all events.
+   */
+  public synchronized void clear() {
+    recorded = 0;
+  }
+
+  /**
+   * Kept events in Chrome trace event format, which can be opened in chrome://tracing or Perfetto.
+   * Every request is complete event on track of its request id.
+   *
+   * @return JSON of trace.
+   */
+  public synchronized String toChromeTrace() {
+    StringBuilder builder = new StringBuilder("{\"traceEvents\":[");
+    long first = recorded - size();
+    for (long i = first; i < recorded; i++) {
+      int slot = (int) (i % capacity);
+      if (i != first) {
+        builder.append(",\n");
+      }
+      builder.append("{\"name\":\"");
+      appendEscaped(builder, endpoints[slot]);
+      builder.append("\",\"cat\":\"network\",\"ph\":\"X\",\"pid\":1,\"tid\":")
+          .append(requestIds[slot])
+          .append(",\"ts\":").append((startNanos[slot] - originNanos) / 1000)
+          .append(",\"dur\":").append((endNanos[slot] - startNanos[slot]) / 1000)
+          .append(",\"args\":{\"status\":").append(statuses[slot])
+          .append(",\"bytes\":").append(bytes[slot])
+          .append("}}");
+    }
+    return builder.append("]}").toString();
+  }
+
+  /**
+   * Write kept events to file in Chrome trace event format.
+   *
+   * @param file file to write.
+   * @throws IOException if file can't be written.
+   */
+  public void exportChromeTrace(File file) throws IOException {
+    String trace = toChromeTrace();
+    try (Writer writer = new OutputStreamWriter(new FileOutputStream(file),
+        StandardCharsets.UTF_8)) {
+      writer.write(trace);
+    }
+  }
+}
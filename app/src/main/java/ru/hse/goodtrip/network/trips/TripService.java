@@ -1,27 +1,44 @@
 package ru.hse.goodtrip.network.trips;
 
 import java.util.List;
+import java.util.Map;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.GET;
 import retrofit2.http.Header;
+import retrofit2.http.Headers;
+import retrofit2.http.PATCH;
 import retrofit2.http.POST;
 import retrofit2.http.PUT;
 import retrofit2.http.Path;
 import retrofit2.http.Query;
+import retrofit2.http.Tag;
+import ru.hse.goodtrip.network.metrics.ByteCounter;
 import ru.hse.goodtrip.network.trips.model.AddTripRequest;
 import ru.hse.goodtrip.network.trips.model.Trip;
+import ru.hse.goodtrip.network.trips.model.TripChanges;
 import ru.hse.goodtrip.network.trips.model.TripView;
 
+/**
+ * Service to work with trips API. Endpoints requested with max-age=0 are stored in HTTP cache and
+ * cached response is always stale for them, so it is revalidated with If-None-Match or
+ * If-Modified-Since and unchanged data costs 304 instead of full payload. Note that no-cache
+ * would make OkHttp bypass cache without conditional request.
+ */
 public interface TripService {
 
+  @Headers("Cache-Control: max-age=0")
   @GET("/trip/all/{userId}")
   Call<List<Trip>> getUserTrips(@Path("userId") Integer userId,
       @Header("Authorization") String authorization);
 
+  @GET("/trip/changes/{userId}")
+  Call<TripChanges> getUserTripChanges(@Path("userId") Integer userId,
+      @Query("updatedSince") String syncToken, @Header("Authorization") String authorization);
+
   @GET("/trip/{tripId}")
-  Call<Object> getTripById(@Path("tripId") Integer tripId,
-      @Header("Authorization") String authorization);
+  Call<Trip> getTripById(@Path("tripId") Integer tripId,
+      @Header("Authorization") String authorization, @Tag ByteCounter responseSize);
 
   @POST("/trip/{userId}")
   Call<String> addTrip(@Path("userId") Integer userId, @Body AddTripRequest addTripRequest,
@@ -31,10 +48,17 @@ public interface TripService {
   Call<String> updateTrip(@Query("userId") Integer userId, @Body Trip trip,
       @Header("Authorization") String authorization);
 
+  @Headers("Content-Type: application/merge-patch+json")
+  @PATCH("/trip/{tripId}")
+  Call<String> patchTrip(@Path("tripId") Integer tripId, @Query("userId") Integer userId,
+      @Body Map<String, Object> patch, @Header("Authorization") String authorization);
+
   @GET("/trip/authors_trips")
   Call<List<TripView>> getAuthorsTrips(@Query("userId") Integer userId,
-      @Query("start") Integer start, @Header("Authorization") String authorization);
+      @Query("start") Integer start, @Query("cursor") String cursor,
+      @Header("Authorization") String authorization);
 
+  @Headers("Cache-Control: max-age=0")
   @GET("/trip/author_trips")
   Call<List<Trip>> getAuthorTrips(@Query("handle") String handle,
       @Header("Authorization") String authorization);
@@ -2,8 +2,9 @@ package ru.hse.goodtrip.network.trips.model;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
@@ -14,11 +15,7 @@ import java.io.Serializable;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.locationtech.jts.geom.Coordinate;
-import org.locationtech.jts.geom.GeometryFactory;
-import org.locationtech.jts.geom.Point;
-import org.locationtech.jts.geom.PrecisionModel;
-import org.locationtech.jts.geom.impl.CoordinateArraySequence;
+import ru.hse.goodtrip.data.model.trips.Coordinates;
 
 @Data
 @AllArgsConstructor
@@ -30,44 +27,69 @@ public class CityVisit implements Serializable {
 
   private String city;
 
+  /**
+   * Point of city, sent as {"x": latitude, "y": longitude}.
+   */
   @JsonSerialize(using = PointCustomSerializer.class)
   @JsonDeserialize(using = PointCustomDeserializer.class)
-  private Point point;
+  private Coordinates point;
 
   private Integer countryVisitId;
 
-  static class PointCustomSerializer extends StdSerializer<Point> {
+  static class PointCustomSerializer extends StdSerializer<Coordinates> {
 
     protected PointCustomSerializer() {
-      super(Point.class, true);
+      super(Coordinates.class);
     }
 
     @Override
-    public void serialize(Point point, JsonGenerator jsonGenerator,
+    public void serialize(Coordinates point, JsonGenerator jsonGenerator,
         SerializerProvider serializerProvider) throws IOException {
       jsonGenerator.writeStartObject();
-      jsonGenerator.writeNumberField("x", point.getX());
-      jsonGenerator.writeNumberField("y", point.getY());
+      jsonGenerator.writeNumberField("x", point.getLatitude());
+      jsonGenerator.writeNumberField("y", point.getLongitude());
       jsonGenerator.writeEndObject();
     }
   }
 
-  static class PointCustomDeserializer extends StdDeserializer<Point> {
-
-    static private final int SRID = 4326;
+  /**
+   * Reads point from tokens of parser without building a tree. Fields other than x and y are
+   * skipped.
+   */
+  static class PointCustomDeserializer extends StdDeserializer<Coordinates> {
 
     protected PointCustomDeserializer() {
-      super(Point.class);
+      super(Coordinates.class);
     }
 
     @Override
-    public Point deserialize(JsonParser jsonParser, DeserializationContext deserializationContext)
-        throws IOException {
-      JsonNode node = jsonParser.getCodec().readTree(jsonParser);
-      Double x = (Double) node.get("x").numberValue();
-      Double y = (Double) node.get("y").numberValue();
-      return new Point(new CoordinateArraySequence(new Coordinate[]{new Coordinate(x, y)}),
-          new GeometryFactory(new PrecisionModel(), SRID));
+    public Coordinates deserialize(JsonParser jsonParser,
+        DeserializationContext deserializationContext) throws IOException {
+      JsonToken token = jsonParser.getCurrentToken();
+      if (token == JsonToken.START_OBJECT) {
+        token = jsonParser.nextToken();
+      }
+      double x = 0;
+      double y = 0;
+      boolean hasX = false;
+      boolean hasY = false;
+      for (; token == JsonToken.FIELD_NAME; token = jsonParser.nextToken()) {
+        String name = jsonParser.getCurrentName();
+        JsonToken value = jsonParser.nextToken();
+        if ("x".equals(name) && value.isNumeric()) {
+          x = jsonParser.getDoubleValue();
+          hasX = true;
+        } else if ("y".equals(name) && value.isNumeric()) {
+          y = jsonParser.getDoubleValue();
+          hasY = true;
+        } else {
+          jsonParser.skipChildren();
+        }
+      }
+      if (token != JsonToken.END_OBJECT || !hasX || !hasY) {
+        throw JsonMappingException.from(jsonParser, "Point should be object with x and y");
+      }
+      return new Coordinates(x, y);
     }
   }
 }
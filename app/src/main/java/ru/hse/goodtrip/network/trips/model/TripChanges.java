@@ -0,0 +1,35 @@
+package ru.hse.goodtrip.network.trips.model;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Trips of user changed since sync token of client.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TripChanges {
+
+  /**
+   * Trips created or changed since the token, in full.
+   */
+  private List<Trip> updated;
+
+  /**
+   * Ids of trips deleted since the token.
+   */
+  private List<Integer> deleted;
+
+  /**
+   * Token to request the next changes with.
+   */
+  private String syncToken;
+
+  /**
+   * Whether updated trips are all trips of user, e.g. when the token is too old.
+   */
+  private boolean full;
+}
@@ -1,15 +1,115 @@
 package ru.hse.goodtrip.room;
 
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import ru.hse.goodtrip.room.dao.FeedDao;
+import ru.hse.goodtrip.room.dao.TripDao;
 import ru.hse.goodtrip.room.dao.UserDao;
+import ru.hse.goodtrip.room.entities.CityVisitEntity;
+import ru.hse.goodtrip.room.entities.CountryVisitEntity;
+import ru.hse.goodtrip.room.entities.FeedPostEntity;
+import ru.hse.goodtrip.room.entities.NoteEntity;
+import ru.hse.goodtrip.room.entities.TripEntity;
 import ru.hse.goodtrip.room.entities.UserEntity;
 
 /**
- * Local Storage to store info about logged user.
+ * Local Storage to store info about logged user and cached trips and feed.
  */
-@Database(entities = {UserEntity.class}, version = 2)
+@Database(entities = {UserEntity.class, TripEntity.class, CountryVisitEntity.class,
+    CityVisitEntity.class, NoteEntity.class, FeedPostEntity.class}, version = 5)
 public abstract class LocalStorage extends RoomDatabase {
 
+  private static final String REQUIRED_DATE = "INTEGER NOT NULL";
+  private static final String OPTIONAL_DATE = "INTEGER";
+
+  /**
+   * Adds tables of cached trips, logged user is kept.
+   */
+  public static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+    @Override
+    public void migrate(@NonNull SupportSQLiteDatabase db) {
+      createTripTables(db, REQUIRED_DATE);
+    }
+  };
+
+  /**
+   * Adds table of cached authors feed.
+   */
+  public static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+    @Override
+    public void migrate(@NonNull SupportSQLiteDatabase db) {
+      createFeedTable(db, REQUIRED_DATE);
+    }
+  };
+
+  /**
+   * Allows trips and posts without dates. SQLite can't drop NOT NULL of a column, so cached trips
+   * and feed are dropped and loaded from the server again; logged user is kept.
+   */
+  public static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+    @Override
+    public void migrate(@NonNull SupportSQLiteDatabase db) {
+      db.execSQL("DROP TABLE IF EXISTS `CityVisitEntity`");
+      db.execSQL("DROP TABLE IF EXISTS `CountryVisitEntity`");
+      db.execSQL("DROP TABLE IF EXISTS `NoteEntity`");
+      db.execSQL("DROP TABLE IF EXISTS `TripEntity`");
+      db.execSQL("DROP TABLE IF EXISTS `FeedPostEntity`");
+      createTripTables(db, OPTIONAL_DATE);
+      createFeedTable(db, OPTIONAL_DATE);
+    }
+  };
+
+  private static void createTripTables(SupportSQLiteDatabase db, String dateType) {
+    db.execSQL("CREATE TABLE IF NOT EXISTS `TripEntity` (`id` INTEGER NOT NULL,"
+        + " `userId` INTEGER NOT NULL, `authorHandle` TEXT, `title` TEXT,"
+        + " `moneyInUsd` INTEGER, `mainPhotoUrl` TEXT, `departureDate` " + dateType + ","
+        + " `arrivalDate` " + dateType + ", `publicationTimestamp` INTEGER, `state` TEXT,"
+        + " PRIMARY KEY(`id`))");
+    db.execSQL("CREATE INDEX IF NOT EXISTS `index_TripEntity_userId`"
+        + " ON `TripEntity` (`userId`)");
+    db.execSQL("CREATE INDEX IF NOT EXISTS `index_TripEntity_authorHandle`"
+        + " ON `TripEntity` (`authorHandle`)");
+    db.execSQL("CREATE TABLE IF NOT EXISTS `CountryVisitEntity`"
+        + " (`uid` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `id` INTEGER,"
+        + " `tripId` INTEGER NOT NULL, `position` INTEGER NOT NULL, `country` TEXT,"
+        + " FOREIGN KEY(`tripId`) REFERENCES `TripEntity`(`id`)"
+        + " ON UPDATE NO ACTION ON DELETE CASCADE )");
+    db.execSQL("CREATE INDEX IF NOT EXISTS `index_CountryVisitEntity_tripId`"
+        + " ON `CountryVisitEntity` (`tripId`)");
+    db.execSQL("CREATE TABLE IF NOT EXISTS `CityVisitEntity`"
+        + " (`uid` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `id` INTEGER,"
+        + " `countryVisitUid` INTEGER NOT NULL, `position` INTEGER NOT NULL, `city` TEXT,"
+        + " `x` REAL NOT NULL, `y` REAL NOT NULL,"
+        + " FOREIGN KEY(`countryVisitUid`) REFERENCES `CountryVisitEntity`(`uid`)"
+        + " ON UPDATE NO ACTION ON DELETE CASCADE )");
+    db.execSQL("CREATE INDEX IF NOT EXISTS `index_CityVisitEntity_countryVisitUid`"
+        + " ON `CityVisitEntity` (`countryVisitUid`)");
+    db.execSQL("CREATE TABLE IF NOT EXISTS `NoteEntity`"
+        + " (`uid` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `id` INTEGER,"
+        + " `tripId` INTEGER NOT NULL, `position` INTEGER NOT NULL, `title` TEXT,"
+        + " `photoUrl` TEXT, `googlePlaceId` TEXT, `text` TEXT,"
+        + " FOREIGN KEY(`tripId`) REFERENCES `TripEntity`(`id`)"
+        + " ON UPDATE NO ACTION ON DELETE CASCADE )");
+    db.execSQL("CREATE INDEX IF NOT EXISTS `index_NoteEntity_tripId`"
+        + " ON `NoteEntity` (`tripId`)");
+  }
+
+  private static void createFeedTable(SupportSQLiteDatabase db, String dateType) {
+    db.execSQL("CREATE TABLE IF NOT EXISTS `FeedPostEntity` (`id` INTEGER NOT NULL,"
+        + " `displayName` TEXT, `userMainPhotoUrl` TEXT, `title` TEXT, `moneyInUsd` INTEGER,"
+        + " `mainPhotoUrl` TEXT, `departureDate` " + dateType + ","
+        + " `arrivalDate` " + dateType + ", `publicationTimestamp` INTEGER NOT NULL,"
+        + " `state` TEXT, `visitsJson` TEXT, PRIMARY KEY(`id`))");
+    db.execSQL("CREATE INDEX IF NOT EXISTS `index_FeedPostEntity_publicationTimestamp_id`"
+        + " ON `FeedPostEntity` (`publicationTimestamp`, `id`)");
+  }
+
   public abstract UserDao userDao();
+
+  public abstract TripDao tripDao();
+
+  public abstract FeedDao feedDao();
 }
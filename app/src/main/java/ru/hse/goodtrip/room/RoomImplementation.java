@@ -54,13 +54,15 @@ public class RoomImplementation extends Application {
   }
 
   /**
-   * Delete user from Room.
+   * Delete user, cached trips and feed from Room.
    */
   public void logOutUser() {
     UserEntity user = getLoggedUser();
     if (user != null) {
       getLocalStorage().userDao().deleteById(user.uid);
     }
+    getLocalStorage().tripDao().deleteAll();
+    getLocalStorage().feedDao().deleteAll();
   }
 
   public boolean isUserLoggedIn() {
@@ -75,6 +77,8 @@ public class RoomImplementation extends Application {
     context = this;
     localStorage = Room.databaseBuilder(getApplicationContext(), LocalStorage.class, DATABASE_NAME)
         .allowMainThreadQueries()
+        .addMigrations(LocalStorage.MIGRATION_2_3, LocalStorage.MIGRATION_3_4,
+            LocalStorage.MIGRATION_4_5)
         .build();
   }
 
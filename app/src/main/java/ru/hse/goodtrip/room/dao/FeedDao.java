@@ -0,0 +1,42 @@
+package ru.hse.goodtrip.room.dao;
+
+import androidx.annotation.Nullable;
+import androidx.paging.PagingSource;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import java.util.List;
+import ru.hse.goodtrip.room.entities.FeedPostEntity;
+
+@Dao
+public abstract class FeedDao {
+
+  @Query("SELECT * FROM feedPostEntity ORDER BY publicationTimestamp DESC, id DESC")
+  public abstract PagingSource<Integer, FeedPostEntity> pagingSource();
+
+  @Query("SELECT * FROM feedPostEntity ORDER BY publicationTimestamp ASC, id ASC LIMIT 1")
+  @Nullable
+  public abstract FeedPostEntity getOldest();
+
+  @Query("SELECT id FROM feedPostEntity")
+  public abstract List<Integer> getIds();
+
+  @Insert(onConflict = OnConflictStrategy.REPLACE)
+  public abstract void insertAll(List<FeedPostEntity> posts);
+
+  @Query("DELETE FROM feedPostEntity")
+  public abstract void deleteAll();
+
+  /**
+   * Replace all cached posts by first page.
+   *
+   * @param posts posts of first page.
+   */
+  @Transaction
+  public void replaceAll(List<FeedPostEntity> posts) {
+    deleteAll();
+    insertAll(posts);
+  }
+}
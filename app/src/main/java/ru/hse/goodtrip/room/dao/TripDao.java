@@ -0,0 +1,160 @@
+package ru.hse.goodtrip.room.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import ru.hse.goodtrip.room.entities.CityVisitEntity;
+import ru.hse.goodtrip.room.entities.CountryVisitEntity;
+import ru.hse.goodtrip.room.entities.CountryVisitWithCities;
+import ru.hse.goodtrip.room.entities.NoteEntity;
+import ru.hse.goodtrip.room.entities.TripEntity;
+import ru.hse.goodtrip.room.entities.TripWithDetails;
+
+@Dao
+public abstract class TripDao {
+
+  /**
+   * Number of ids bound in one statement, SQLite before 3.32 allows at most 999 variables.
+   */
+  private static final int MAX_BOUND_IDS = 500;
+
+  @Transaction
+  @Query("SELECT * FROM tripEntity WHERE userId = :userId")
+  public abstract List<TripWithDetails> getUserTrips(int userId);
+
+  @Transaction
+  @Query("SELECT * FROM tripEntity WHERE authorHandle = :handle AND state = 'PUBLISHED'")
+  public abstract List<TripWithDetails> getAuthorTrips(String handle);
+
+  @Transaction
+  @Query("SELECT * FROM tripEntity WHERE id = :tripId")
+  public abstract TripWithDetails getTrip(int tripId);
+
+  @Insert(onConflict = OnConflictStrategy.REPLACE)
+  public abstract void insertTrip(TripEntity trip);
+
+  @Insert
+  public abstract long insertCountryVisit(CountryVisitEntity visit);
+
+  @Insert
+  public abstract void insertCityVisits(List<CityVisitEntity> cities);
+
+  @Insert
+  public abstract void insertNotes(List<NoteEntity> notes);
+
+  @Query("DELETE FROM countryVisitEntity WHERE tripId = :tripId")
+  public abstract void deleteCountryVisits(int tripId);
+
+  @Query("DELETE FROM noteEntity WHERE tripId = :tripId")
+  public abstract void deleteNotes(int tripId);
+
+  @Query("SELECT id FROM tripEntity WHERE userId = :userId")
+  public abstract List<Integer> getUserTripIds(int userId);
+
+  @Query("SELECT id FROM tripEntity WHERE authorHandle = :handle AND state = 'PUBLISHED'")
+  public abstract List<Integer> getAuthorTripIds(String handle);
+
+  @Query("DELETE FROM tripEntity WHERE id IN (:tripIds)")
+  public abstract void deleteTrips(List<Integer> tripIds);
+
+  @Query("DELETE FROM tripEntity")
+  public abstract void deleteAll();
+
+  /**
+   * Delete trips by ids in chunks, so that number of bound variables stays within SQLite limit.
+   *
+   * @param tripIds ids of trips.
+   */
+  @Transaction
+  public void deleteTripsInChunks(List<Integer> tripIds) {
+    for (int from = 0; from < tripIds.size(); from += MAX_BOUND_IDS) {
+      deleteTrips(tripIds.subList(from, Math.min(from + MAX_BOUND_IDS, tripIds.size())));
+    }
+  }
+
+  /**
+   * Upsert trips and delete stored trips which are not among them.
+   *
+   * @param storedIds ids of stored trips which are replaced.
+   * @param trips     trips with visits and notes.
+   */
+  private void replaceTrips(List<Integer> storedIds, List<TripWithDetails> trips) {
+    Set<Integer> keptIds = new HashSet<>();
+    for (TripWithDetails trip : trips) {
+      keptIds.add(trip.trip.id);
+      upsertTrip(trip.trip, trip.visits, trip.notes);
+    }
+    List<Integer> removedIds = new ArrayList<>();
+    for (Integer id : storedIds) {
+      if (!keptIds.contains(id)) {
+        removedIds.add(id);
+      }
+    }
+    deleteTripsInChunks(removedIds);
+  }
+
+  /**
+   * Replace trip and all its visits and notes.
+   *
+   * @param trip   trip.
+   * @param visits country visits with cities, uid of visits is generated.
+   * @param notes  notes.
+   */
+  @Transaction
+  public void upsertTrip(TripEntity trip, List<CountryVisitWithCities> visits,
+      List<NoteEntity> notes) {
+    deleteCountryVisits(trip.id);
+    deleteNotes(trip.id);
+    insertTrip(trip);
+    for (CountryVisitWithCities visit : visits) {
+      long uid = insertCountryVisit(visit.visit);
+      for (CityVisitEntity city : visit.cities) {
+        city.countryVisitUid = uid;
+      }
+      insertCityVisits(visit.cities);
+    }
+    insertNotes(notes);
+  }
+
+  /**
+   * Replace all trips of user by given trips.
+   *
+   * @param userId id of user.
+   * @param trips  trips with visits and notes.
+   */
+  @Transaction
+  public void replaceUserTrips(int userId, List<TripWithDetails> trips) {
+    replaceTrips(getUserTripIds(userId), trips);
+  }
+
+  /**
+   * Replace all published trips of author by given trips.
+   *
+   * @param handle handle of author.
+   * @param trips  published trips with visits and notes.
+   */
+  @Transaction
+  public void replaceAuthorTrips(String handle, List<TripWithDetails> trips) {
+    replaceTrips(getAuthorTripIds(handle), trips);
+  }
+
+  /**
+   * Apply changes of trips of user.
+   *
+   * @param updated    changed trips with visits and notes.
+   * @param deletedIds ids of deleted trips.
+   */
+  @Transaction
+  public void applyTripChanges(List<TripWithDetails> updated, List<Integer> deletedIds) {
+    for (TripWithDetails trip : updated) {
+      upsertTrip(trip.trip, trip.visits, trip.notes);
+    }
+    deleteTripsInChunks(deletedIds);
+  }
+}
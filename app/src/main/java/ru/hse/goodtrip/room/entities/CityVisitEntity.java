@@ -0,0 +1,43 @@
+package ru.hse.goodtrip.room.entities;
+
+import androidx.annotation.Nullable;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+/**
+ * City visit Entity in Room.
+ */
+@Entity(foreignKeys = @ForeignKey(entity = CountryVisitEntity.class, parentColumns = "uid",
+    childColumns = "countryVisitUid", onDelete = ForeignKey.CASCADE),
+    indices = @Index("countryVisitUid"))
+@AllArgsConstructor
+@NoArgsConstructor
+public class CityVisitEntity {
+
+  @PrimaryKey(autoGenerate = true)
+  public long uid;
+
+  @Nullable
+  @ColumnInfo(name = "id")
+  public Integer id;
+
+  @ColumnInfo(name = "countryVisitUid")
+  public long countryVisitUid;
+
+  @ColumnInfo(name = "position")
+  public int position;
+
+  @ColumnInfo(name = "city")
+  public String city;
+
+  @ColumnInfo(name = "x")
+  public double x;
+
+  @ColumnInfo(name = "y")
+  public double y;
+}
@@ -0,0 +1,37 @@
+package ru.hse.goodtrip.room.entities;
+
+import androidx.annotation.Nullable;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+/**
+ * Country visit Entity in Room.
+ */
+@Entity(foreignKeys = @ForeignKey(entity = TripEntity.class, parentColumns = "id",
+    childColumns = "tripId", onDelete = ForeignKey.CASCADE),
+    indices = @Index("tripId"))
+@AllArgsConstructor
+@NoArgsConstructor
+public class CountryVisitEntity {
+
+  @PrimaryKey(autoGenerate = true)
+  public long uid;
+
+  @Nullable
+  @ColumnInfo(name = "id")
+  public Integer id;
+
+  @ColumnInfo(name = "tripId")
+  public int tripId;
+
+  @ColumnInfo(name = "position")
+  public int position;
+
+  @ColumnInfo(name = "country")
+  public String country;
+}
@@ -0,0 +1,17 @@
+package ru.hse.goodtrip.room.entities;
+
+import androidx.room.Embedded;
+import androidx.room.Relation;
+import java.util.List;
+
+/**
+ * Country visit with its cities.
+ */
+public class CountryVisitWithCities {
+
+  @Embedded
+  public CountryVisitEntity visit;
+
+  @Relation(parentColumn = "uid", entityColumn = "countryVisitUid")
+  public List<CityVisitEntity> cities;
+}
@@ -0,0 +1,61 @@
+package ru.hse.goodtrip.room.entities;
+
+import androidx.annotation.Nullable;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+/**
+ * Post of authors feed cached in Room.
+ */
+@Entity(indices = @Index({"publicationTimestamp", "id"}))
+@AllArgsConstructor
+@NoArgsConstructor
+public class FeedPostEntity {
+
+  @PrimaryKey
+  public int id;
+
+  @Nullable
+  @ColumnInfo(name = "displayName")
+  public String displayName;
+
+  @Nullable
+  @ColumnInfo(name = "userMainPhotoUrl")
+  public String userMainPhotoUrl;
+
+  @ColumnInfo(name = "title")
+  public String title;
+
+  @Nullable
+  @ColumnInfo(name = "moneyInUsd")
+  public Integer moneyInUsd;
+
+  @Nullable
+  @ColumnInfo(name = "mainPhotoUrl")
+  public String mainPhotoUrl;
+
+  @Nullable
+  @ColumnInfo(name = "departureDate")
+  public Long departureDate;
+
+  @Nullable
+  @ColumnInfo(name = "arrivalDate")
+  public Long arrivalDate;
+
+  @ColumnInfo(name = "publicationTimestamp")
+  public long publicationTimestamp;
+
+  @Nullable
+  @ColumnInfo(name = "state")
+  public String state;
+
+  /**
+   * Country visits of post in JSON, they are only shown and never queried.
+   */
+  @ColumnInfo(name = "visitsJson")
+  public String visitsJson;
+}
@@ -0,0 +1,50 @@
+package ru.hse.goodtrip.room.entities;
+
+import androidx.annotation.Nullable;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+/**
+ * Note Entity in Room.
+ */
+@Entity(foreignKeys = @ForeignKey(entity = TripEntity.class, parentColumns = "id",
+    childColumns = "tripId", onDelete = ForeignKey.CASCADE),
+    indices = @Index("tripId"))
+@AllArgsConstructor
+@NoArgsConstructor
+public class NoteEntity {
+
+  @PrimaryKey(autoGenerate = true)
+  public long uid;
+
+  @Nullable
+  @ColumnInfo(name = "id")
+  public Integer id;
+
+  @ColumnInfo(name = "tripId")
+  public int tripId;
+
+  @ColumnInfo(name = "position")
+  public int position;
+
+  @Nullable
+  @ColumnInfo(name = "title")
+  public String title;
+
+  @Nullable
+  @ColumnInfo(name = "photoUrl")
+  public String photoUrl;
+
+  @Nullable
+  @ColumnInfo(name = "googlePlaceId")
+  public String googlePlaceId;
+
+  @Nullable
+  @ColumnInfo(name = "text")
+  public String text;
+}
@@ -0,0 +1,55 @@
+package ru.hse.goodtrip.room.entities;
+
+import androidx.annotation.Nullable;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+/**
+ * Trip Entity in Room.
+ */
+@Entity(indices = {@Index("userId"), @Index("authorHandle")})
+@AllArgsConstructor
+@NoArgsConstructor
+public class TripEntity {
+
+  @PrimaryKey
+  public int id;
+
+  @ColumnInfo(name = "userId")
+  public int userId;
+
+  @Nullable
+  @ColumnInfo(name = "authorHandle")
+  public String authorHandle;
+
+  @ColumnInfo(name = "title")
+  public String title;
+
+  @Nullable
+  @ColumnInfo(name = "moneyInUsd")
+  public Integer moneyInUsd;
+
+  @Nullable
+  @ColumnInfo(name = "mainPhotoUrl")
+  public String mainPhotoUrl;
+
+  @Nullable
+  @ColumnInfo(name = "departureDate")
+  public Long departureDate;
+
+  @Nullable
+  @ColumnInfo(name = "arrivalDate")
+  public Long arrivalDate;
+
+  @Nullable
+  @ColumnInfo(name = "publicationTimestamp")
+  public Long publicationTimestamp;
+
+  @Nullable
+  @ColumnInfo(name = "state")
+  public String state;
+}
@@ -0,0 +1,20 @@
+package ru.hse.goodtrip.room.entities;
+
+import androidx.room.Embedded;
+import androidx.room.Relation;
+import java.util.List;
+
+/**
+ * Trip with its country visits, cities and notes.
+ */
+public class TripWithDetails {
+
+  @Embedded
+  public TripEntity trip;
+
+  @Relation(entity = CountryVisitEntity.class, parentColumn = "id", entityColumn = "tripId")
+  public List<CountryVisitWithCities> visits;
+
+  @Relation(parentColumn = "id", entityColumn = "tripId")
+  public List<NoteEntity> notes;
+}
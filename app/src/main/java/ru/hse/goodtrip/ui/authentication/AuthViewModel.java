@@ -2,8 +2,6 @@ package ru.hse.goodtrip.ui.authentication;
 
 import static com.google.common.hash.Hashing.sha256;
 
-import android.os.Handler;
-import android.os.Looper;
 import android.util.Log;
 import android.util.Patterns;
 import androidx.annotation.NonNull;
@@ -29,6 +27,7 @@ import ru.hse.goodtrip.data.TripRepository;
 import ru.hse.goodtrip.data.UsersRepository;
 import ru.hse.goodtrip.data.model.Result;
 import ru.hse.goodtrip.data.model.User;
+import ru.hse.goodtrip.executors.AppExecutors;
 import ru.hse.goodtrip.network.authentication.model.AuthenticationResponse;
 
 /**
@@ -60,9 +59,8 @@ public class AuthViewModel extends ViewModel {
 
   private void runExecutorToWaitResult(CompletableFuture<Result<AuthenticationResponse>> future,
       Runnable troublesHandler) {
-    Handler handler = new Handler(Looper.getMainLooper());
-    future.whenCompleteAsync((result, throwable) -> handler.post(() -> {
-      if (result.isSuccess()) {
+    future.whenCompleteAsync((result, throwable) -> {
+      if (throwable == null && result != null && result.isSuccess()) {
         AuthenticationResponse response =
             ((Result.Success<AuthenticationResponse>) result).getData();
         User data = new User(response.getId(), response.getHandle(),
@@ -74,7 +72,7 @@ public class AuthViewModel extends ViewModel {
       } else {
         troublesHandler.run();
       }
-    }));
+    }, AppExecutors.getInstance().mainThread());
   }
 
   /**
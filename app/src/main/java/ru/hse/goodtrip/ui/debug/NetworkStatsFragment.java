@@ -0,0 +1,122 @@
+package ru.hse.goodtrip.ui.debug;
+
+import android.os.Bundle;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Toast;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import java.io.File;
+import java.io.IOException;
+import ru.hse.goodtrip.R;
+import ru.hse.goodtrip.data.CallFuture;
+import ru.hse.goodtrip.data.PlaceRegistry;
+import ru.hse.goodtrip.data.TripRepository;
+import ru.hse.goodtrip.databinding.FragmentNetworkStatsBinding;
+import ru.hse.goodtrip.executors.AppExecutors;
+import ru.hse.goodtrip.executors.ExecutorStats;
+import ru.hse.goodtrip.navigation.TripHandoff;
+import ru.hse.goodtrip.network.HttpCacheStats;
+import ru.hse.goodtrip.network.NetworkManager;
+import ru.hse.goodtrip.network.metrics.MetricsRegistry;
+import ru.hse.goodtrip.network.trace.TraceRecorder;
+import ru.hse.goodtrip.ui.trips.feed.FeedPrefetchController;
+import ru.hse.goodtrip.ui.trips.feed.FeedViewModel;
+
+/**
+ * Debug screen with metrics of server API endpoints and executors, which also controls network
+ * trace recorder.
+ */
+public class NetworkStatsFragment extends Fragment {
+
+  private FragmentNetworkStatsBinding binding;
+
+  /**
+   * Text report of network metrics, executors and cancelled calls.
+   *
+   * @return report.
+   */
+  public static String getReport() {
+    StringBuilder report = new StringBuilder(MetricsRegistry.getInstance().dump());
+    report.append('\n');
+    HttpCacheStats cacheStats = NetworkManager.getInstance().getCacheStats();
+    if (cacheStats != null) {
+      report.append(cacheStats).append("\n\n");
+    }
+    for (ExecutorStats stats : AppExecutors.getInstance().getStats()) {
+      report.append(stats).append('\n');
+    }
+    report.append('\n').append(TripRepository.getInstance().getTripDetailsCache()).append('\n');
+    report.append(TripRepository.getInstance().getSpeculativeLoader()).append('\n');
+    report.append(TripRepository.getInstance().getUserTripsSync()).append('\n');
+    report.append(TripRepository.getSaveReport()).append('\n');
+    report.append(PlaceRegistry.getInstance()).append('\n');
+    report.append(TripHandoff.getInstance()).append('\n');
+    report.append("cancelled calls=").append(CallFuture.getCancelledCount()).append('\n');
+    report.append("trace events=").append(TraceRecorder.getInstance().size()).append('\n');
+    report.append(FeedPrefetchController.getReport()).append('\n');
+    report.append(FeedViewModel.getReport()).append('\n');
+    return report.toString();
+  }
+
+  @Override
+  public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
+      @Nullable Bundle savedInstanceState) {
+    binding = FragmentNetworkStatsBinding.inflate(inflater, container, false);
+    return binding.getRoot();
+  }
+
+  @Override
+  public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+    super.onViewCreated(view, savedInstanceState);
+    binding.refreshStatsButton.setOnClickListener(v -> showReport());
+    binding.resetStatsButton.setOnClickListener(v -> {
+      MetricsRegistry.getInstance().reset();
+      showReport();
+    });
+    binding.traceButton.setOnClickListener(v -> {
+      TraceRecorder trace = TraceRecorder.getInstance();
+      trace.setEnabled(!trace.isEnabled());
+      showReport();
+    });
+    binding.exportTraceButton.setOnClickListener(v -> exportTrace());
+    showReport();
+  }
+
+  private void showReport() {
+    binding.statsText.setText(getReport());
+    binding.traceButton.setText(TraceRecorder.getInstance().isEnabled()
+        ? R.string.stop_trace : R.string.start_trace);
+  }
+
+  private void exportTrace() {
+    File file = new File(requireContext().getExternalFilesDir(null),
+        "network-trace-" + System.currentTimeMillis() + ".json");
+    AppExecutors executors = AppExecutors.getInstance();
+    executors.disk().execute(() -> {
+      String message;
+      try {
+        TraceRecorder.getInstance().exportChromeTrace(file);
+        message = "Trace is saved to " + file.getAbsolutePath();
+      } catch (IOException e) {
+        Log.e(getClass().getSimpleName(), "Cannot export trace: " + e);
+        message = "Cannot export trace";
+      }
+      String result = message;
+      executors.mainThread().execute(() -> {
+        if (isAdded()) {
+          Toast.makeText(requireContext(), result, Toast.LENGTH_LONG).show();
+        }
+      });
+    });
+  }
+
+  @Override
+  public void onDestroyView() {
+    super.onDestroyView();
+    binding = null;
+  }
+}
@@ -2,8 +2,6 @@ package ru.hse.goodtrip.ui.map;
 
 import android.graphics.Color;
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -19,14 +17,12 @@ import com.google.android.gms.maps.model.LatLng;
 import com.google.android.gms.maps.model.Marker;
 import com.google.android.gms.maps.model.MarkerOptions;
 import com.google.android.gms.maps.model.PolylineOptions;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import ru.hse.goodtrip.MainActivity;
 import ru.hse.goodtrip.R;
 import ru.hse.goodtrip.data.model.User;
-import ru.hse.goodtrip.data.model.trips.City;
-import ru.hse.goodtrip.data.model.trips.CountryVisit;
+import ru.hse.goodtrip.data.model.trips.Route;
 import ru.hse.goodtrip.data.model.trips.Trip;
+import ru.hse.goodtrip.executors.AppExecutors;
 import ru.hse.goodtrip.network.trips.model.TripState;
 import ru.hse.goodtrip.ui.profile.followers.ProfileFollowingFragment;
 
@@ -83,36 +79,29 @@ public class MapsFollowingFragment extends Fragment {
    * @param googleMap googleMap.
    */
   private void showTripPaths(GoogleMap googleMap) {
-    ExecutorService service = Executors.newSingleThreadExecutor();
-    service.submit(() -> {
-      mapsFollowingViewModel.refreshMarks();
-      for (Trip trip : mapsFollowingViewModel.getMarks()) {
+    mapsFollowingViewModel.refreshMarks().thenAcceptAsync(marks -> {
+      for (Trip trip : marks) {
         if (!trip.getTripState().equals(TripState.PUBLISHED)) {
           continue;
         }
+        Route route = trip.getRoute();
+        if (route.size() > 0) {
+          PolylineOptions path = new PolylineOptions();
+          LatLng marker = null;
+          for (int i = 0; i < route.size(); i++) {
+            marker = new LatLng(route.getLatitude(i), route.getLongitude(i));
+            Marker mark = googleMap.addMarker(
+                new MarkerOptions().position(marker).title(trip.getTitle()));
+            assert mark != null;
 
-        Handler handler = Handler.createAsync(Looper.getMainLooper());
-        handler.post(() -> {
-          if (!trip.getCountries().isEmpty()) {
-            PolylineOptions path = new PolylineOptions();
-            for (CountryVisit country : trip.getCountries()) {
-              for (City city : country.getVisitedCities()) {
-                LatLng marker = new LatLng(city.getCoordinates().getLatitude(),
-                    city.getCoordinates().getLongitude());
-                Marker mark = googleMap.addMarker(
-                    new MarkerOptions().position(marker).title(trip.getTitle()));
-                assert mark != null;
-
-                mark.setTag(trip);
-                googleMap.moveCamera(CameraUpdateFactory.newLatLng(marker));
-                path.add(marker);
-              }
-            }
-            path.color(Color.RED).width(5);
-            googleMap.addPolyline(path);
+            mark.setTag(trip);
+            path.add(marker);
           }
-        });
+          googleMap.moveCamera(CameraUpdateFactory.newLatLng(marker));
+          path.color(Color.RED).width(5);
+          googleMap.addPolyline(path);
+        }
       }
-    });
+    }, AppExecutors.getInstance().mainThread());
   }
 }
\ No newline at end of file
@@ -2,17 +2,20 @@ package ru.hse.goodtrip.ui.map;
 
 import android.util.Log;
 import androidx.lifecycle.ViewModel;
+import java.time.ZoneId;
 import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
 import lombok.Getter;
 import lombok.Setter;
+import ru.hse.goodtrip.data.CancellationScope;
+import ru.hse.goodtrip.data.TripMapper;
 import ru.hse.goodtrip.data.TripRepository;
 import ru.hse.goodtrip.data.UsersRepository;
 import ru.hse.goodtrip.data.model.Result;
 import ru.hse.goodtrip.data.model.User;
 import ru.hse.goodtrip.data.model.trips.Trip;
+import ru.hse.goodtrip.executors.AppExecutors;
 
 /**
  * MapsFollowingViewModel.
@@ -24,23 +27,32 @@ public class MapsFollowingViewModel extends ViewModel {
   private List<Trip> marks = Collections.emptyList();
   private User user;
   private TripRepository tripRepository = TripRepository.getInstance();
+  private final AppExecutors executors = AppExecutors.getInstance();
+  private final CancellationScope requests = new CancellationScope();
 
-  public void refreshMarks() {
-    try {
-      Result<List<ru.hse.goodtrip.network.trips.model.Trip>> trips = tripRepository.getAuthorTrips(
-          user.getHandle(),
-          UsersRepository.getInstance().user.getToken()).get();
-      if (trips.isSuccess()) {
-        marks = TripRepository.getTripsFromTripResponses(
-            ((Result.Success<List<ru.hse.goodtrip.network.trips.model.Trip>>) trips).getData());
-        for (Trip trip : marks) {
-          trip.setUser(user);
-        }
-      }
-    } catch (ExecutionException | InterruptedException e) {
-      Log.d(this.getClass().getSimpleName(), Objects.requireNonNull(
-          e.getLocalizedMessage()));
-    }
+  /**
+   * Refresh published trips of user.
+   *
+   * @return CompletableFuture of refreshed marks.
+   */
+  public CompletableFuture<List<Trip>> refreshMarks() {
+    return requests.track(tripRepository.getAuthorTrips(user.getHandle(),
+            UsersRepository.getInstance().user.getToken()))
+        .thenApplyAsync(trips -> {
+          if (trips.isSuccess()) {
+            marks = new TripMapper(ZoneId.systemDefault(), user).mapAll(
+                ((Result.Success<List<ru.hse.goodtrip.network.trips.model.Trip>>) trips)
+                    .getData());
+          } else {
+            Log.d(this.getClass().getSimpleName(), trips.toString());
+          }
+          return marks;
+        }, executors.cpu());
+  }
 
+  @Override
+  protected void onCleared() {
+    super.onCleared();
+    requests.cancelAll();
   }
 }
@@ -3,8 +3,10 @@ package ru.hse.goodtrip.ui.map;
 import androidx.lifecycle.ViewModel;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import lombok.Getter;
+import ru.hse.goodtrip.data.CancellationScope;
 import ru.hse.goodtrip.data.TripRepository;
 import ru.hse.goodtrip.data.UsersRepository;
 import ru.hse.goodtrip.data.model.trips.Trip;
@@ -13,14 +15,30 @@ import ru.hse.goodtrip.data.model.trips.Trip;
 public class MapsViewModel extends ViewModel {
 
   private List<Trip> marks = Collections.emptyList();
+  private final CancellationScope requests = new CancellationScope();
 
 
-  public void refreshMarks() {
-    try {
-      TripRepository.getInstance().getUserTrips(UsersRepository.getInstance().user.getId(),
-          UsersRepository.getInstance().user.getToken()).get();
-    } catch (ExecutionException | InterruptedException ignored) {
-    }
-    marks = TripRepository.getInstance().getUserTrips();
+  /**
+   * Refresh trips of logged user.
+   *
+   * @return CompletableFuture of refreshed marks.
+   */
+  public CompletableFuture<List<Trip>> refreshMarks() {
+    return requests.track(TripRepository.getInstance().getUserTrips(
+            UsersRepository.getInstance().user.getId(),
+            UsersRepository.getInstance().user.getToken()))
+        .handle((result, throwable) -> {
+          if (throwable instanceof CancellationException) {
+            throw (CancellationException) throwable;
+          }
+          marks = TripRepository.getInstance().getUserTrips();
+          return marks;
+        });
+  }
+
+  @Override
+  protected void onCleared() {
+    super.onCleared();
+    requests.cancelAll();
   }
 }
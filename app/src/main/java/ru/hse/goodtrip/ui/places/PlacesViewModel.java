@@ -4,9 +4,11 @@ import androidx.lifecycle.ViewModel;
 import java.util.Collections;
 import java.util.List;
 import lombok.Getter;
+import ru.hse.goodtrip.data.CancellationScope;
 import ru.hse.goodtrip.data.PlacesRepository;
 import ru.hse.goodtrip.data.UsersRepository;
 import ru.hse.goodtrip.data.model.Result;
+import ru.hse.goodtrip.executors.AppExecutors;
 import ru.hse.goodtrip.network.places.model.PlaceResponse;
 
 /**
@@ -15,6 +17,8 @@ import ru.hse.goodtrip.network.places.model.PlaceResponse;
 public class PlacesViewModel extends ViewModel {
 
   private final PlacesRepository repository = PlacesRepository.getInstance();
+  private final AppExecutors executors = AppExecutors.getInstance();
+  private final CancellationScope requests = new CancellationScope();
   @Getter
   private List<PlaceResponse> responses = Collections.emptyList();
 
@@ -26,12 +30,18 @@ public class PlacesViewModel extends ViewModel {
    * @param update    runnable to run after getting places.
    */
   public void updatePlaces(double latitude, double longitude, Runnable update) {
-    repository.getPlacesNearby(latitude, longitude, 1000,
-            null, null, UsersRepository.getInstance().user.getToken())
+    requests.track(repository.getPlacesNearby(latitude, longitude, 1000,
+            null, null, UsersRepository.getInstance().user.getToken()))
         .thenAcceptAsync(result -> {
           if (result.isSuccess()) {
             responses = ((Result.Success<List<PlaceResponse>>) result).getData();
           }
-        }).thenRunAsync(update);
+        }, executors.cpu()).thenRunAsync(update, executors.cpu());
   }
-}
\ No newline at end of file
+
+  @Override
+  protected void onCleared() {
+    super.onCleared();
+    requests.cancelAll();
+  }
+}
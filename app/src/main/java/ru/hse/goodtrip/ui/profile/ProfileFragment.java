@@ -23,10 +23,12 @@ import com.github.dhaval2404.imagepicker.ImagePicker;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Objects;
+import ru.hse.goodtrip.BuildConfig;
 import ru.hse.goodtrip.MainActivity;
 import ru.hse.goodtrip.data.UsersRepository;
 import ru.hse.goodtrip.data.model.User;
 import ru.hse.goodtrip.databinding.FragmentProfileBinding;
+import ru.hse.goodtrip.navigation.TripHandoff;
 import ru.hse.goodtrip.network.firebase.FirebaseUtils;
 import ru.hse.goodtrip.room.RoomImplementation;
 import ru.hse.goodtrip.ui.profile.followers.FollowingFragment.PAGE_TYPE;
@@ -117,6 +119,12 @@ public class ProfileFragment extends Fragment {
                 UsersRepository.getInstance().getFollowers(),
                 PAGE_TYPE.FOLLOWERS));
     binding.profileImage.setOnClickListener(v -> uploadImageFromGallery());
+    if (BuildConfig.DEBUG) {
+      binding.profileImage.setOnLongClickListener(v -> {
+        ((MainActivity) requireActivity()).getNavigationGraph().navigateToNetworkStats();
+        return true;
+      });
+    }
     binding.myTripsButton.setOnClickListener(v ->
         ((MainActivity) requireActivity()).getNavigationGraph().navigateToMyTrips());
     binding.logoutButton.setOnClickListener(v -> logoutFromAccount());
@@ -130,6 +138,7 @@ public class ProfileFragment extends Fragment {
           if (RoomImplementation.getInstance().isUserLoggedIn()) {
             RoomImplementation.getInstance().logOutUser();
             UsersRepository.getInstance().logout();
+            TripHandoff.getInstance().clear();
           }
           ((MainActivity) requireActivity()).getNavigationGraph().navigateToLogin();
         })
@@ -6,10 +6,12 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Objects;
 import java.util.function.Consumer;
+import ru.hse.goodtrip.data.CancellationScope;
 import ru.hse.goodtrip.data.CommunicationRepository;
 import ru.hse.goodtrip.data.UsersRepository;
 import ru.hse.goodtrip.data.model.Result;
 import ru.hse.goodtrip.data.model.User;
+import ru.hse.goodtrip.executors.AppExecutors;
 
 /**
  * AddFollowingViewModel.
@@ -17,6 +19,8 @@ import ru.hse.goodtrip.data.model.User;
 public class AddFollowingViewModel extends ViewModel {
 
   CommunicationRepository communicationRepository = CommunicationRepository.getInstance();
+  private final AppExecutors executors = AppExecutors.getInstance();
+  private final CancellationScope requests = new CancellationScope();
 
   /**
    * Find user by handle.
@@ -25,8 +29,8 @@ public class AddFollowingViewModel extends ViewModel {
    * @param workAfter    function, which accepts User after getting callback.
    */
   public void findUser(String handleToFind, Consumer<User> workAfter) {
-    communicationRepository.getUserByHandle(handleToFind,
-            UsersRepository.getInstance().user.getToken())
+    requests.track(communicationRepository.getUserByHandle(handleToFind,
+            UsersRepository.getInstance().user.getToken()))
         .thenApplyAsync((result) -> {
           if (result.isSuccess()) {
             ru.hse.goodtrip.network.social.entities.User networkUser =
@@ -45,7 +49,13 @@ public class AddFollowingViewModel extends ViewModel {
             }
           }
           return null;
-        })
+        }, executors.cpu())
         .thenAccept(workAfter);
   }
-}
\ No newline at end of file
+
+  @Override
+  protected void onCleared() {
+    super.onCleared();
+    requests.cancelAll();
+  }
+}
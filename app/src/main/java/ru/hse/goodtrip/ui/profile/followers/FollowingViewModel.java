@@ -10,10 +10,12 @@ import java.util.Objects;
 import java.util.stream.Collectors;
 import lombok.Getter;
 import lombok.Setter;
+import ru.hse.goodtrip.data.CancellationScope;
 import ru.hse.goodtrip.data.CommunicationRepository;
 import ru.hse.goodtrip.data.UsersRepository;
 import ru.hse.goodtrip.data.model.Result;
 import ru.hse.goodtrip.data.model.User;
+import ru.hse.goodtrip.executors.AppExecutors;
 
 /**
  * FollowingViewModel.
@@ -21,6 +23,8 @@ import ru.hse.goodtrip.data.model.User;
 public class FollowingViewModel extends ViewModel {
 
   CommunicationRepository communicationRepository = CommunicationRepository.getInstance();
+  private final AppExecutors executors = AppExecutors.getInstance();
+  private final CancellationScope requests = new CancellationScope();
   @Getter
   @Setter
   private List<User> users = new ArrayList<>();
@@ -31,11 +35,12 @@ public class FollowingViewModel extends ViewModel {
    * @param uiUpdate Runnable function, which updates UI, after getting callback.
    */
   public void updateFollowersUsers(Runnable uiUpdate) {
-    communicationRepository.getFollowers(UsersRepository.getInstance().user.getId(),
-            UsersRepository.getInstance().user.getToken())
+    requests.track(communicationRepository.getFollowers(
+            UsersRepository.getInstance().user.getId(),
+            UsersRepository.getInstance().user.getToken()))
         .thenAcceptAsync(
-            this::updateUsers
-        ).thenRunAsync(uiUpdate);
+            this::updateUsers, executors.cpu()
+        ).thenRunAsync(uiUpdate, executors.cpu());
   }
 
   private void updateUsers(Result<List<ru.hse.goodtrip.network.social.entities.User>> newUsers) {
@@ -67,10 +72,17 @@ public class FollowingViewModel extends ViewModel {
    * @param uiUpdate Runnable function, which updates UI, after getting callback.
    */
   public void updateFollowingUsers(Runnable uiUpdate) {
-    communicationRepository.getSubscriptions(UsersRepository.getInstance().user.getId(),
-            UsersRepository.getInstance().user.getToken())
+    requests.track(communicationRepository.getSubscriptions(
+            UsersRepository.getInstance().user.getId(),
+            UsersRepository.getInstance().user.getToken()))
         .thenAcceptAsync(
-            this::updateUsers
-        ).thenRunAsync(uiUpdate);
+            this::updateUsers, executors.cpu()
+        ).thenRunAsync(uiUpdate, executors.cpu());
   }
-}
\ No newline at end of file
+
+  @Override
+  protected void onCleared() {
+    super.onCleared();
+    requests.cancelAll();
+  }
+}
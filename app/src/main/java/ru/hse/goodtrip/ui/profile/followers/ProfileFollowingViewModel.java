@@ -11,10 +11,12 @@ import java.util.Objects;
 import java.util.stream.Collectors;
 import lombok.Getter;
 import lombok.Setter;
+import ru.hse.goodtrip.data.CancellationScope;
 import ru.hse.goodtrip.data.CommunicationRepository;
 import ru.hse.goodtrip.data.UsersRepository;
 import ru.hse.goodtrip.data.model.Result.Success;
 import ru.hse.goodtrip.data.model.User;
+import ru.hse.goodtrip.executors.AppExecutors;
 
 /**
  * ProfileFollowingViewModel.
@@ -24,6 +26,8 @@ import ru.hse.goodtrip.data.model.User;
 public class ProfileFollowingViewModel extends ViewModel {
 
   CommunicationRepository communicationRepository = CommunicationRepository.getInstance();
+  private final AppExecutors executors = AppExecutors.getInstance();
+  private final CancellationScope requests = new CancellationScope();
   private User user;
   private ArrayList<User> followers = new ArrayList<>();
   private ArrayList<User> following = new ArrayList<>();
@@ -54,16 +58,16 @@ public class ProfileFollowingViewModel extends ViewModel {
    * @param uiUpdate Ui update Runnable.
    */
   public void refreshFollow(Runnable uiUpdate) {
-    communicationRepository.getFollowers(user.getId(),
-            UsersRepository.getInstance().user.getToken())
+    requests.track(communicationRepository.getFollowers(user.getId(),
+            UsersRepository.getInstance().user.getToken()))
         .thenAccept((newUsers) -> {
           if (newUsers.isSuccess()) {
             followers = getResult(
                 (Success<List<ru.hse.goodtrip.network.social.entities.User>>) newUsers);
           }
-        }).thenRunAsync(uiUpdate);
-    communicationRepository.getSubscriptions(user.getId(),
-            UsersRepository.getInstance().user.getToken())
+        }).thenRunAsync(uiUpdate, executors.cpu());
+    requests.track(communicationRepository.getSubscriptions(user.getId(),
+            UsersRepository.getInstance().user.getToken()))
         .thenAccept((newUsers) -> {
           if (newUsers.isSuccess()) {
             following = getResult(
@@ -96,4 +100,10 @@ public class ProfileFollowingViewModel extends ViewModel {
         user.getHandle(),
         UsersRepository.getInstance().user.getToken());
   }
-}
\ No newline at end of file
+
+  @Override
+  protected void onCleared() {
+    super.onCleared();
+    requests.cancelAll();
+  }
+}
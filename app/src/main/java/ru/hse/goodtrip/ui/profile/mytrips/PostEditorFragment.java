@@ -36,18 +36,20 @@ import java.util.Objects;
 import lombok.Setter;
 import ru.hse.goodtrip.MainActivity;
 import ru.hse.goodtrip.R;
+import ru.hse.goodtrip.data.PlaceRegistry;
+import ru.hse.goodtrip.data.model.Result;
 import ru.hse.goodtrip.data.model.trips.City;
-import ru.hse.goodtrip.data.model.trips.Coordinates;
 import ru.hse.goodtrip.data.model.trips.Country;
 import ru.hse.goodtrip.data.model.trips.CountryVisit;
 import ru.hse.goodtrip.data.model.trips.Note;
 import ru.hse.goodtrip.data.model.trips.Trip;
 import ru.hse.goodtrip.databinding.FragmentPostEditorBinding;
 import ru.hse.goodtrip.databinding.ItemNoteBinding;
+import ru.hse.goodtrip.executors.AppExecutors;
+import ru.hse.goodtrip.navigation.TripHandoff;
 import ru.hse.goodtrip.network.firebase.FirebaseUtils;
 import ru.hse.goodtrip.ui.profile.mytrips.PostEditorDialogWindows.AddNewDestinationDialogFragment;
 import ru.hse.goodtrip.ui.profile.mytrips.PostEditorDialogWindows.AddNewNoteDialogFragment;
-import ru.hse.goodtrip.ui.trips.feed.FeedAdapter;
 
 /**
  * PostEditorFragment screen.
@@ -127,16 +129,47 @@ public class PostEditorFragment extends Fragment {
     return binding.getRoot();
   }
 
-  @SuppressLint("SetTextI18n")
   @Override
   public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
     super.onViewCreated(view, savedInstanceState);
 
+    // Trip handed over is shared with other screens and caches, so unsaved edits go to a copy.
+    this.trip = postEditorViewModel.getTrip();
     Bundle args = getArguments();
-    if (args != null) {
-      this.trip = (Trip) args.get(FeedAdapter.POST_ARG);
-      postEditorViewModel.setTrip(trip);
+    if (trip == null && args != null) {
+      TripHandoff handoff = TripHandoff.getInstance();
+      Trip handedOver = handoff.peek(args);
+      if (handedOver != null) {
+        this.trip = handedOver.editableCopy();
+      } else {
+        handoff.resolve(args).thenAcceptAsync(result -> {
+          if (result != null && result.isSuccess() && getView() != null) {
+            this.trip = ((Result.Success<Trip>) result).getData().editableCopy();
+            showTrip();
+          }
+        }, AppExecutors.getInstance().mainThread());
+      }
     }
+    setEditingEnabled(false);
+    showTrip();
+  }
+
+  /**
+   * Enables or disables controls which change trip, trip may be not loaded yet.
+   *
+   * @param enabled whether controls are enabled.
+   */
+  private void setEditingEnabled(boolean enabled) {
+    binding.addNewCountry.setEnabled(enabled);
+    binding.addNewNote.setEnabled(enabled);
+    binding.postButton.setEnabled(enabled);
+    binding.editModeButton.setEnabled(enabled);
+    binding.saveChangesButton.setEnabled(enabled);
+    binding.pickImageButton.setEnabled(enabled);
+  }
+
+  @SuppressLint("SetTextI18n")
+  private void showTrip() {
     if (trip != null) {
       postEditorViewModel.setTrip(trip);
       setImageByUrl(binding.postImageView, trip.getMainPhotoUrl(), R.drawable.noimage);
@@ -145,6 +178,7 @@ public class PostEditorFragment extends Fragment {
       loadRoute();
       loadNotes();
       setUpButtonClickListeners();
+      setEditingEnabled(true);
     }
   }
 
@@ -265,8 +299,9 @@ public class PostEditorFragment extends Fragment {
   }
 
   public void addNote(String noteHeadline, String noteText, String place, String photo) {
+    PlaceRegistry places = PlaceRegistry.getInstance();
     trip.getNotes().add(new Note(noteHeadline, noteText, photo,
-        new City(place, new Coordinates(0, 0), new Country("", new Coordinates(0, 0)))));
+        places.city(place, PlaceRegistry.UNKNOWN_COORDINATES, places.country(""))));
   }
 
   /**
@@ -339,13 +374,16 @@ public class PostEditorFragment extends Fragment {
    * @param citiesName  name of cities.
    */
   public void addCountry(String countryName, List<String> citiesName) {
-    Country country = new Country(countryName, new Coordinates(0, 0));
-    List<City> cities = new ArrayList<>();
+    PlaceRegistry places = PlaceRegistry.getInstance();
+    Country country = places.country(countryName);
+    List<City> cities = new ArrayList<>(citiesName.size());
     for (String cityName : citiesName) {
-      cities.add(new City(cityName, new Coordinates(0, 0), country));
+      cities.add(places.city(cityName, PlaceRegistry.UNKNOWN_COORDINATES, country));
     }
     CountryVisit countryVisit = new CountryVisit(country, cities);
-    trip.getCountries().add(countryVisit);
+    List<CountryVisit> countries = trip.getCountries();
+    countries.add(countryVisit);
+    trip.setCountries(countries);
   }
 
   /**
@@ -9,6 +9,7 @@ import lombok.Setter;
 import ru.hse.goodtrip.data.TripRepository;
 import ru.hse.goodtrip.data.UsersRepository;
 import ru.hse.goodtrip.data.model.trips.Trip;
+import ru.hse.goodtrip.executors.AppExecutors;
 import ru.hse.goodtrip.network.trips.model.TripState;
 
 
@@ -20,6 +21,7 @@ import ru.hse.goodtrip.network.trips.model.TripState;
 public class PostEditorViewModel extends ViewModel {
 
   private TripRepository tripRepository = TripRepository.getInstance();
+  private final AppExecutors executors = AppExecutors.getInstance();
   private Trip trip;
 
   /**
@@ -31,14 +33,13 @@ public class PostEditorViewModel extends ViewModel {
   }
 
   /**
-   * Save trip.
+   * Save trip, only changed fields of trip are sent.
    */
   public void saveTrip() {
     int userId = UsersRepository.getInstance().user.getId();
     String token = UsersRepository.getInstance().user.getToken();
-    tripRepository.updateTrip(TripRepository.getNetworkTripFromTrip(userId, trip), token)
-        .thenRunAsync(() -> tripRepository.getUserTrips(userId, token))
-        .thenRunAsync(() -> tripRepository.getAuthorsTrips(userId, token));
+    tripRepository.saveTrip(userId, trip, token)
+        .thenRunAsync(() -> tripRepository.getUserTrips(userId, token), executors.cpu());
   }
 
 
@@ -4,23 +4,21 @@ import static ru.hse.goodtrip.ui.trips.feed.utils.Utils.getDateFormatted;
 import static ru.hse.goodtrip.ui.trips.feed.utils.Utils.setImageByUrl;
 import static ru.hse.goodtrip.ui.trips.feed.utils.Utils.setImageByUrlCropped;
 
-import android.annotation.SuppressLint;
 import android.os.Handler;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import androidx.annotation.NonNull;
-import androidx.recyclerview.widget.RecyclerView;
-import androidx.recyclerview.widget.RecyclerView.ViewHolder;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.time.ZoneId;
-import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import lombok.Getter;
+import kotlinx.coroutines.Dispatchers;
+import kotlinx.coroutines.ExecutorsKt;
 import ru.hse.goodtrip.MainActivity;
 import ru.hse.goodtrip.R;
 import ru.hse.goodtrip.data.TripRepository;
@@ -28,65 +26,109 @@ import ru.hse.goodtrip.data.UsersRepository;
 import ru.hse.goodtrip.data.model.Result;
 import ru.hse.goodtrip.data.model.User;
 import ru.hse.goodtrip.data.model.trips.Trip;
-import ru.hse.goodtrip.databinding.FeedLoadingViewBinding;
 import ru.hse.goodtrip.databinding.ItemPostTripBinding;
+import ru.hse.goodtrip.executors.AppExecutors;
 import ru.hse.goodtrip.network.trips.model.CountryVisit;
 import ru.hse.goodtrip.network.trips.model.TripView;
-import ru.hse.goodtrip.ui.trips.feed.FeedViewHolders.FeedLoadingViewHolder;
 import ru.hse.goodtrip.ui.trips.feed.FeedViewHolders.FeedPostViewHolder;
 
 /**
  * FeedAdapter provide a binding from posts set to views that are displayed within a RecyclerView.
  */
-public class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> implements
+public class FeedAdapter extends PagingDataAdapter<TripView, FeedPostViewHolder> implements
     View.OnClickListener {
 
-  public static final String POST_ARG = "post";
-  private static final int VIEW_TYPE_ITEM = 0;
-  private static final int VIEW_TYPE_LOADING = 1;
   private static final String TAG = "FEED_ADAPTER";
-  @Getter
-  List<TripView> items = Collections.emptyList();
+  private static final int CHANGED_TEXT = 1;
+  private static final int CHANGED_AVATAR = 1 << 1;
+  private static final int CHANGED_PHOTO = 1 << 2;
+  private static final int CHANGED_ALL = CHANGED_TEXT | CHANGED_AVATAR | CHANGED_PHOTO;
+  /**
+   * Posts are identified by id, so a post keeps its row across refreshes. Changed post gets
+   * payload with changed parts, so only they are rebound and images which didn't change are not
+   * requested again.
+   */
+  private static final DiffUtil.ItemCallback<TripView> DIFF_CALLBACK =
+      new DiffUtil.ItemCallback<TripView>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull TripView oldItem, @NonNull TripView newItem) {
+          return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull TripView oldItem, @NonNull TripView newItem) {
+          return oldItem.equals(newItem);
+        }
+
+        @Override
+        public Object getChangePayload(@NonNull TripView oldItem, @NonNull TripView newItem) {
+          int changed = 0;
+          if (!Objects.equals(oldItem.getTitle(), newItem.getTitle())
+              || !Objects.equals(oldItem.getDisplayName(), newItem.getDisplayName())
+              || !Objects.equals(oldItem.getPublicationTimestamp(),
+              newItem.getPublicationTimestamp())
+              || !Objects.equals(oldItem.getVisits(), newItem.getVisits())) {
+            changed |= CHANGED_TEXT;
+          }
+          if (!Objects.equals(oldItem.getUserMainPhotoUrl(), newItem.getUserMainPhotoUrl())) {
+            changed |= CHANGED_AVATAR;
+          }
+          if (!Objects.equals(oldItem.getMainPhotoUrl(), newItem.getMainPhotoUrl())) {
+            changed |= CHANGED_PHOTO;
+          }
+          return changed;
+        }
+      };
 
-  @SuppressLint("NotifyDataSetChanged")
-  public void setItems(List<TripView> newItems) {
-    items = newItems;
-    notifyDataSetChanged();
+  /**
+   * Creates adapter which diffs pages on the cpu pool.
+   */
+  public FeedAdapter() {
+    super(DIFF_CALLBACK, Dispatchers.getMain(),
+        ExecutorsKt.from(AppExecutors.getInstance().cpu()));
   }
 
   @NonNull
   @Override
-  public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-    if (viewType == VIEW_TYPE_ITEM) {
-      ItemPostTripBinding binding = ItemPostTripBinding.inflate(
-          LayoutInflater.from(parent.getContext()), parent, false);
-      return new FeedPostViewHolder(binding);
-    } else { // VIEW_TYPE_LOADING
-      FeedLoadingViewBinding binding = FeedLoadingViewBinding.inflate(
-          LayoutInflater.from(parent.getContext()), parent, false);
-      return new FeedLoadingViewHolder(binding);
-    }
+  public FeedPostViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+    ItemPostTripBinding binding = ItemPostTripBinding.inflate(
+        LayoutInflater.from(parent.getContext()), parent, false);
+    return new FeedPostViewHolder(binding);
   }
 
   @Override
-  public void onBindViewHolder(@NonNull ViewHolder viewHolder, int position) {
-    if (viewHolder instanceof FeedPostViewHolder) {
-      showPostView((FeedPostViewHolder) viewHolder, position);
-    } else if (viewHolder instanceof FeedLoadingViewHolder) {
-      Log.d(TAG, "LoadingView appeared");
+  public void onBindViewHolder(@NonNull FeedPostViewHolder viewHolder, int position) {
+    showPostView(viewHolder, position, CHANGED_ALL);
+  }
+
+  @Override
+  public void onBindViewHolder(@NonNull FeedPostViewHolder viewHolder, int position,
+      @NonNull List<Object> payloads) {
+    if (payloads.isEmpty()) {
+      showPostView(viewHolder, position, CHANGED_ALL);
+      return;
+    }
+    int changed = 0;
+    for (Object payload : payloads) {
+      changed |= payload instanceof Integer ? (Integer) payload : CHANGED_ALL;
     }
+    showPostView(viewHolder, position, changed);
   }
 
   /**
    * @param viewHolder provides trip binding to set up.
    * @param position   trip position in adapter items.
+   * @param changed    parts of post to set up.
    */
-  private void showPostView(FeedPostViewHolder viewHolder, int position) {
-    TripView trip = items.get(position);
+  private void showPostView(FeedPostViewHolder viewHolder, int position, int changed) {
+    TripView trip = getItem(position);
+    if (trip == null) {
+      return;
+    }
     viewHolder.itemView.setOnClickListener(this);
     viewHolder.itemView.setTag(trip);
     ItemPostTripBinding binding = viewHolder.getBinding();
-    setPostInfoWithTrip(trip, binding);
+    setPostInfoWithTrip(trip, binding, changed);
   }
 
   /**
@@ -94,43 +136,32 @@ public class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> i
    *
    * @param trip    trip to appear.
    * @param binding binding for appearing.
+   * @param changed parts of post to set up.
    */
-  private void setPostInfoWithTrip(TripView trip, ItemPostTripBinding binding) {
-    String dateFormat = "dd.MM.yyyy";
-    StringBuilder countries = new StringBuilder();
-    if (trip.getVisits().size() > 1) {
+  private void setPostInfoWithTrip(TripView trip, ItemPostTripBinding binding, int changed) {
+    if ((changed & CHANGED_TEXT) != 0) {
+      String dateFormat = "dd.MM.yyyy";
+      StringBuilder countries = new StringBuilder();
       for (CountryVisit country : trip.getVisits()) {
-        countries.append(country.getCountry()).append(", ");
+        if (countries.length() > 0) {
+          countries.append(", ");
+        }
+        countries.append(country.getCountry());
       }
-      countries.deleteCharAt(countries.length() - 1);
-      countries.deleteCharAt(countries.length() - 1);
-    } else {
-      countries = new StringBuilder(trip.getVisits().get(0).getCountry());
-    }
-
-    binding.titleText.setText(trip.getTitle());
-    binding.profileNameText.setText(trip.getDisplayName());
-    binding.dateOfPublication.setText(getDateFormatted(trip.getPublicationTimestamp().toInstant()
-        .atZone(ZoneId.systemDefault()).toLocalDate(), dateFormat));
-    binding.countriesText.setText(countries);
-    setImageByUrlCropped(binding.profileImageView, trip.getUserMainPhotoUrl(),
-        R.drawable.baseline_account_circle_24);
-    setImageByUrl(binding.postImageView, trip.getMainPhotoUrl(), R.drawable.kazantip);
-  }
-
-  public void showLoadingView() {
-    items.add(0, null);
-    notifyItemInserted(0);
-  }
-
-  public void hideLoadingView() {
-    items.remove(null);
-    notifyItemRemoved(0);
-  }
 
-  @Override
-  public int getItemCount() {
-    return items.size();
+      binding.titleText.setText(trip.getTitle());
+      binding.profileNameText.setText(trip.getDisplayName());
+      binding.dateOfPublication.setText(getDateFormatted(trip.getPublicationTimestamp()
+          .toInstant().atZone(ZoneId.systemDefault()).toLocalDate(), dateFormat));
+      binding.countriesText.setText(countries);
+    }
+    if ((changed & CHANGED_AVATAR) != 0) {
+      setImageByUrlCropped(binding.profileImageView, trip.getUserMainPhotoUrl(),
+          R.drawable.baseline_account_circle_24);
+    }
+    if ((changed & CHANGED_PHOTO) != 0) {
+      setImageByUrl(binding.postImageView, trip.getMainPhotoUrl(), R.drawable.kazantip);
+    }
   }
 
   @Override
@@ -140,34 +171,22 @@ public class FeedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> i
     MainActivity activity = (MainActivity) v.getContext();
     Handler handler = new Handler(activity.getMainLooper());
     TripRepository.getInstance()
-        .getTripById(postClicked.getId(), UsersRepository.getInstance().user.getToken())
+        .getTripDetails(postClicked.getId(), UsersRepository.getInstance().user.getToken())
         .thenAccept((fullTrip) -> {
-          if (fullTrip.isSuccess()) {
-            Log.d(TAG, "Get trip by id is happened, id of trip is:" + postClicked.getId());
-
-          } else {
+          if (!fullTrip.isSuccess()) {
             Log.e(TAG, "Get trip by id is happened, issues happened, id of trip is:"
                 + postClicked.getId());
-
+            return;
+          }
+          User author = null;
+          try {
+            author = new User(0, null, postClicked.getDisplayName(),
+                new URL(postClicked.getUserMainPhotoUrl()), null);
+          } catch (MalformedURLException e) {
+            Log.d("URL parsing failed", Objects.requireNonNull(e.getLocalizedMessage()));
           }
-          handler.post(() -> {
-            ObjectMapper objectMapper = new ObjectMapper();
-            Trip trip = TripRepository.getTripFromTripResponse(
-                objectMapper.convertValue(((Result.Success<?>) fullTrip).getData(),
-                    ru.hse.goodtrip.network.trips.model.Trip.class));
-            try {
-              trip.setUser(new User(0, null, postClicked.getDisplayName(),
-                  new URL(postClicked.getUserMainPhotoUrl()), null));
-            } catch (MalformedURLException e) {
-              Log.d("URL parsing failed", Objects.requireNonNull(e.getLocalizedMessage()));
-            }
-            activity.getNavigationGraph().navigateToPostPage(trip);
-          });
+          Trip trip = ((Result.Success<Trip>) fullTrip).getData().withUser(author);
+          handler.post(() -> activity.getNavigationGraph().navigateToPostPage(trip));
         });
   }
-
-  @Override
-  public int getItemViewType(int position) {
-    return items.get(position) == null ? VIEW_TYPE_LOADING : VIEW_TYPE_ITEM;
-  }
 }
@@ -0,0 +1,142 @@
+package ru.hse.goodtrip.ui.trips.feed;
+
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import kotlin.Unit;
+import kotlin.jvm.functions.Function0;
+import ru.hse.goodtrip.data.SpeculativeTripLoader;
+import ru.hse.goodtrip.data.TripRepository;
+import ru.hse.goodtrip.data.UsersRepository;
+import ru.hse.goodtrip.data.feed.IntHashSet;
+import ru.hse.goodtrip.data.model.User;
+import ru.hse.goodtrip.network.trips.model.TripView;
+
+/**
+ * Tracks how long posts stay visible in the feed. When a post is visible longer than dwell
+ * threshold, user is likely to open it, so its trip is handed to {@link SpeculativeTripLoader}.
+ */
+public class FeedDwellTracker extends RecyclerView.OnScrollListener {
+
+  private static final long DWELL_MILLIS = 700;
+  private static final long SPECULATED = Long.MAX_VALUE;
+
+  private final RecyclerView recyclerView;
+  private final FeedAdapter adapter;
+  private final LinearLayoutManager layoutManager;
+  private final SpeculativeTripLoader loader = TripRepository.getInstance()
+      .getSpeculativeLoader();
+  /**
+   * Time since which visible posts are shown, by id of post.
+   */
+  private final HashMap<Integer, Long> visibleSince = new HashMap<>();
+  private final IntHashSet visible = new IntHashSet(8);
+  private final Runnable check = this::checkDwell;
+  private final Function0<Unit> pagesUpdatedListener = () -> {
+    updateVisible();
+    return Unit.INSTANCE;
+  };
+  private boolean checkPosted;
+
+  /**
+   * Creates tracker, it listens to scroll and loading of feed after {@link #attach()}.
+   *
+   * @param recyclerView  feed.
+   * @param adapter       adapter of posts.
+   * @param layoutManager layout manager of feed.
+   */
+  public FeedDwellTracker(RecyclerView recyclerView, FeedAdapter adapter,
+      LinearLayoutManager layoutManager) {
+    this.recyclerView = recyclerView;
+    this.adapter = adapter;
+    this.layoutManager = layoutManager;
+  }
+
+  /**
+   * Start to listen scroll and loading of feed, called when view of feed is created.
+   */
+  public void attach() {
+    recyclerView.addOnScrollListener(this);
+    adapter.addOnPagesUpdatedListener(pagesUpdatedListener);
+  }
+
+  /**
+   * Stop to listen scroll and loading of feed and forget shown posts, called when view of feed is
+   * destroyed.
+   */
+  public void detach() {
+    recyclerView.removeOnScrollListener(this);
+    adapter.removeOnPagesUpdatedListener(pagesUpdatedListener);
+    recyclerView.removeCallbacks(check);
+    checkPosted = false;
+    visibleSince.clear();
+  }
+
+  @Override
+  public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+    super.onScrolled(recyclerView, dx, dy);
+    updateVisible();
+  }
+
+  private void updateVisible() {
+    int first = layoutManager.findFirstVisibleItemPosition();
+    int last = layoutManager.findLastVisibleItemPosition();
+    long now = SystemClock.elapsedRealtime();
+    visible.clear();
+    if (first != RecyclerView.NO_POSITION) {
+      for (int position = first; position <= last && position < adapter.getItemCount();
+          position++) {
+        TripView post = adapter.peek(position);
+        if (post != null) {
+          visible.add(post.getId());
+          if (!visibleSince.containsKey(post.getId())) {
+            visibleSince.put(post.getId(), now);
+          }
+        }
+      }
+    }
+    Iterator<Integer> ids = visibleSince.keySet().iterator();
+    while (ids.hasNext()) {
+      if (!visible.contains(ids.next())) {
+        ids.remove();
+      }
+    }
+    scheduleCheck(DWELL_MILLIS);
+  }
+
+  private void scheduleCheck(long delayMillis) {
+    if (!checkPosted && !visibleSince.isEmpty()) {
+      checkPosted = true;
+      recyclerView.postDelayed(check, delayMillis);
+    }
+  }
+
+  private void checkDwell() {
+    checkPosted = false;
+    User user = UsersRepository.getInstance().getLoggedUser();
+    if (!recyclerView.isAttachedToWindow() || user == null) {
+      return;
+    }
+    long now = SystemClock.elapsedRealtime();
+    long nextCheck = Long.MAX_VALUE;
+    for (Map.Entry<Integer, Long> entry : visibleSince.entrySet()) {
+      if (entry.getValue() == SPECULATED) {
+        continue;
+      }
+      long dwell = now - entry.getValue();
+      if (dwell >= DWELL_MILLIS) {
+        entry.setValue(SPECULATED);
+        loader.speculate(entry.getKey(), user.getToken());
+      } else {
+        nextCheck = Math.min(nextCheck, DWELL_MILLIS - dwell);
+      }
+    }
+    if (nextCheck != Long.MAX_VALUE) {
+      scheduleCheck(nextCheck);
+    }
+  }
+}
@@ -4,22 +4,18 @@ import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.Objects;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
+import kotlin.Unit;
 import ru.hse.goodtrip.MainActivity;
 import ru.hse.goodtrip.data.UsersRepository;
 import ru.hse.goodtrip.databinding.FragmentFeedBinding;
-import ru.hse.goodtrip.network.trips.model.TripView;
 
 public class FeedFragment extends Fragment {
 
@@ -27,14 +23,20 @@ public class FeedFragment extends Fragment {
   private FragmentFeedBinding binding;
 
   private FeedRecyclerViewHolder feedRecyclerViewHolder;
+  private FeedPrefetchController prefetchController;
+  private FeedDwellTracker dwellTracker;
+  private Integer shownError;
 
   @Override
   public void onResume() {
     super.onResume();
 
+    // The first page is loaded by the adapter itself, feed is refreshed only if it stayed empty,
+    // e.g. because user logged in since then.
+    FeedState state = feedViewModel.getFeedState().getValue();
     if (UsersRepository.getInstance().getLoggedUser() != null
-        && feedRecyclerViewHolder.feedAdapter.getItemCount() < 3) {
-      feedRecyclerViewHolder.refreshFeed(false);
+        && state != null && !state.isRefreshing() && state.isEmpty()) {
+      feedRecyclerViewHolder.refreshFeed();
     }
 
     Objects.requireNonNull(((MainActivity) requireActivity()).getSupportActionBar()).hide();
@@ -57,9 +59,38 @@ public class FeedFragment extends Fragment {
     return binding.getRoot();
   }
 
+  @Override
+  public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+    super.onViewCreated(view, savedInstanceState);
+    feedViewModel.getPosts().observe(getViewLifecycleOwner(),
+        posts -> feedRecyclerViewHolder.feedAdapter.submitData(
+            getViewLifecycleOwner().getLifecycle(), posts));
+    feedViewModel.getFeedState().observe(getViewLifecycleOwner(), this::showFeedState);
+    prefetchController = new FeedPrefetchController(binding.recyclerView,
+        feedRecyclerViewHolder.feedAdapter, feedRecyclerViewHolder.feedLayoutManager);
+    prefetchController.attach();
+    dwellTracker = new FeedDwellTracker(binding.recyclerView,
+        feedRecyclerViewHolder.feedAdapter, feedRecyclerViewHolder.feedLayoutManager);
+    dwellTracker.attach();
+  }
+
+  private void showFeedState(FeedState state) {
+    feedRecyclerViewHolder.isLoading = state.isRefreshing();
+    binding.emptyList.setVisibility(
+        !state.isRefreshing() && state.isEmpty() ? View.VISIBLE : View.GONE);
+    if (state.getError() != null && !Objects.equals(state.getError(), shownError)) {
+      Toast.makeText(requireContext(), state.getError(), Toast.LENGTH_SHORT).show();
+    }
+    shownError = state.getError();
+  }
+
   @Override
   public void onDestroyView() {
     super.onDestroyView();
+    prefetchController.detach();
+    prefetchController = null;
+    dwellTracker.detach();
+    dwellTracker = null;
     binding = null;
   }
 
@@ -76,12 +107,6 @@ public class FeedFragment extends Fragment {
       initializeLayoutManager();
       initializeAdapter();
       initializeScrollListener();
-
-      if (feedAdapter.getItemCount() == 0) {
-        binding.emptyList.setVisibility(View.VISIBLE);
-      } else {
-        binding.emptyList.setVisibility(View.GONE);
-      }
     }
 
 
@@ -94,84 +119,47 @@ public class FeedFragment extends Fragment {
     }
 
     /**
-     * Initialize data adapter for RecyclerView.
+     * Initialize data adapter for RecyclerView. Loading view is shown below posts while next page
+     * is loading, load states and shown pages are reported to FeedViewModel.
      */
     private void initializeAdapter() {
       feedAdapter = new FeedAdapter();
-      feedAdapter.setItems(feedViewModel.getPosts());
-      feedRecyclerView.setAdapter(feedAdapter);
+      feedAdapter.addLoadStateListener(loadStates -> {
+        feedViewModel.onLoadStatesChanged(loadStates, feedAdapter.getItemCount());
+        return Unit.INSTANCE;
+      });
+      feedAdapter.addOnPagesUpdatedListener(() -> {
+        feedViewModel.onPagesUpdated(feedAdapter.getItemCount());
+        return Unit.INSTANCE;
+      });
+      feedRecyclerView.setAdapter(feedAdapter.withLoadStateFooter(new FeedLoadStateAdapter()));
     }
 
 
     /**
-     * Initialize feed refreshing when scrolled to bottom of list.
+     * Initialize feed refreshing when scrolled to top of list. Next pages are loaded by the
+     * adapter when scrolled close to the end of loaded posts.
      */
     private void initializeScrollListener() {
       feedRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
-        @Override
-        public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
-          super.onScrollStateChanged(recyclerView, newState);
-        }
-
         @Override
         public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
           super.onScrolled(recyclerView, dx, dy);
-          if (!isLoading) {
-            if (dy < 0) { // scrolled up
-              if (feedLayoutManager.findFirstCompletelyVisibleItemPosition() == 0) {
-                isLoading = true;
-                refreshFeed(false);
-              }
-            } else { // scrolled down
-              if (feedLayoutManager.findLastCompletelyVisibleItemPosition()
-                  == feedAdapter.getItemCount() - 1
-                  && feedRecyclerViewHolder.feedAdapter.getItemCount() > 3) {
-                isLoading = true;
-                refreshFeed(true);
-              }
-            }
+          if (!isLoading && dy < 0
+              && feedLayoutManager.findFirstCompletelyVisibleItemPosition() == 0) {
+            refreshFeed();
           }
         }
       });
     }
 
     /**
-     * Refresh feed with FeedViewModel.
-     */
-    private void refreshFeed(boolean needToLoadNextPosts) {
-      ExecutorService executor = Executors.newCachedThreadPool();
-      feedAdapter.showLoadingView();
-      executor.execute(() -> {
-        if (!needToLoadNextPosts) {
-          feedViewModel.getTripRepository().resetAuthorTrips();
-        }
-        feedViewModel.getAuthorTrips(UsersRepository.getInstance().user.getId(),
-            UsersRepository.getInstance().user.getToken());
-        feedRecyclerView.postDelayed(() -> {
-              loadData();
-
-              feedAdapter.hideLoadingView();
-
-              isLoading = false;
-            }, 1000
-        );
-      });
-      executor.shutdown();
-      if (feedAdapter.getItemCount() == 0) {
-        binding.emptyList.setVisibility(View.VISIBLE);
-      } else {
-        binding.emptyList.setVisibility(View.GONE);
-      }
-    }
-
-    /**
-     * Update data with TripsRepository.
+     * Refresh feed from the server.
      */
-    public void loadData() {
-      feedAdapter.setItems(
-          feedViewModel.getPosts().stream().filter(Objects::nonNull).sorted(Comparator.comparing(
-              TripView::getPublicationTimestamp)).collect(Collectors.toList()));
-      Collections.reverse(feedAdapter.getItems());
+    private void refreshFeed() {
+      isLoading = true;
+      feedViewModel.onRefreshRequested();
+      feedAdapter.refresh();
     }
   }
 }
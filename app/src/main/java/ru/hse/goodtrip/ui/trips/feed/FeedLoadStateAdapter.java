@@ -0,0 +1,34 @@
+package ru.hse.goodtrip.ui.trips.feed;
+
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+import androidx.annotation.NonNull;
+import androidx.paging.LoadState;
+import androidx.paging.LoadStateAdapter;
+import ru.hse.goodtrip.databinding.FeedLoadingViewBinding;
+import ru.hse.goodtrip.ui.trips.feed.FeedViewHolders.FeedLoadingViewHolder;
+
+/**
+ * FeedLoadStateAdapter shows loading view below posts while next page is loading.
+ */
+public class FeedLoadStateAdapter extends LoadStateAdapter<FeedLoadingViewHolder> {
+
+  @NonNull
+  @Override
+  public FeedLoadingViewHolder onCreateViewHolder(@NonNull ViewGroup parent,
+      @NonNull LoadState loadState) {
+    FeedLoadingViewBinding binding = FeedLoadingViewBinding.inflate(
+        LayoutInflater.from(parent.getContext()), parent, false);
+    return new FeedLoadingViewHolder(binding);
+  }
+
+  @Override
+  public void onBindViewHolder(@NonNull FeedLoadingViewHolder viewHolder,
+      @NonNull LoadState loadState) {
+  }
+
+  @Override
+  public boolean displayLoadStateAsItem(@NonNull LoadState loadState) {
+    return loadState instanceof LoadState.Loading;
+  }
+}
@@ -0,0 +1,235 @@
+package ru.hse.goodtrip.ui.trips.feed;
+
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.CombinedLoadStates;
+import androidx.paging.LoadState;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import kotlin.Unit;
+import kotlin.jvm.functions.Function1;
+import ru.hse.goodtrip.data.feed.IntHashSet;
+import ru.hse.goodtrip.databinding.ItemPostTripBinding;
+import ru.hse.goodtrip.network.metrics.LatencyHistogram;
+import ru.hse.goodtrip.network.metrics.MetricsRegistry;
+import ru.hse.goodtrip.network.trips.model.TripView;
+import ru.hse.goodtrip.ui.trips.feed.FeedViewHolders.FeedPostViewHolder;
+import ru.hse.goodtrip.ui.trips.feed.utils.Utils;
+
+/**
+ * Requests the next page of feed when user is a few posts from the end, so that the page arrives
+ * before user reaches the end. The distance grows with scroll velocity and with measured time of
+ * loading of a page. Photos and avatars of posts below the visible ones are loaded into Glide
+ * cache in advance, at size of views of shown posts.
+ */
+public class FeedPrefetchController extends RecyclerView.OnScrollListener {
+
+  private static final String FEED_ENDPOINT = "GET /trip/authors_trips";
+  private static final int MIN_DISTANCE = 3;
+  private static final int MAX_DISTANCE = 40;
+  private static final int PRELOADED_POSTS = 4;
+  private static final int MAX_PRELOADED_IDS = 256;
+  private static final long DEFAULT_PAGE_MILLIS = 800;
+  private static final double SAFETY_FACTOR = 1.5;
+  private static final double SMOOTHING = 0.3;
+
+  private static final AtomicLong prefetches = new AtomicLong();
+  private static final AtomicLong tailVisits = new AtomicLong();
+  private static final AtomicLong emptyTailHits = new AtomicLong();
+
+  private final FeedAdapter adapter;
+  private final LinearLayoutManager layoutManager;
+  private final RecyclerView recyclerView;
+  private final IntHashSet preloaded = new IntHashSet(MAX_PRELOADED_IDS);
+  private final Function1<CombinedLoadStates, Unit> loadStateListener = loadStates -> {
+    onLoadStatesChanged(loadStates);
+    return Unit.INSTANCE;
+  };
+  private int lastPosition = RecyclerView.NO_POSITION;
+  private long lastScrollAt;
+  private double itemsPerSecond;
+  private double pageMillis = -1;
+  private long appendStartedAt;
+  private boolean appendLoading;
+  private boolean atTail;
+  private int hintedItemCount = -1;
+
+  /**
+   * Creates controller, it listens to scroll and loading of feed after {@link #attach()}.
+   *
+   * @param recyclerView  feed.
+   * @param adapter       adapter of posts.
+   * @param layoutManager layout manager of feed.
+   */
+  public FeedPrefetchController(RecyclerView recyclerView, FeedAdapter adapter,
+      LinearLayoutManager layoutManager) {
+    this.adapter = adapter;
+    this.layoutManager = layoutManager;
+    this.recyclerView = recyclerView;
+  }
+
+  /**
+   * Start to listen scroll and loading of feed, called when view of feed is created.
+   */
+  public void attach() {
+    recyclerView.addOnScrollListener(this);
+    adapter.addLoadStateListener(loadStateListener);
+  }
+
+  /**
+   * Stop to listen scroll and loading of feed, called when view of feed is destroyed.
+   */
+  public void detach() {
+    recyclerView.removeOnScrollListener(this);
+    adapter.removeLoadStateListener(loadStateListener);
+  }
+
+  /**
+   * Text report of prefetching.
+   *
+   * @return report.
+   */
+  public static String getReport() {
+    long visits = tailVisits.get();
+    long hits = emptyTailHits.get();
+    return String.format(Locale.US,
+        "feed prefetches=%d tail visits=%d empty tail hits=%d (%.1f%%)", prefetches.get(),
+        visits, hits, visits == 0 ? 0.0 : 100.0 * hits / visits);
+  }
+
+  /**
+   * Number of times user reached the end of loaded posts while the next page was loading.
+   *
+   * @return number of hits.
+   */
+  public static long getEmptyTailHits() {
+    return emptyTailHits.get();
+  }
+
+  private void onLoadStatesChanged(CombinedLoadStates loadStates) {
+    boolean loading = loadStates.getAppend() instanceof LoadState.Loading;
+    long now = SystemClock.elapsedRealtime();
+    if (loading && !appendLoading) {
+      appendStartedAt = now;
+    } else if (!loading && appendLoading
+        && loadStates.getAppend() instanceof LoadState.NotLoading) {
+      double millis = now - appendStartedAt;
+      pageMillis = pageMillis < 0 ? millis : pageMillis + SMOOTHING * (millis - pageMillis);
+    }
+    appendLoading = loading;
+    if (loadStates.getRefresh() instanceof LoadState.Loading) {
+      preloaded.clear();
+      hintedItemCount = -1;
+    }
+  }
+
+  /**
+   * Time of loading of the next page: measured by this controller, or 90th percentile of latency
+   * of the feed endpoint until the first page is appended.
+   */
+  private double getPageMillis() {
+    if (pageMillis >= 0) {
+      return pageMillis;
+    }
+    LatencyHistogram latency = MetricsRegistry.getInstance().endpoint(FEED_ENDPOINT)
+        .getLatency();
+    return latency.getCount() == 0 ? DEFAULT_PAGE_MILLIS
+        : latency.getPercentileMicros(90) / 1000.0;
+  }
+
+  /**
+   * Number of posts from the end of loaded posts at which the next page is requested.
+   *
+   * @return distance in posts.
+   */
+  public int getPrefetchDistance() {
+    int distance = MIN_DISTANCE
+        + (int) Math.ceil(itemsPerSecond * getPageMillis() / 1000 * SAFETY_FACTOR);
+    return Math.min(distance, MAX_DISTANCE);
+  }
+
+  @Override
+  public void onScrollStateChanged(@NonNull RecyclerView recyclerView, int newState) {
+    super.onScrollStateChanged(recyclerView, newState);
+    if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+      // Pause between scrolls is not counted as slow scrolling.
+      lastPosition = RecyclerView.NO_POSITION;
+    }
+  }
+
+  @Override
+  public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+    super.onScrolled(recyclerView, dx, dy);
+    int last = layoutManager.findLastVisibleItemPosition();
+    if (last == RecyclerView.NO_POSITION) {
+      return;
+    }
+    updateVelocity(last);
+    int itemCount = adapter.getItemCount();
+    if (itemCount == 0) {
+      return;
+    }
+    boolean reachedTail = last >= itemCount - 1;
+    if (reachedTail && !atTail) {
+      tailVisits.incrementAndGet();
+      if (appendLoading) {
+        emptyTailHits.incrementAndGet();
+      }
+    }
+    atTail = reachedTail;
+    if (dy > 0 && last >= itemCount - 1 - getPrefetchDistance()
+        && itemCount != hintedItemCount) {
+      hintedItemCount = itemCount;
+      prefetches.incrementAndGet();
+      // Access to the last post tells Paging that it is about to be shown, so it appends a page.
+      adapter.getItem(itemCount - 1);
+    }
+    preloadImages(last + 1, Math.min(last + 1 + PRELOADED_POSTS, itemCount));
+  }
+
+  private void updateVelocity(int position) {
+    long now = SystemClock.elapsedRealtime();
+    if (lastPosition != RecyclerView.NO_POSITION && now > lastScrollAt) {
+      double velocity = Math.max(0, position - lastPosition) * 1000.0 / (now - lastScrollAt);
+      itemsPerSecond += SMOOTHING * (velocity - itemsPerSecond);
+    }
+    lastPosition = position;
+    lastScrollAt = now;
+  }
+
+  /**
+   * Binding of any shown post, its views have the same size as views of posts below.
+   */
+  @Nullable
+  private ItemPostTripBinding findShownPost() {
+    for (int i = 0; i < recyclerView.getChildCount(); i++) {
+      RecyclerView.ViewHolder holder = recyclerView.getChildViewHolder(
+          recyclerView.getChildAt(i));
+      if (holder instanceof FeedPostViewHolder) {
+        return ((FeedPostViewHolder) holder).getBinding();
+      }
+    }
+    return null;
+  }
+
+  private void preloadImages(int from, int to) {
+    if (preloaded.size() > MAX_PRELOADED_IDS) {
+      preloaded.clear();
+    }
+    ItemPostTripBinding shown = findShownPost();
+    if (shown == null) {
+      return;
+    }
+    for (int position = from; position < to; position++) {
+      TripView post = adapter.peek(position);
+      if (post == null || !preloaded.add(post.getId())) {
+        continue;
+      }
+      Utils.preloadImageByUrl(shown.postImageView, post.getMainPhotoUrl());
+      Utils.preloadImageByUrlCropped(shown.profileImageView, post.getUserMainPhotoUrl());
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package ru.hse.goodtrip.ui.trips.feed;
+
+import androidx.annotation.Nullable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * FeedState describes loading of feed shown to user.
+ */
+@Getter
+@AllArgsConstructor
+class FeedState {
+
+  private final boolean refreshing;
+  private final boolean appending;
+  private final boolean endReached;
+  private final boolean empty;
+  @Nullable
+  private final Integer error;
+}
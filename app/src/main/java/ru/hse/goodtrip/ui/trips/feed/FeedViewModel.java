@@ -1,59 +1,138 @@
 package ru.hse.goodtrip.ui.trips.feed;
 
-import android.util.Log;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
 import androidx.lifecycle.ViewModel;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.CombinedLoadStates;
+import androidx.paging.LoadState;
+import androidx.paging.LoadStates;
+import androidx.paging.PagingData;
+import androidx.paging.PagingDataTransforms;
+import androidx.paging.PagingLiveData;
+import java.util.Locale;
 import lombok.Getter;
+import ru.hse.goodtrip.R;
+import ru.hse.goodtrip.data.FeedRemoteMediator;
 import ru.hse.goodtrip.data.TripRepository;
-import ru.hse.goodtrip.data.model.Result;
+import ru.hse.goodtrip.executors.AppExecutors;
+import ru.hse.goodtrip.network.metrics.LatencyHistogram;
 import ru.hse.goodtrip.network.trips.model.TripView;
 
 /**
- * ViewModel that provides posts to Feed.
+ * ViewModel that provides posts to Feed. Posts are paged from local storage, only pages around
+ * the visible position are held in memory. State of loading is published as soon as pages are
+ * loaded, together with time from start of loading to the first shown post.
  */
-@Getter
 public class FeedViewModel extends ViewModel {
 
+  /**
+   * Time to the first post shown, which may be cached one.
+   */
+  private static final LatencyHistogram timeToFirstPost = new LatencyHistogram();
+  /**
+   * Time to the first post shown after the server answered.
+   */
+  private static final LatencyHistogram timeToFreshPost = new LatencyHistogram();
+
   private final TripRepository tripRepository = TripRepository.getInstance();
+  private final AppExecutors executors = AppExecutors.getInstance();
   @Getter
-  private List<TripView> posts;
+  private final LiveData<PagingData<TripView>> posts;
+  private final MutableLiveData<FeedState> feedState = new MutableLiveData<>(
+      new FeedState(true, false, false, true, null));
+  private long loadingStartedAt = System.nanoTime();
+  private boolean firstPostShown;
+  private boolean freshPostShown;
+  private boolean serverRefreshing;
+  private boolean refreshed;
 
   /**
    * Initialize FeedViewModel.
    */
   public FeedViewModel() {
-    posts = new ArrayList<>();
+    posts = PagingLiveData.cachedIn(Transformations.map(
+            PagingLiveData.getLiveData(tripRepository.getFeedPager()),
+            pagingData -> PagingDataTransforms.map(pagingData, executors.cpu(),
+                FeedRemoteMediator::getTripViewFromFeedPost)),
+        ViewModelKt.getViewModelScope(this));
+  }
+
+  /**
+   * State of feed, it is changed only by this ViewModel.
+   *
+   * @return state of feed.
+   */
+  public LiveData<FeedState> getFeedState() {
+    return feedState;
+  }
+
+  /**
+   * Text report of time to the first post.
+   *
+   * @return report.
+   */
+  public static String getReport() {
+    return String.format(Locale.US,
+        "feed first post: n=%d p50=%dms p90=%dms, fresh post: n=%d p50=%dms p90=%dms",
+        timeToFirstPost.getCount(), timeToFirstPost.getPercentileMicros(50) / 1000,
+        timeToFirstPost.getPercentileMicros(90) / 1000, timeToFreshPost.getCount(),
+        timeToFreshPost.getPercentileMicros(50) / 1000,
+        timeToFreshPost.getPercentileMicros(90) / 1000);
+  }
+
+  /**
+   * Start measuring time to the first post, called when user refreshes feed.
+   */
+  public void onRefreshRequested() {
+    loadingStartedAt = System.nanoTime();
+    firstPostShown = false;
+    freshPostShown = false;
+    refreshed = false;
+  }
+
+  /**
+   * Update feed state with load states of feed adapter.
+   *
+   * @param loadStates load states.
+   * @param itemCount  number of shown posts.
+   */
+  public void onLoadStatesChanged(CombinedLoadStates loadStates, int itemCount) {
+    LoadState refresh = loadStates.getRefresh();
+    LoadState append = loadStates.getAppend();
+    LoadStates mediator = loadStates.getMediator();
+    if (mediator != null) {
+      boolean refreshing = mediator.getRefresh() instanceof LoadState.Loading;
+      if (serverRefreshing && mediator.getRefresh() instanceof LoadState.NotLoading) {
+        refreshed = true;
+      }
+      serverRefreshing = refreshing;
+    }
+    Integer error = refresh instanceof LoadState.Error || append instanceof LoadState.Error
+        ? R.string.feed_load_failed : null;
+    feedState.setValue(new FeedState(refresh instanceof LoadState.Loading,
+        append instanceof LoadState.Loading, append.getEndOfPaginationReached(),
+        itemCount == 0, error));
   }
 
   /**
-   * Get all trips of authors.
+   * Record time to the first post, called when new pages are shown.
    *
-   * @param userId user Id.
-   * @param token  users token.
-   */
-  public void getAuthorTrips(Integer userId, String token) {
-    CompletableFuture<Result<List<
-        ru.hse.goodtrip.network.trips.model.TripView>>> future =
-        tripRepository.getAuthorsTrips(
-            userId, token);
-    Log.d(FeedViewModel.class.getName(),
-        "Completable future is accepted");
-    try {
-      future.whenCompleteAsync((result, exception) -> {
-        Log.d(FeedViewModel.class.getName(),
-            "Async handling of result is happening: " + result + " exception: " + exception);
-        if (result.isSuccess()) {
-          posts = ((Result.Success<List<TripView>>) result)
-              .getData();
-        }
-      }).get();
-    } catch (InterruptedException e) {
-      Log.e(this.getClass().getName(), "InterruptedException happened in trips getting: " + e);
-    } catch (ExecutionException e) {
-      Log.e(this.getClass().getName(), "ExecutionException happened in trips getting: " + e);
+   * @param itemCount number of shown posts.
+   */
+  public void onPagesUpdated(int itemCount) {
+    if (itemCount == 0) {
+      return;
+    }
+    long elapsed = System.nanoTime() - loadingStartedAt;
+    if (!firstPostShown) {
+      firstPostShown = true;
+      timeToFirstPost.recordNanos(elapsed);
+    }
+    if (refreshed && !freshPostShown) {
+      freshPostShown = true;
+      timeToFreshPost.recordNanos(elapsed);
     }
   }
-}
\ No newline at end of file
+}
@@ -49,13 +49,22 @@ public class PostDetailsFragment extends Fragment {
       Bundle savedInstanceState) {
     binding = FragmentPostDetailsBinding.inflate(inflater, container, false);
     postViewModel = new ViewModelProvider(requireActivity()).get(PostViewModel.class);
-    trip = postViewModel.getTrip().getValue();
+    trip = null;
     return binding.getRoot();
   }
 
-  @SuppressLint("SetTextI18n")
   @Override
   public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+    postViewModel.getTrip().observe(getViewLifecycleOwner(), trip -> {
+      if (trip != null && trip != this.trip) {
+        this.trip = trip;
+        showTrip();
+      }
+    });
+  }
+
+  @SuppressLint("SetTextI18n")
+  private void showTrip() {
     String dateFormat = "dd.MM.yyyy";
 
     setImageByUrlCropped(binding.profileImageView,
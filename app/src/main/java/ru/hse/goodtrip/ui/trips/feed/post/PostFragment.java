@@ -16,9 +16,11 @@ import com.google.android.material.bottomnavigation.BottomNavigationView;
 import java.util.Objects;
 import ru.hse.goodtrip.MainActivity;
 import ru.hse.goodtrip.R;
+import ru.hse.goodtrip.data.model.Result;
 import ru.hse.goodtrip.data.model.trips.Trip;
 import ru.hse.goodtrip.databinding.FragmentPostBinding;
-import ru.hse.goodtrip.ui.trips.feed.FeedAdapter;
+import ru.hse.goodtrip.executors.AppExecutors;
+import ru.hse.goodtrip.navigation.TripHandoff;
 
 /**
  * Shared layout for PostDetailsFragment and PostNotesFragment. Provide transferred Trip to
@@ -52,9 +54,17 @@ public class PostFragment extends Fragment {
     binding = FragmentPostBinding.inflate(inflater, container, false);
     Bundle args = getArguments();
     if (args != null) {
-      Trip trip = (Trip) args.get(FeedAdapter.POST_ARG);
       postViewModel = new ViewModelProvider(requireActivity()).get(PostViewModel.class);
+      TripHandoff handoff = TripHandoff.getInstance();
+      Trip trip = handoff.peek(args);
       postViewModel.setTrip(trip);
+      if (trip == null) {
+        handoff.resolve(args).thenAcceptAsync(result -> {
+          if (result.isSuccess()) {
+            postViewModel.setTrip(((Result.Success<Trip>) result).getData());
+          }
+        }, AppExecutors.getInstance().mainThread());
+      }
     }
 
     return binding.getRoot();
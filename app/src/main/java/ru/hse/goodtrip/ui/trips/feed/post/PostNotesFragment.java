@@ -41,12 +41,21 @@ public class PostNotesFragment extends Fragment {
       Bundle savedInstanceState) {
     binding = FragmentPostNotesBinding.inflate(inflater, container, false);
     postViewModel = new ViewModelProvider(requireActivity()).get(PostViewModel.class);
-    trip = postViewModel.getTrip().getValue();
+    trip = null;
     return binding.getRoot();
   }
 
   @Override
   public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+    postViewModel.getTrip().observe(getViewLifecycleOwner(), trip -> {
+      if (trip != null && trip != this.trip) {
+        this.trip = trip;
+        showNotes();
+      }
+    });
+  }
+
+  private void showNotes() {
     LinearLayout notes = binding.notes;
     if (trip.getNotes().isEmpty()) {
       binding.noNotes.setVisibility(View.VISIBLE);
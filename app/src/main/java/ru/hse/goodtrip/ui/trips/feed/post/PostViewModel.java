@@ -7,7 +7,8 @@ import lombok.Setter;
 import ru.hse.goodtrip.data.model.trips.Trip;
 
 /**
- * ViewModel that provides trip to PostDetails and PostNotes fragments.
+ * ViewModel that provides trip to PostDetails and PostNotes fragments. Trip may be set after
+ * fragments are created, when it is resolved after restart of process.
  */
 @Getter
 @Setter
@@ -16,6 +17,6 @@ public class PostViewModel extends ViewModel {
   private MutableLiveData<Trip> trip = new MutableLiveData<>();
 
   public void setTrip(Trip trip) {
-    this.trip = new MutableLiveData<>(trip);
+    this.trip.setValue(trip);
   }
 }
@@ -1,9 +1,11 @@
 package ru.hse.goodtrip.ui.trips.feed.utils;
 
+import android.graphics.drawable.Drawable;
 import android.net.Uri;
 import android.widget.ImageView;
 import androidx.annotation.Nullable;
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
 import java.net.URL;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -87,6 +89,67 @@ public class Utils {
     }
   }
 
+  /**
+   * Load image by URL into Glide cache as {@link #setImageByUrl(ImageView, String, int)} would
+   * load it into imageView, so that it is shown from memory when it is set.
+   *
+   * @param imageView view of the same layout as view where photo will be displayed
+   * @param photoUrl  photo url
+   */
+  public static void preloadImageByUrl(ImageView imageView, @Nullable String photoUrl) {
+    if (photoUrl != null && !photoUrl.trim().isEmpty()) {
+      preload(imageView, fitScaleType(imageView,
+          Glide.with(imageView.getContext()).load(Uri.parse(photoUrl))));
+    }
+  }
+
+  /**
+   * Load cropped image by URL into Glide cache as
+   * {@link #setImageByUrlCropped(ImageView, String, int)} would load it into imageView.
+   *
+   * @param imageView view of the same layout as view where photo will be displayed
+   * @param photoUrl  photo url
+   */
+  public static void preloadImageByUrlCropped(ImageView imageView, @Nullable String photoUrl) {
+    if (photoUrl != null && !photoUrl.trim().isEmpty()) {
+      preload(imageView, Glide.with(imageView.getContext()).load(Uri.parse(photoUrl))
+          .circleCrop());
+    }
+  }
+
+  /**
+   * Preload image at size of imageView. Glide caches images by size and transformations, so
+   * image preloaded at other size is decoded again when it is shown.
+   */
+  private static void preload(ImageView imageView, RequestBuilder<Drawable> request) {
+    int width = imageView.getWidth() - imageView.getPaddingLeft() - imageView.getPaddingRight();
+    int height = imageView.getHeight() - imageView.getPaddingTop()
+        - imageView.getPaddingBottom();
+    if (width > 0 && height > 0) {
+      request.preload(width, height);
+    }
+  }
+
+  /**
+   * Transformation which Glide applies by scale type of imageView when image is loaded into it.
+   */
+  private static RequestBuilder<Drawable> fitScaleType(ImageView imageView,
+      RequestBuilder<Drawable> request) {
+    switch (imageView.getScaleType()) {
+      case CENTER_CROP:
+        return request.optionalCenterCrop();
+      case CENTER_INSIDE:
+      case FIT_XY:
+        return request.optionalCenterInside();
+      case FIT_CENTER:
+      case FIT_START:
+      case FIT_END:
+        return request.optionalFitCenter();
+      default:
+        return request;
+    }
+  }
+
   /**
    * Return trip duration in "start - end" format.
    *
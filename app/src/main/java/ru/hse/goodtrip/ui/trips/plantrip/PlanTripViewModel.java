@@ -13,18 +13,18 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 import lombok.Getter;
 import ru.hse.goodtrip.R;
+import ru.hse.goodtrip.data.PlaceRegistry;
 import ru.hse.goodtrip.data.TripRepository;
 import ru.hse.goodtrip.data.UsersRepository;
 import ru.hse.goodtrip.data.model.User;
 import ru.hse.goodtrip.data.model.trips.City;
-import ru.hse.goodtrip.data.model.trips.Coordinates;
 import ru.hse.goodtrip.data.model.trips.Country;
 import ru.hse.goodtrip.data.model.trips.CountryVisit;
+import ru.hse.goodtrip.executors.AppExecutors;
+import ru.hse.goodtrip.network.trips.model.AddCountryRequest;
 import ru.hse.goodtrip.network.trips.model.AddTripRequest;
 import ru.hse.goodtrip.network.trips.model.TripState;
 
@@ -34,6 +34,7 @@ import ru.hse.goodtrip.network.trips.model.TripState;
 public class PlanTripViewModel extends ViewModel {
 
   private final TripRepository tripRepository = TripRepository.getInstance();
+  private final AppExecutors executors = AppExecutors.getInstance();
   @Getter
   private final MutableLiveData<PlanTripFormState> planTripFormState = new MutableLiveData<>();
   List<CountryVisit> countries = new ArrayList<>();
@@ -100,26 +101,29 @@ public class PlanTripViewModel extends ViewModel {
       planTripFormState.setValue(new PlanTripFormState(null, null, null, null, null, null));
     } else {
       planTripFormState.setValue(new PlanTripFormState(true));
-      ExecutorService executorService = Executors.newSingleThreadExecutor();
-      executorService.submit(() -> {
-        Log.d(this.getClass().getName(), "Trip addition started to happen.");
-        tripRepository.addTrip(
+      Log.d(this.getClass().getName(), "Trip addition started to happen.");
+      List<CompletableFuture<AddCountryRequest>> countryRequests = new ArrayList<>();
+      for (CountryVisit countryVisit : countries) {
+        countryRequests.add(TripRepository.getAddCountryRequestFromCountryVisit(countryVisit));
+      }
+      CompletableFuture.allOf(countryRequests.toArray(new CompletableFuture[0]))
+          .thenComposeAsync(ignored -> {
+            List<AddCountryRequest> countryVisits = new ArrayList<>(countryRequests.size());
+            for (CompletableFuture<AddCountryRequest> countryRequest : countryRequests) {
+              countryVisits.add(countryRequest.join());
+            }
+            return tripRepository.addTrip(
                 UsersRepository.getInstance().user.getId(),
                 UsersRepository.getInstance().user.getToken(),
                 new AddTripRequest(name, Integer.parseInt(moneyInUsd), mainPhotoUrl,
                     parseDate(startTripDate), parseDate(endTripDate),
-                    TripState.PLANNED, Collections.emptyList(),
-                    countries
-                        .stream()
-                        .map(TripRepository::getAddCountryRequestFromCountryVisit)
-                        .collect(Collectors.toList())))
-            .whenCompleteAsync((result, throwable) -> Log.d(this.getClass().getSimpleName(),
-                "Trip is planning, userId is: " + UsersRepository.getInstance().user.getId()))
-            .thenRunAsync(() -> tripRepository.getUserTrips(user.getId(), user.getToken()))
-            .thenRunAsync(() -> tripRepository.getAuthorsTrips(user.getId(), user.getToken()));
-        Log.d(this.getClass().getName(), "Trip addition ended.");
-      });
-      executorService.shutdown();
+                    TripState.PLANNED, Collections.emptyList(), countryVisits));
+          }, executors.cpu())
+          .whenCompleteAsync((result, throwable) -> Log.d(this.getClass().getSimpleName(),
+              "Trip is planning, userId is: " + UsersRepository.getInstance().user.getId()),
+              executors.cpu())
+          .thenRunAsync(() -> tripRepository.getUserTrips(user.getId(), user.getToken()),
+              executors.cpu());
     }
   }
 
@@ -169,10 +173,11 @@ public class PlanTripViewModel extends ViewModel {
    * @param citiesName  name of cities.
    */
   public void addCountry(String countryName, List<String> citiesName) {
-    Country country = new Country(countryName, new Coordinates(0, 0));
-    List<City> cities = new ArrayList<>();
+    PlaceRegistry places = PlaceRegistry.getInstance();
+    Country country = places.country(countryName);
+    List<City> cities = new ArrayList<>(citiesName.size());
     for (String cityName : citiesName) {
-      cities.add(new City(cityName, new Coordinates(0, 0), country));
+      cities.add(places.city(cityName, PlaceRegistry.UNKNOWN_COORDINATES, country));
     }
     CountryVisit countryVisit = new CountryVisit(country, cities);
     countries.add(countryVisit);
@@ -0,0 +1,85 @@
+package ru.hse.goodtrip;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.function.IntFunction;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Small benchmark harness for unit tests, since JMH is not set up for the Android module. Body is
+ * run in warmup rounds and then in measured rounds, the best round is reported as time and bytes
+ * allocated by current thread per operation. Bytes are read from HotSpot thread MXBean, they are
+ * -1 on JVMs which don't count allocations.
+ */
+public final class Benchmark {
+
+  private static final int WARMUP_ROUNDS = 10;
+  private static final int ROUNDS = 10;
+  private static volatile Object sink;
+
+  private Benchmark() {
+  }
+
+  /**
+   * Keep result of benchmark body, so that it isn't optimized away.
+   *
+   * @param value result.
+   */
+  public static void consume(Object value) {
+    sink = value;
+  }
+
+  private static long allocatedBytes() {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+      return -1;
+    }
+    return ((com.sun.management.ThreadMXBean) bean)
+        .getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * Measure body.
+   *
+   * @param name       name printed with result.
+   * @param operations number of operations done by one run of body.
+   * @param body       body, gets number of round and returns its result.
+   * @return best result of measured rounds.
+   */
+  public static Result measure(String name, int operations, IntFunction<Object> body) {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      consume(body.apply(i));
+    }
+    double bestNanos = Double.MAX_VALUE;
+    double bestBytes = Double.MAX_VALUE;
+    for (int i = 0; i < ROUNDS; i++) {
+      long bytes = allocatedBytes();
+      long start = System.nanoTime();
+      consume(body.apply(WARMUP_ROUNDS + i));
+      long nanos = System.nanoTime() - start;
+      bytes = bytes < 0 ? -1 : allocatedBytes() - bytes;
+      bestNanos = Math.min(bestNanos, (double) nanos / operations);
+      bestBytes = Math.min(bestBytes, bytes < 0 ? -1 : (double) bytes / operations);
+    }
+    Result result = new Result(bestNanos, bestBytes);
+    System.out.printf(Locale.US, "%s: %.1f ns/op, %.1f B/op%n", name, bestNanos, bestBytes);
+    return result;
+  }
+
+  /**
+   * Result of benchmark.
+   */
+  @Getter
+  @AllArgsConstructor
+  public static class Result {
+
+    private final double nanosPerOperation;
+    private final double bytesPerOperation;
+
+    public boolean hasAllocations() {
+      return bytesPerOperation >= 0;
+    }
+  }
+}
@@ -0,0 +1,163 @@
+package ru.hse.goodtrip.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import ru.hse.goodtrip.data.model.trips.AbstractPlace;
+import ru.hse.goodtrip.data.model.trips.City;
+import ru.hse.goodtrip.data.model.trips.Coordinates;
+import ru.hse.goodtrip.data.model.trips.Country;
+import ru.hse.goodtrip.data.model.trips.CountryVisit;
+import ru.hse.goodtrip.data.model.trips.Note;
+import ru.hse.goodtrip.data.model.trips.Trip;
+import ru.hse.goodtrip.network.trips.model.CityVisit;
+import ru.hse.goodtrip.network.trips.model.TripState;
+
+public class PlaceRegistryTest {
+
+  private static final int TRIPS = 300;
+  private static final int COUNTRIES = 20;
+  private static final int CITIES_PER_COUNTRY = 5;
+  private static final int VISITS_PER_TRIP = 3;
+
+  /**
+   * Trips of a user who visits the same countries again and again. Every trip is decoded from its
+   * own response, so names and points are distinct objects like after JSON parsing.
+   */
+  private static List<ru.hse.goodtrip.network.trips.model.Trip> responses() {
+    List<ru.hse.goodtrip.network.trips.model.Trip> trips = new ArrayList<>(TRIPS);
+    for (int id = 0; id < TRIPS; id++) {
+      List<ru.hse.goodtrip.network.trips.model.CountryVisit> visits = new ArrayList<>();
+      for (int v = 0; v < VISITS_PER_TRIP; v++) {
+        int country = (id + v * 7) % COUNTRIES;
+        List<CityVisit> cities = new ArrayList<>();
+        for (int c = 0; c < CITIES_PER_COUNTRY; c++) {
+          cities.add(new CityVisit(null, new String("City " + country + "-" + c),
+              new Coordinates(country + 1, c + 1), null));
+        }
+        visits.add(new ru.hse.goodtrip.network.trips.model.CountryVisit(null,
+            new String("Country " + country), cities, id));
+      }
+      trips.add(new ru.hse.goodtrip.network.trips.model.Trip(id, 1, "Trip " + id, 100, null,
+          new Date(1_700_000_000_000L), new Date(1_700_600_000_000L),
+          new Timestamp(1_700_700_000_000L), TripState.PUBLISHED, Collections.singletonList(
+          new ru.hse.goodtrip.network.trips.model.Note(id, "Note", null,
+              new String("Country " + id % COUNTRIES), "Text", id)), visits));
+    }
+    return trips;
+  }
+
+  /**
+   * Counts distinct place objects held by trips: places, their coordinates and names.
+   */
+  private static int countPlaceObjects(List<Trip> trips) {
+    Map<Object, Boolean> objects = new IdentityHashMap<>();
+    for (Trip trip : trips) {
+      for (CountryVisit visit : trip.getCountries()) {
+        addPlace(objects, visit.getCountry());
+        for (City city : visit.getVisitedCities()) {
+          addPlace(objects, city);
+          addPlace(objects, city.getCountry());
+        }
+      }
+      for (Note note : trip.getNotes()) {
+        addPlace(objects, note.getPlace());
+      }
+    }
+    return objects.size();
+  }
+
+  private static void addPlace(Map<Object, Boolean> objects, AbstractPlace place) {
+    objects.put(place, true);
+    objects.put(place.getName(), true);
+    objects.put(place.getCoordinates(), true);
+  }
+
+  @Test
+  public void sharesPlacesAcrossTrips() {
+    PlaceRegistry registry = new PlaceRegistry();
+    List<Trip> trips = new TripMapper(ZoneId.of("UTC"), null, registry).mapAll(responses());
+
+    assertEquals(COUNTRIES + COUNTRIES * CITIES_PER_COUNTRY, registry.size());
+    int shared = countPlaceObjects(trips);
+    // Each place holds itself, its name and its coordinates. Country is placed at its first city,
+    // so they share coordinates object.
+    assertEquals(3 * registry.size() - COUNTRIES, shared);
+
+    // Without registry every visit of every trip holds its own places.
+    int visits = TRIPS * VISITS_PER_TRIP;
+    int unshared = 3 * (visits + visits * CITIES_PER_COUNTRY + TRIPS);
+    assertTrue("shared " + shared + " of " + unshared, shared * 10 < unshared);
+  }
+
+  @Test
+  public void keysByTrimmedName() {
+    PlaceRegistry registry = new PlaceRegistry();
+    Country france = registry.country("France");
+    assertSame(france, registry.country(" France "));
+    assertSame(registry.city("Paris", PlaceRegistry.UNKNOWN_COORDINATES, france),
+        registry.city("Paris ", PlaceRegistry.UNKNOWN_COORDINATES, france));
+    assertNotSame(registry.city("Paris", PlaceRegistry.UNKNOWN_COORDINATES, france),
+        registry.city("Paris", PlaceRegistry.UNKNOWN_COORDINATES, registry.country("Texas")));
+  }
+
+  @Test
+  public void keepsCaseOfPlaceIds() {
+    PlaceRegistry registry = new PlaceRegistry();
+    Country place = registry.country("ChIJD7fiBh9u5kcRYJSMaMOCCwQ");
+    Country other = registry.country("ChIJd7fiBh9u5kcRYJSMaMOCCwQ");
+    assertNotSame(place, other);
+    assertEquals("ChIJd7fiBh9u5kcRYJSMaMOCCwQ", other.getName());
+  }
+
+  @Test
+  public void keepsPlacesOfSameNameAtOtherCoordinates() {
+    PlaceRegistry registry = new PlaceRegistry();
+    Coordinates france = new Coordinates(46.2, 2.2);
+    Coordinates texas = new Coordinates(31.0, -100.0);
+    Country first = registry.country("Paris", france);
+    Country second = registry.country("Paris", texas);
+    assertNotSame(first, second);
+    assertEquals(france, first.getCoordinates());
+    assertEquals(texas, second.getCoordinates());
+    assertSame(first, registry.country("Paris", new Coordinates(46.2, 2.2)));
+    assertSame(second, registry.country("Paris", texas));
+    assertEquals(2, registry.size());
+
+    Country country = registry.country("France", france);
+    City paris = registry.city("Paris", new Coordinates(48.9, 2.4), country);
+    City fake = registry.city("Paris", new Coordinates(45.0, 3.0), country);
+    assertNotSame(paris, fake);
+    assertSame(paris, registry.city("Paris", new Coordinates(48.9, 2.4), country));
+  }
+
+  @Test
+  public void resolvesUnknownCoordinates() {
+    PlaceRegistry registry = new PlaceRegistry();
+    Country unknown = registry.country("Japan");
+    Coordinates tokyo = new Coordinates(35.7, 139.7);
+    Country resolved = registry.country("Japan", tokyo);
+    assertNotSame(unknown, resolved);
+    assertEquals(tokyo, resolved.getCoordinates());
+    assertSame(resolved, registry.country("Japan"));
+    Coordinates osaka = new Coordinates(34.7, 135.5);
+    assertEquals(osaka, registry.country("Japan", osaka).getCoordinates());
+    assertSame(resolved, registry.country("Japan"));
+    // Place with unknown coordinates is replaced, not kept besides resolved one.
+    assertEquals(2, registry.size());
+
+    City city = registry.city("Kyoto", new Coordinates(35.0, 135.8), resolved);
+    assertSame(city, registry.city("Kyoto", PlaceRegistry.UNKNOWN_COORDINATES, resolved));
+  }
+}
@@ -0,0 +1,70 @@
+package ru.hse.goodtrip.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+import ru.hse.goodtrip.data.model.Result;
+
+public class RequestCoalescerTest {
+
+  private static final int ROUNDS = 20_000;
+
+  @Test
+  public void sharesRequestUntilLastCallerCancels() {
+    RequestCoalescer coalescer = new RequestCoalescer(0);
+    List<CompletableFuture<Result<String>>> requests = new ArrayList<>();
+
+    CompletableFuture<Result<String>> first = coalescer.coalesce("key", () -> {
+      CompletableFuture<Result<String>> request = new CompletableFuture<>();
+      requests.add(request);
+      return request;
+    });
+    CompletableFuture<Result<String>> second = coalescer.coalesce("key", () -> {
+      throw new AssertionError("Request is shared");
+    });
+    assertEquals(1, coalescer.getHitCount());
+
+    first.cancel(true);
+    assertFalse(requests.get(0).isCancelled());
+    second.cancel(true);
+    assertTrue(requests.get(0).isCancelled());
+
+    coalescer.coalesce("key", () -> {
+      CompletableFuture<Result<String>> request = new CompletableFuture<>();
+      requests.add(request);
+      return request;
+    });
+    assertEquals(2, requests.size());
+    assertNotSame(requests.get(0), requests.get(1));
+  }
+
+  @Test
+  public void callerWhoJoinsWhileLastCallerCancelsIsNotCancelled() throws InterruptedException {
+    RequestCoalescer coalescer = new RequestCoalescer(0);
+    for (int round = 0; round < ROUNDS; round++) {
+      String key = "key" + round;
+      CompletableFuture<Result<String>> leaving = coalescer.coalesce(key,
+          CompletableFuture::new);
+      CountDownLatch start = new CountDownLatch(1);
+      Thread canceller = new Thread(() -> {
+        start.countDown();
+        leaving.cancel(true);
+      });
+      canceller.start();
+      start.await();
+      CompletableFuture<Result<String>> joining = coalescer.coalesce(key,
+          CompletableFuture::new);
+      canceller.join();
+
+      assertFalse("Round " + round, joining.isDone());
+      joining.cancel(true);
+    }
+  }
+}
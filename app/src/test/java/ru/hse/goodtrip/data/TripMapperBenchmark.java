@@ -0,0 +1,175 @@
+package ru.hse.goodtrip.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import ru.hse.goodtrip.Benchmark;
+import ru.hse.goodtrip.data.model.trips.AbstractPlace;
+import ru.hse.goodtrip.data.model.trips.City;
+import ru.hse.goodtrip.data.model.trips.Coordinates;
+import ru.hse.goodtrip.data.model.trips.Country;
+import ru.hse.goodtrip.data.model.trips.CountryVisit;
+import ru.hse.goodtrip.data.model.trips.Note;
+import ru.hse.goodtrip.data.model.trips.Trip;
+import ru.hse.goodtrip.network.trips.model.CityVisit;
+import ru.hse.goodtrip.network.trips.model.TripState;
+
+/**
+ * Time and allocations of {@link TripMapper} on batches of 1k and 10k trips, compared with mapping
+ * as it was done by TripRepository before.
+ */
+public class TripMapperBenchmark {
+
+  private static final String[] COUNTRIES = {"France", "Italy", "Spain", "Germany", "Japan",
+      "Brazil", "Canada", "Egypt", "India", "Norway"};
+
+  private static List<ru.hse.goodtrip.network.trips.model.Trip> payload(int size) {
+    List<ru.hse.goodtrip.network.trips.model.Trip> trips = new ArrayList<>(size);
+    for (int id = 0; id < size; id++) {
+      List<ru.hse.goodtrip.network.trips.model.CountryVisit> visits = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        int country = (id + i) % COUNTRIES.length;
+        List<CityVisit> cities = new ArrayList<>();
+        for (int j = 0; j < 4; j++) {
+          int city = (id + i * 4 + j) % 200;
+          cities.add(new CityVisit(j, "City " + city,
+              new Coordinates(-60 + (country * 7 + city) % 120, -170 + city * 3 % 340), i));
+        }
+        visits.add(new ru.hse.goodtrip.network.trips.model.CountryVisit(i, COUNTRIES[country],
+            cities, id));
+      }
+      List<ru.hse.goodtrip.network.trips.model.Note> notes = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        notes.add(new ru.hse.goodtrip.network.trips.model.Note(i, "Note " + i,
+            "https://photos.example/" + id + "/" + i, "Place " + i, "Text of note", id));
+      }
+      long departure = 1_600_000_000_000L + id * 86_400_000L;
+      trips.add(new ru.hse.goodtrip.network.trips.model.Trip(id, 1, "Trip " + id, 500 + id,
+          "https://photos.example/" + id, new Date(departure),
+          new Date(departure + 7 * 86_400_000L), new Timestamp(departure + 9 * 86_400_000L),
+          TripState.PUBLISHED, notes, visits));
+    }
+    return trips;
+  }
+
+  private static LocalDate toLocalDateNaively(java.util.Date date) {
+    // java.sql.Date doesn't support toInstant, old code failed on it.
+    return new java.util.Date(date.getTime()).toInstant().atZone(ZoneId.systemDefault())
+        .toLocalDate();
+  }
+
+  /**
+   * Mapping as TripRepository did it before TripMapper: zone is looked up for every date, every
+   * place gets its own country and coordinates, and lists grow from empty.
+   */
+  private static Trip mapNaively(ru.hse.goodtrip.network.trips.model.Trip response) {
+    Trip trip = new Trip(response.getTitle(), Collections.emptyList(),
+        toLocalDateNaively(response.getDepartureDate()),
+        toLocalDateNaively(response.getArrivalDate()),
+        toLocalDateNaively(response.getPublicationTimestamp()), response.getMainPhotoUrl(),
+        response.getMoneyInUsd(), new HashSet<>(), null, response.getId(), response.getState());
+    List<CountryVisit> visits = new ArrayList<>();
+    for (ru.hse.goodtrip.network.trips.model.CountryVisit visit : response.getVisits()) {
+      Country placeholder = new Country(visit.getCountry(), new Coordinates(0, 0));
+      List<City> cities = new ArrayList<>();
+      for (CityVisit city : visit.getCities()) {
+        cities.add(new City(city.getCity(), new Coordinates(city.getPoint().getLatitude(),
+            city.getPoint().getLongitude()), placeholder));
+      }
+      Country country = cities.isEmpty() ? placeholder
+          : new Country(visit.getCountry(), cities.get(0).getCoordinates());
+      visits.add(new CountryVisit(country, cities));
+    }
+    List<Note> notes = new ArrayList<>();
+    for (ru.hse.goodtrip.network.trips.model.Note note : response.getNotes()) {
+      notes.add(new Note(note.getTitle(), note.getText(), note.getPhotoUrl(),
+          new Country(note.getGooglePlaceId(), new Coordinates(0, 0))));
+    }
+    trip.setCountries(visits);
+    trip.setNotes(notes);
+    trip.markClean();
+    return trip;
+  }
+
+  private static List<Trip> mapAllNaively(
+      List<ru.hse.goodtrip.network.trips.model.Trip> responses) {
+    List<Trip> trips = new ArrayList<>();
+    for (ru.hse.goodtrip.network.trips.model.Trip response : responses) {
+      trips.add(mapNaively(response));
+    }
+    return trips;
+  }
+
+  /**
+   * Number of distinct place and coordinates objects held by trips.
+   */
+  private static int countPlaceObjects(List<Trip> trips) {
+    Map<Object, Boolean> objects = new IdentityHashMap<>();
+    for (Trip trip : trips) {
+      for (CountryVisit visit : trip.getCountries()) {
+        addPlace(objects, visit.getCountry());
+        for (City city : visit.getVisitedCities()) {
+          addPlace(objects, city);
+          addPlace(objects, city.getCountry());
+        }
+      }
+      for (Note note : trip.getNotes()) {
+        addPlace(objects, note.getPlace());
+      }
+    }
+    return objects.size();
+  }
+
+  private static void addPlace(Map<Object, Boolean> objects, AbstractPlace place) {
+    objects.put(place, true);
+    objects.put(place.getCoordinates(), true);
+  }
+
+  private static void compare(int size) {
+    List<ru.hse.goodtrip.network.trips.model.Trip> payload = payload(size);
+    PlaceRegistry places = new PlaceRegistry();
+    TripMapper mapper = new TripMapper(ZoneId.systemDefault(), null, places);
+    Benchmark.measure("TripMapper " + size + " trips", size, round -> mapper.mapAll(payload));
+    Benchmark.measure("old mapping " + size + " trips", size, round -> mapAllNaively(payload));
+
+    List<Trip> trips = mapper.mapAll(payload);
+    List<Trip> naiveTrips = mapAllNaively(payload);
+    int placeObjects = countPlaceObjects(trips);
+    int naivePlaceObjects = countPlaceObjects(naiveTrips);
+    System.out.printf("%d trips hold %d place objects, %d with old mapping%n", size,
+        placeObjects, naivePlaceObjects);
+    assertEquals(size, trips.size());
+    for (int i = 0; i < size; i++) {
+      Trip expected = naiveTrips.get(i);
+      Trip actual = trips.get(i);
+      assertEquals(expected.getStartTripDate(), actual.getStartTripDate());
+      assertEquals(expected.getEndTripDate(), actual.getEndTripDate());
+      assertEquals(expected.getTimeOfPublication(), actual.getTimeOfPublication());
+      assertEquals(expected.getNotes(), actual.getNotes());
+      assertEquals(expected.getRoute().getLengthMeters(), actual.getRoute().getLengthMeters(), 0);
+    }
+    // Places are shared, so mapped trips hold a fixed number of them whatever their count is.
+    assertTrue(placeObjects * 5 < naivePlaceObjects);
+  }
+
+  @Test
+  public void mapsThousandTrips() {
+    compare(1_000);
+  }
+
+  @Test
+  public void mapsTenThousandTrips() {
+    compare(10_000);
+  }
+}
@@ -0,0 +1,77 @@
+package ru.hse.goodtrip.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import ru.hse.goodtrip.data.model.User;
+import ru.hse.goodtrip.data.model.trips.City;
+import ru.hse.goodtrip.data.model.trips.Coordinates;
+import ru.hse.goodtrip.data.model.trips.CountryVisit;
+import ru.hse.goodtrip.data.model.trips.Trip;
+import ru.hse.goodtrip.network.trips.model.CityVisit;
+import ru.hse.goodtrip.network.trips.model.Note;
+import ru.hse.goodtrip.network.trips.model.TripState;
+
+public class TripMapperTest {
+
+  private static final String[] ZONES = {"UTC", "Europe/Moscow", "America/New_York",
+      "Asia/Kolkata", "Pacific/Chatham", "Australia/Lord_Howe"};
+
+  @Test
+  public void toLocalDateMatchesZonedDateTime() {
+    long step = TimeUnit.MINUTES.toMillis(397);
+    long from = -TimeUnit.DAYS.toMillis(400);
+    long to = TimeUnit.DAYS.toMillis(366 * 3) + 1_700_000_000_000L;
+    for (String zoneName : ZONES) {
+      ZoneId zone = ZoneId.of(zoneName);
+      TripMapper mapper = new TripMapper(zone, null);
+      for (long millis = from; millis < to; millis += step) {
+        assertEquals(zoneName + " " + millis,
+            Instant.ofEpochMilli(millis).atZone(zone).toLocalDate(),
+            mapper.toLocalDate(new Date(millis)));
+      }
+    }
+  }
+
+  @Test
+  public void mapsTripInOnePass() {
+    CityVisit paris = new CityVisit(1, "Paris", new Coordinates(48.8, 2.3), 1);
+    CityVisit lyon = new CityVisit(2, "Lyon", new Coordinates(45.7, 4.8), 1);
+    ru.hse.goodtrip.network.trips.model.Trip response =
+        new ru.hse.goodtrip.network.trips.model.Trip(7, 3, "France", 900, null,
+            new Date(1_700_000_000_000L), new Date(1_700_600_000_000L),
+            new Timestamp(1_700_700_000_000L), TripState.PUBLISHED,
+            Collections.singletonList(new Note(1, "Louvre", null, "place", "Text", 7)),
+            Collections.singletonList(new ru.hse.goodtrip.network.trips.model.CountryVisit(1,
+                "France", Arrays.asList(paris, lyon), 7)));
+    User author = new User(3, "author", "Author", null, "token");
+
+    Trip trip = new TripMapper(ZoneId.of("UTC"), author).map(response);
+
+    assertEquals("France", trip.getTitle());
+    assertEquals(900, trip.getMoneyInUsd());
+    assertSame(author, trip.getUser());
+    assertEquals(Integer.valueOf(7), trip.getTripId());
+    assertEquals("2023-11-14", trip.getStartTripDate().toString());
+    assertEquals("2023-11-21", trip.getEndTripDate().toString());
+    assertEquals(1, trip.getNotes().size());
+    assertEquals("Louvre", trip.getNotes().get(0).getHeadline());
+    CountryVisit visit = trip.getCountries().get(0);
+    assertEquals(2, visit.getVisitedCities().size());
+    assertEquals(48.8, visit.getCountry().getCoordinates().getLatitude(), 0);
+    for (City city : visit.getVisitedCities()) {
+      assertSame(visit.getCountry(), city.getCountry());
+    }
+    assertEquals(4.8, visit.getVisitedCities().get(1).getCoordinates().getLongitude(), 0);
+    assertTrue(trip.getDirtyFields().isEmpty());
+  }
+}
@@ -0,0 +1,165 @@
+package ru.hse.goodtrip.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.Test;
+import ru.hse.goodtrip.data.model.trips.City;
+import ru.hse.goodtrip.data.model.trips.Coordinates;
+import ru.hse.goodtrip.data.model.trips.Country;
+import ru.hse.goodtrip.data.model.trips.CountryVisit;
+import ru.hse.goodtrip.data.model.trips.Note;
+import ru.hse.goodtrip.data.model.trips.Trip;
+import ru.hse.goodtrip.data.model.trips.Trip.Field;
+import ru.hse.goodtrip.network.NetworkManager;
+import ru.hse.goodtrip.network.trips.model.TripState;
+
+public class TripRepositoryTest {
+
+  private final ObjectMapper mapper = NetworkManager.getObjectMapper();
+
+  private static Trip trip() {
+    Country country = new Country("France", new Coordinates(46, 2));
+    List<CountryVisit> countries = new ArrayList<>();
+    countries.add(new CountryVisit(country, new ArrayList<>(Collections.singletonList(
+        new City("Paris", new Coordinates(48.8566, 2.3522), country)))));
+    Trip trip = new Trip("Trip", countries, LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 10),
+        null, "photo", 100, new HashSet<>(), null, 7, TripState.PUBLISHED);
+    List<Note> notes = new ArrayList<>();
+    notes.add(new Note("Louvre", "Long queue", null, country));
+    trip.setNotes(notes);
+    trip.markClean();
+    return trip;
+  }
+
+  private JsonNode patchOf(Trip trip) {
+    return mapper.valueToTree(TripRepository.getTripPatch(trip, trip.getDirtyFields()));
+  }
+
+  private static List<String> fieldNames(JsonNode node) {
+    List<String> names = new ArrayList<>();
+    for (Iterator<String> it = node.fieldNames(); it.hasNext(); ) {
+      names.add(it.next());
+    }
+    return names;
+  }
+
+  @Test
+  public void patchHoldsOnlyChangedFields() {
+    Trip trip = trip();
+    trip.setTitle("Paris");
+    trip.setMoneyInUsd(250);
+
+    JsonNode patch = patchOf(trip);
+
+    assertEquals(Arrays.asList("title", "moneyInUsd"), fieldNames(patch));
+    assertEquals("Paris", patch.get("title").asText());
+    assertEquals(250, patch.get("moneyInUsd").asInt());
+  }
+
+  @Test
+  public void patchClearsMainPhoto() {
+    Trip trip = trip();
+    trip.setMainPhotoUrl(null);
+
+    JsonNode patch = patchOf(trip);
+
+    assertEquals(Collections.singletonList("mainPhotoUrl"), fieldNames(patch));
+    assertTrue(patch.get("mainPhotoUrl").isNull());
+  }
+
+  @Test
+  public void patchSendsBothDates() {
+    Trip trip = trip();
+    trip.setEndTripDate(LocalDate.of(2024, 5, 12));
+
+    JsonNode patch = patchOf(trip);
+
+    assertEquals(Arrays.asList("departureDate", "arrivalDate"), fieldNames(patch));
+    // Dates are written like in whole trip, whatever format the mapper uses for them.
+    assertEquals(mapper.valueToTree(Date.valueOf("2024-05-01")), patch.get("departureDate"));
+    assertEquals(mapper.valueToTree(Date.valueOf("2024-05-12")), patch.get("arrivalDate"));
+  }
+
+  @Test
+  public void patchSendsStateByName() {
+    Trip trip = trip();
+    trip.setTripState(TripState.IN_PROCESS);
+
+    JsonNode patch = patchOf(trip);
+
+    assertEquals(Collections.singletonList("state"), fieldNames(patch));
+    assertEquals("IN_PROCESS", patch.get("state").asText());
+  }
+
+  @Test
+  public void patchReplacesAllNotes() {
+    Trip trip = trip();
+    trip.getNotes().add(new Note("Orsay", "Impressionists", "orsay.jpg",
+        trip.getCountries().get(0).getCountry()));
+
+    JsonNode patch = patchOf(trip);
+
+    assertEquals(Collections.singletonList("notes"), fieldNames(patch));
+    JsonNode notes = patch.get("notes");
+    assertEquals(2, notes.size());
+    assertEquals("Louvre", notes.get(0).get("title").asText());
+    JsonNode note = notes.get(1);
+    assertEquals("Orsay", note.get("title").asText());
+    assertEquals("Impressionists", note.get("text").asText());
+    assertEquals("orsay.jpg", note.get("photoUrl").asText());
+    assertEquals("France", note.get("googlePlaceId").asText());
+    assertEquals(7, note.get("tripId").asInt());
+    assertTrue(note.get("id").isNull());
+  }
+
+  @Test
+  public void patchReplacesAllVisits() {
+    Trip trip = trip();
+    CountryVisit visit = trip.getCountries().get(0);
+    visit.getVisitedCities().add(new City("Lyon", new Coordinates(45.75, 4.85),
+        visit.getCountry()));
+
+    JsonNode patch = patchOf(trip);
+
+    assertEquals(Collections.singletonList("visits"), fieldNames(patch));
+    JsonNode visits = patch.get("visits");
+    assertEquals(1, visits.size());
+    assertEquals("France", visits.get(0).get("country").asText());
+    assertEquals(7, visits.get(0).get("tripId").asInt());
+    JsonNode cities = visits.get(0).get("cities");
+    assertEquals(2, cities.size());
+    assertEquals("Paris", cities.get(0).get("city").asText());
+    JsonNode lyon = cities.get(1);
+    assertEquals("Lyon", lyon.get("city").asText());
+    assertEquals(45.75, lyon.get("point").get("x").asDouble(), 0);
+    assertEquals(4.85, lyon.get("point").get("y").asDouble(), 0);
+  }
+
+  @Test
+  public void patchOfEveryFieldMatchesDirtyFields() {
+    Trip trip = trip();
+    trip.setTitle("Paris");
+    trip.setMoneyInUsd(250);
+    trip.setMainPhotoUrl("paris.jpg");
+    trip.setStartTripDate(LocalDate.of(2024, 4, 30));
+    trip.setTripState(TripState.PLANNED);
+    trip.getNotes().clear();
+    trip.getCountries().clear();
+
+    assertEquals(EnumSet.allOf(Field.class), trip.getDirtyFields());
+    assertEquals(Arrays.asList("title", "moneyInUsd", "mainPhotoUrl", "departureDate",
+        "arrivalDate", "state", "notes", "visits"), fieldNames(patchOf(trip)));
+  }
+}
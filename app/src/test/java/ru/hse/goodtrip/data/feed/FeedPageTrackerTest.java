@@ -0,0 +1,232 @@
+package ru.hse.goodtrip.data.feed;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.IntConsumer;
+import org.junit.Test;
+import ru.hse.goodtrip.data.feed.FeedPageTracker.Mode;
+import ru.hse.goodtrip.data.feed.FeedPageTracker.Page;
+import ru.hse.goodtrip.data.feed.FeedPageTracker.PageRequest;
+import ru.hse.goodtrip.network.trips.model.TripState;
+import ru.hse.goodtrip.network.trips.model.TripView;
+
+public class FeedPageTrackerTest {
+
+  private static final int INITIAL_POSTS = 100;
+  private static final int PUBLISHED_POSTS = 200;
+
+  private static List<TripView> drain(FeedPageTracker tracker, FakeFeedServer server,
+      IntConsumer afterPage) {
+    List<TripView> received = new ArrayList<>();
+    for (int pageNumber = 0; pageNumber < 1000; pageNumber++) {
+      PageRequest request = tracker.nextRequest();
+      Page page = tracker.accept(request, server.page(request));
+      received.addAll(page.getPosts());
+      if (page.isEndReached()) {
+        return received;
+      }
+      afterPage.accept(pageNumber);
+    }
+    throw new AssertionError("Feed has no end");
+  }
+
+  private static Set<Integer> assertUnique(List<TripView> posts) {
+    Set<Integer> ids = new HashSet<>();
+    for (TripView post : posts) {
+      assertTrue("Post " + post.getId() + " is received twice", ids.add(post.getId()));
+    }
+    return ids;
+  }
+
+  private static List<TripView> pageConcurrently(FeedPageTracker tracker, FakeFeedServer server)
+      throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    Thread publisher = new Thread(() -> {
+      started.countDown();
+      for (int i = 0; i < PUBLISHED_POSTS; i++) {
+        server.publish();
+        Thread.yield();
+      }
+    });
+    publisher.start();
+    started.await();
+    List<TripView> received = drain(tracker, server, page -> Thread.yield());
+    publisher.join();
+    return received;
+  }
+
+  @Test
+  public void cursorModeNeitherDuplicatesNorSkipsWhilePostsArePublished()
+      throws InterruptedException {
+    FakeFeedServer server = new FakeFeedServer(true, INITIAL_POSTS);
+    List<Integer> initial = server.ids();
+    FeedPageTracker tracker = new FeedPageTracker(Mode.CURSOR);
+
+    List<TripView> received = pageConcurrently(tracker, server);
+
+    assertTrue(assertUnique(received).containsAll(initial));
+    assertEquals(Mode.CURSOR, tracker.getMode());
+    assertEquals(0, tracker.getDuplicates());
+    assertEquals(0, tracker.getGaps());
+  }
+
+  @Test
+  public void offsetModeDropsDuplicatesWhilePostsArePublished() throws InterruptedException {
+    FakeFeedServer server = new FakeFeedServer(false, INITIAL_POSTS);
+    List<Integer> initial = server.ids();
+    FeedPageTracker tracker = new FeedPageTracker(Mode.OFFSET);
+
+    List<TripView> received = pageConcurrently(tracker, server);
+
+    assertTrue(assertUnique(received).containsAll(initial));
+    assertEquals(received.size(), tracker.getReceived());
+  }
+
+  @Test
+  public void fallsBackToOffsetsWhenServerIgnoresCursor() {
+    FakeFeedServer server = new FakeFeedServer(false, INITIAL_POSTS);
+    List<Integer> initial = server.ids();
+    FeedPageTracker tracker = new FeedPageTracker(Mode.CURSOR);
+
+    List<TripView> received = drain(tracker, server, page -> {
+      if (page == 0) {
+        server.publish();
+        server.publish();
+        server.publish();
+      }
+    });
+
+    assertTrue(assertUnique(received).containsAll(initial));
+    assertEquals(Mode.OFFSET, tracker.getMode());
+    assertEquals(3, tracker.getDuplicates());
+  }
+
+  @Test
+  public void detectsAndFillsGapWhenReceivedPostsAreRemoved() {
+    FakeFeedServer server = new FakeFeedServer(false, INITIAL_POSTS);
+    FeedPageTracker tracker = new FeedPageTracker(Mode.OFFSET);
+    List<Integer> removed = new ArrayList<>();
+
+    List<TripView> received = drain(tracker, server, page -> {
+      if (page == 1 || page == 4) {
+        removed.addAll(server.removeNewest(4));
+      }
+    });
+
+    List<Integer> expected = new ArrayList<>();
+    for (int id = 1; id <= INITIAL_POSTS; id++) {
+      expected.add(id);
+    }
+    Set<Integer> ids = assertUnique(received);
+    assertTrue(ids.containsAll(expected));
+    assertEquals(2, tracker.getGaps());
+    assertEquals(8, removed.size());
+  }
+
+  @Test
+  public void resumedTrackerDropsStoredPosts() {
+    FakeFeedServer server = new FakeFeedServer(false, INITIAL_POSTS);
+    List<Integer> initial = server.ids();
+    FeedPageTracker first = new FeedPageTracker(Mode.OFFSET);
+    List<TripView> stored = new ArrayList<>();
+    for (int page = 0; page < 3; page++) {
+      PageRequest request = first.nextRequest();
+      stored.addAll(first.accept(request, server.page(request)).getPosts());
+    }
+    List<Integer> storedIds = new ArrayList<>();
+    for (TripView post : stored) {
+      storedIds.add(post.getId());
+    }
+    server.publish();
+    server.publish();
+    server.publish();
+
+    FeedPageTracker tracker = new FeedPageTracker(Mode.OFFSET);
+    tracker.resume(storedIds, FeedCursor.of(stored.get(stored.size() - 1)));
+    List<TripView> received = new ArrayList<>(stored);
+    received.addAll(drain(tracker, server, page -> {
+    }));
+
+    assertTrue(assertUnique(received).containsAll(initial));
+    assertEquals(3, tracker.getDuplicates());
+    assertEquals(received.size(), tracker.getReceived());
+  }
+
+  @Test
+  public void cursorTokenRoundTrips() {
+    FeedCursor cursor = new FeedCursor(1718000000123L, 42);
+
+    assertEquals(cursor, FeedCursor.decode(cursor.encode()));
+    assertTrue(cursor.precedes(FakeFeedServer.post(41, 1718000000123L)));
+    assertTrue(cursor.precedes(FakeFeedServer.post(43, 1718000000122L)));
+    assertFalse(cursor.precedes(FakeFeedServer.post(42, 1718000000123L)));
+  }
+
+  /**
+   * Stand-in for the server which keeps feed newest first and pages it by offset and, optionally,
+   * by cursor.
+   */
+  private static class FakeFeedServer {
+
+    private static final int PAGE_SIZE = 10;
+
+    private final boolean cursorSupported;
+    private final List<TripView> posts = new ArrayList<>();
+    private int nextId = 1;
+
+    FakeFeedServer(boolean cursorSupported, int initialPosts) {
+      this.cursorSupported = cursorSupported;
+      for (int i = 0; i < initialPosts; i++) {
+        publish();
+      }
+    }
+
+    static TripView post(int id, long timestamp) {
+      return new TripView(id, "Author", null, "Trip " + id, 0, null, new Date(0), new Date(0),
+          new Timestamp(timestamp), TripState.PUBLISHED, Collections.emptyList());
+    }
+
+    synchronized void publish() {
+      int id = nextId++;
+      // Posts published within one second share the timestamp, so ties are broken by id.
+      posts.add(0, post(id, 1000L * (id / 3)));
+    }
+
+    synchronized List<Integer> removeNewest(int count) {
+      List<Integer> removed = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+        removed.add(posts.remove(0).getId());
+      }
+      return removed;
+    }
+
+    synchronized List<Integer> ids() {
+      List<Integer> ids = new ArrayList<>();
+      for (TripView post : posts) {
+        ids.add(post.getId());
+      }
+      return ids;
+    }
+
+    synchronized List<TripView> page(PageRequest request) {
+      int from = Math.min(request.getStart(), posts.size());
+      if (cursorSupported && request.getCursor() != null) {
+        from = 0;
+        while (from < posts.size() && !request.getCursor().precedes(posts.get(from))) {
+          from++;
+        }
+      }
+      return new ArrayList<>(posts.subList(from, Math.min(from + PAGE_SIZE, posts.size())));
+    }
+  }
+}
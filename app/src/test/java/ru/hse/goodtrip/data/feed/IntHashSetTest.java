@@ -0,0 +1,32 @@
+package ru.hse.goodtrip.data.feed;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class IntHashSetTest {
+
+  @Test
+  public void addsEachValueOnceAcrossResizes() {
+    IntHashSet set = new IntHashSet(4);
+    for (int i = -500; i < 500; i++) {
+      assertTrue(set.add(i * 7));
+    }
+    assertTrue(set.add(Integer.MIN_VALUE));
+
+    for (int i = -500; i < 500; i++) {
+      assertFalse(set.add(i * 7));
+      assertTrue(set.contains(i * 7));
+      assertFalse(set.contains(i * 7 + 1));
+    }
+    assertFalse(set.add(Integer.MIN_VALUE));
+    assertEquals(1001, set.size());
+
+    set.clear();
+    assertTrue(set.isEmpty());
+    assertFalse(set.contains(0));
+    assertFalse(set.contains(Integer.MIN_VALUE));
+  }
+}
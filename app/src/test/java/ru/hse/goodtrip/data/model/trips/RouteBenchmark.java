@@ -0,0 +1,159 @@
+package ru.hse.goodtrip.data.model.trips;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import ru.hse.goodtrip.Benchmark;
+
+/**
+ * Iteration over packed routes compared with walking visits, cities and their coordinates, and
+ * memory retained by both, for a user with thousands of visited cities.
+ */
+public class RouteBenchmark {
+
+  private static final int TRIPS = 100;
+  private static final int COUNTRIES_PER_TRIP = 5;
+  private static final int CITIES_PER_COUNTRY = 40;
+  private static final int CITIES = TRIPS * COUNTRIES_PER_TRIP * CITIES_PER_COUNTRY;
+
+  private static List<List<CountryVisit>> trips() {
+    List<List<CountryVisit>> trips = new ArrayList<>(TRIPS);
+    for (int t = 0; t < TRIPS; t++) {
+      List<CountryVisit> visits = new ArrayList<>(COUNTRIES_PER_TRIP);
+      for (int i = 0; i < COUNTRIES_PER_TRIP; i++) {
+        Country country = new Country("Country " + i, new Coordinates(0, 0));
+        List<City> cities = new ArrayList<>(CITIES_PER_COUNTRY);
+        for (int j = 0; j < CITIES_PER_COUNTRY; j++) {
+          cities.add(new City("City " + j, new Coordinates(-60 + (t * 7 + i * 11 + j) % 120,
+              -170 + (t * 13 + j * 3) % 340), country));
+        }
+        visits.add(new CountryVisit(country, cities));
+      }
+      trips.add(visits);
+    }
+    return trips;
+  }
+
+  private static double[] boundsOfGraph(List<List<CountryVisit>> trips) {
+    double[] bounds = {90, 180, -90, -180};
+    for (List<CountryVisit> visits : trips) {
+      for (CountryVisit visit : visits) {
+        for (City city : visit.getVisitedCities()) {
+          extend(bounds, city.getCoordinates().getLatitude(),
+              city.getCoordinates().getLongitude());
+        }
+      }
+    }
+    return bounds;
+  }
+
+  private static double[] boundsOfRoutes(List<Route> routes) {
+    double[] bounds = {90, 180, -90, -180};
+    for (Route route : routes) {
+      for (int i = 0; i < route.size(); i++) {
+        extend(bounds, route.getLatitude(i), route.getLongitude(i));
+      }
+    }
+    return bounds;
+  }
+
+  private static void extend(double[] bounds, double latitude, double longitude) {
+    bounds[0] = Math.min(bounds[0], latitude);
+    bounds[1] = Math.min(bounds[1], longitude);
+    bounds[2] = Math.max(bounds[2], latitude);
+    bounds[3] = Math.max(bounds[3], longitude);
+  }
+
+  private static double lengthOfGraph(List<List<CountryVisit>> trips) {
+    double length = 0;
+    for (List<CountryVisit> visits : trips) {
+      Coordinates previous = null;
+      for (CountryVisit visit : visits) {
+        for (City city : visit.getVisitedCities()) {
+          Coordinates current = city.getCoordinates();
+          if (previous != null) {
+            length += Route.distanceMeters(previous.getLatitude(), previous.getLongitude(),
+                current.getLatitude(), current.getLongitude());
+          }
+          previous = current;
+        }
+      }
+    }
+    return length;
+  }
+
+  private static double lengthOfRoutes(List<Route> routes) {
+    double length = 0;
+    for (Route route : routes) {
+      for (int i = 1; i < route.size(); i++) {
+        length += Route.distanceMeters(route.getLatitude(i - 1), route.getLongitude(i - 1),
+            route.getLatitude(i), route.getLongitude(i));
+      }
+    }
+    return length;
+  }
+
+  private static List<Route> routes(List<List<CountryVisit>> trips) {
+    List<Route> routes = new ArrayList<>(trips.size());
+    for (List<CountryVisit> visits : trips) {
+      routes.add(Route.of(visits));
+    }
+    return routes;
+  }
+
+  private static long usedMemory() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  @Test
+  public void iteratesPackedRoutes() {
+    List<List<CountryVisit>> trips = trips();
+    List<Route> routes = routes(trips);
+
+    Benchmark.measure("bounds of object graph, " + CITIES + " cities", CITIES,
+        round -> boundsOfGraph(trips));
+    Benchmark.measure("bounds of packed routes, " + CITIES + " cities", CITIES,
+        round -> boundsOfRoutes(routes));
+    Benchmark.measure("length of object graph, " + CITIES + " cities", CITIES,
+        round -> lengthOfGraph(trips));
+    Benchmark.measure("length of packed routes, " + CITIES + " cities", CITIES,
+        round -> lengthOfRoutes(routes));
+
+    double[] graphBounds = boundsOfGraph(trips);
+    double[] routeBounds = boundsOfRoutes(routes);
+    for (int i = 0; i < graphBounds.length; i++) {
+      assertEquals(graphBounds[i], routeBounds[i], 0);
+    }
+    double length = 0;
+    for (Route route : routes) {
+      length += route.getLengthMeters();
+    }
+    assertEquals(lengthOfGraph(trips), lengthOfRoutes(routes), 1);
+    assertEquals(length, lengthOfRoutes(routes), 1);
+  }
+
+  @Test
+  public void measuresRetainedSize() {
+    long before = usedMemory();
+    List<List<CountryVisit>> trips = trips();
+    long graph = usedMemory() - before;
+    List<Route> routes = routes(trips);
+    long packed = usedMemory() - before - graph;
+    long estimated = 0;
+    for (Route route : routes) {
+      estimated += route.estimateBytes();
+    }
+    System.out.printf("%d cities: object graph %d B (%d B/city), packed routes %d B"
+            + " (%d B/city), estimated %d B%n", CITIES, graph, graph / CITIES, packed,
+        packed / CITIES, estimated);
+
+    assertEquals(TRIPS * (32 + 16L * COUNTRIES_PER_TRIP * CITIES_PER_COUNTRY), estimated);
+    assertEquals(TRIPS, trips.size());
+  }
+}
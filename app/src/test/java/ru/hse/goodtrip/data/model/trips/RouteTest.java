@@ -0,0 +1,92 @@
+package ru.hse.goodtrip.data.model.trips;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Test;
+import ru.hse.goodtrip.network.trips.model.TripState;
+
+public class RouteTest {
+
+  private static List<CountryVisit> visits(int countries, int citiesPerCountry) {
+    List<CountryVisit> visits = new ArrayList<>(countries);
+    for (int i = 0; i < countries; i++) {
+      Country country = new Country("Country " + i, new Coordinates(0, 0));
+      List<City> cities = new ArrayList<>(citiesPerCountry);
+      for (int j = 0; j < citiesPerCountry; j++) {
+        cities.add(new City("City " + j, new Coordinates(-60 + (i * 7 + j) % 120,
+            -170 + (i * 13 + j * 3) % 340), country));
+      }
+      visits.add(new CountryVisit(country, cities));
+    }
+    return visits;
+  }
+
+  @Test
+  public void packsCitiesInOrderOfVisits() {
+    List<CountryVisit> visits = visits(40, 50);
+    Route route = Route.of(visits);
+
+    assertEquals(2000, route.size());
+    int index = 0;
+    double length = 0;
+    City previous = null;
+    for (CountryVisit visit : visits) {
+      for (City city : visit.getVisitedCities()) {
+        assertEquals(city.getCoordinates().getLatitude(), route.getLatitude(index), 0);
+        assertEquals(city.getCoordinates().getLongitude(), route.getLongitude(index), 0);
+        if (previous != null) {
+          length += Route.distanceMeters(previous.getCoordinates().getLatitude(),
+              previous.getCoordinates().getLongitude(), city.getCoordinates().getLatitude(),
+              city.getCoordinates().getLongitude());
+        }
+        previous = city;
+        index++;
+      }
+    }
+    assertEquals(length, route.getLengthMeters(), 1e-6);
+  }
+
+  @Test
+  public void measuresDistanceByHaversine() {
+    assertEquals(0, Route.distanceMeters(55.75, 37.62, 55.75, 37.62), 0);
+    // Paris to London.
+    assertEquals(343_900, Route.distanceMeters(48.8566, 2.3522, 51.5074, -0.1278), 500);
+    // Half of the meridian.
+    assertEquals(Math.PI * 6_371_008.8, Route.distanceMeters(90, 0, -90, 0), 1e-3);
+  }
+
+  @Test
+  public void emptyRouteIsShared() {
+    assertSame(Route.EMPTY, Route.of(null));
+    assertSame(Route.EMPTY, Route.of(visits(3, 0)));
+    assertEquals(0, Route.EMPTY.getLengthMeters(), 0);
+  }
+
+  @Test
+  public void tripPacksRouteAgainWhenCountriesAreSet() {
+    Trip trip = new Trip("Trip", visits(2, 3), null, null, null, null, 0, new HashSet<>(), null,
+        1, TripState.PUBLISHED);
+    trip.markClean();
+    Route route = trip.getRoute();
+    assertSame(route, trip.getRoute());
+    assertEquals(6, route.size());
+
+    List<CountryVisit> countries = trip.getCountries();
+    countries.addAll(visits(1, 4));
+    trip.setCountries(countries);
+    assertNotSame(route, trip.getRoute());
+    assertEquals(10, trip.getRoute().size());
+
+    trip.setCountries(Collections.singletonList(new CountryVisit(
+        new Country("France", new Coordinates(0, 0)), Arrays.asList(
+        new City("Paris", new Coordinates(48.8566, 2.3522), null)))));
+    assertEquals(1, trip.getRoute().size());
+  }
+}
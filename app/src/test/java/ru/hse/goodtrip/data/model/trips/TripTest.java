@@ -0,0 +1,188 @@
+package ru.hse.goodtrip.data.model.trips;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Test;
+import ru.hse.goodtrip.data.model.User;
+import ru.hse.goodtrip.data.model.trips.Trip.Field;
+import ru.hse.goodtrip.network.trips.model.TripState;
+
+public class TripTest {
+
+  private static Trip trip() {
+    Country country = new Country("France", new Coordinates(46, 2));
+    List<CountryVisit> countries = new ArrayList<>();
+    countries.add(new CountryVisit(country, new ArrayList<>(Collections.singletonList(
+        new City("Paris", new Coordinates(48.8566, 2.3522), country)))));
+    Trip trip = new Trip("Trip", countries, LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 10),
+        null, "photo", 100, new HashSet<>(), null, 1, TripState.PUBLISHED);
+    List<Note> notes = new ArrayList<>();
+    notes.add(new Note("Louvre", "Long queue", null, country));
+    trip.setNotes(notes);
+    trip.markClean();
+    return trip;
+  }
+
+  @Test
+  public void withUserLeavesSharedTripUntouched() {
+    Trip trip = trip();
+    User author = new User(2, "author", "Author", null, null);
+
+    Trip copy = trip.withUser(author);
+
+    assertNotSame(trip, copy);
+    assertNull(trip.getUser());
+    assertSame(author, copy.getUser());
+    assertEquals(trip.getTripId(), copy.getTripId());
+    assertSame(trip.getCountries(), copy.getCountries());
+    assertSame(trip.getNotes(), copy.getNotes());
+    assertSame(trip.getRoute(), copy.getRoute());
+    assertTrue(copy.getDirtyFields().isEmpty());
+  }
+
+  @Test
+  public void editableCopyLeavesSharedTripUntouched() {
+    Trip trip = trip();
+
+    Trip copy = trip.editableCopy();
+    copy.setTitle("Paris");
+    copy.getNotes().get(0).setNote("No queue");
+    copy.getNotes().add(new Note("Orsay", "Impressionists", null, null));
+    CountryVisit visit = copy.getCountries().get(0);
+    visit.getVisitedCities().add(new City("Lyon", new Coordinates(45.75, 4.85),
+        visit.getCountry()));
+
+    assertEquals("Trip", trip.getTitle());
+    assertEquals(1, trip.getNotes().size());
+    assertEquals("Long queue", trip.getNotes().get(0).getNote());
+    assertEquals(1, trip.getCountries().get(0).getVisitedCities().size());
+    assertTrue(trip.getDirtyFields().isEmpty());
+    assertEquals(EnumSet.of(Field.TITLE, Field.NOTES, Field.COUNTRIES), copy.getDirtyFields());
+  }
+
+  @Test
+  public void tripWithoutBaselineIsWhollyDirty() {
+    Trip trip = new Trip("Trip", new ArrayList<>(), null, null, null, null, 0, new HashSet<>(),
+        null, null, TripState.PLANNED);
+    assertEquals(EnumSet.allOf(Field.class), trip.getDirtyFields());
+  }
+
+  @Test
+  public void cleanTripHasNoDirtyFields() {
+    assertTrue(trip().getDirtyFields().isEmpty());
+  }
+
+  @Test
+  public void detectsChangedTitle() {
+    Trip trip = trip();
+    trip.setTitle("Paris");
+    assertEquals(EnumSet.of(Field.TITLE), trip.getDirtyFields());
+  }
+
+  @Test
+  public void detectsChangedMoney() {
+    Trip trip = trip();
+    trip.setMoneyInUsd(200);
+    assertEquals(EnumSet.of(Field.MONEY), trip.getDirtyFields());
+  }
+
+  @Test
+  public void detectsChangedMainPhoto() {
+    Trip trip = trip();
+    trip.setMainPhotoUrl(null);
+    assertEquals(EnumSet.of(Field.MAIN_PHOTO), trip.getDirtyFields());
+  }
+
+  @Test
+  public void detectsChangedDates() {
+    Trip trip = trip();
+    trip.setStartTripDate(LocalDate.of(2024, 5, 2));
+    assertEquals(EnumSet.of(Field.DATES), trip.getDirtyFields());
+
+    trip = trip();
+    trip.setEndTripDate(LocalDate.of(2024, 5, 11));
+    assertEquals(EnumSet.of(Field.DATES), trip.getDirtyFields());
+  }
+
+  @Test
+  public void detectsChangedState() {
+    Trip trip = trip();
+    trip.setTripState(TripState.PLANNED);
+    assertEquals(EnumSet.of(Field.STATE), trip.getDirtyFields());
+  }
+
+  @Test
+  public void detectsNotesChangedInPlace() {
+    Trip trip = trip();
+    trip.getNotes().get(0).setNote("No queue");
+    assertEquals(EnumSet.of(Field.NOTES), trip.getDirtyFields());
+
+    trip = trip();
+    trip.getNotes().add(new Note("Orsay", null, null, trip.getNotes().get(0).getPlace()));
+    assertEquals(EnumSet.of(Field.NOTES), trip.getDirtyFields());
+  }
+
+  @Test
+  public void detectsCountriesChangedInPlace() {
+    Trip trip = trip();
+    CountryVisit visit = trip.getCountries().get(0);
+    visit.getVisitedCities().add(new City("Lyon", new Coordinates(45.75, 4.85),
+        visit.getCountry()));
+    assertEquals(EnumSet.of(Field.COUNTRIES), trip.getDirtyFields());
+
+    trip = trip();
+    trip.getCountries().remove(0);
+    assertEquals(EnumSet.of(Field.COUNTRIES), trip.getDirtyFields());
+  }
+
+  @Test
+  public void detectsEditsWhichKeepHashOfLists() {
+    // "Aa" and "BB" have the same hash code, so the edited lists have the same hash codes too.
+    assertEquals("Aa".hashCode(), "BB".hashCode());
+    Trip trip = trip();
+    trip.getNotes().get(0).setHeadline("Aa");
+    trip.markClean();
+    int notesHash = trip.getNotes().hashCode();
+    trip.getNotes().get(0).setHeadline("BB");
+    assertEquals(notesHash, trip.getNotes().hashCode());
+    assertEquals(EnumSet.of(Field.NOTES), trip.getDirtyFields());
+
+    trip = trip();
+    CountryVisit visit = trip.getCountries().get(0);
+    visit.getVisitedCities().set(0, new City("Aa", new Coordinates(0, 0), visit.getCountry()));
+    trip.markClean();
+    int countriesHash = trip.getCountries().hashCode();
+    visit.getVisitedCities().set(0, new City("BB", new Coordinates(0, 0), visit.getCountry()));
+    assertEquals(countriesHash, trip.getCountries().hashCode());
+    assertEquals(EnumSet.of(Field.COUNTRIES), trip.getDirtyFields());
+  }
+
+  @Test
+  public void restoredValueIsNotDirty() {
+    Trip trip = trip();
+    trip.setTitle("Paris");
+    trip.getNotes().get(0).setNote("No queue");
+    trip.setTitle("Trip");
+    trip.getNotes().get(0).setNote("Long queue");
+    assertTrue(trip.getDirtyFields().isEmpty());
+  }
+
+  @Test
+  public void savedTripIsClean() {
+    Trip trip = trip();
+    trip.setMoneyInUsd(200);
+    trip.getNotes().clear();
+    trip.markClean();
+    assertTrue(trip.getDirtyFields().isEmpty());
+  }
+}
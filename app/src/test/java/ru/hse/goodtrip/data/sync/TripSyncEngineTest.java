@@ -0,0 +1,321 @@
+package ru.hse.goodtrip.data.sync;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import ru.hse.goodtrip.data.model.Result;
+import ru.hse.goodtrip.data.sync.TripSyncEngine.Update;
+import ru.hse.goodtrip.network.NetworkException;
+import ru.hse.goodtrip.network.trips.model.Note;
+import ru.hse.goodtrip.network.trips.model.Trip;
+import ru.hse.goodtrip.network.trips.model.TripChanges;
+import ru.hse.goodtrip.network.trips.model.TripState;
+
+public class TripSyncEngineTest {
+
+  private static final int USER_ID = 1;
+  private static final int TRIPS = 300;
+
+  private static Update<String> sync(TripSyncEngine<String> engine, FakeTripServer server) {
+    Result<Update<String>> result = engine.sync(server).join();
+    assertTrue(result.isSuccess());
+    return ((Result.Success<Update<String>>) result).getData();
+  }
+
+  private static Map<Integer, Trip> byId(List<Trip> trips) {
+    Map<Integer, Trip> result = new HashMap<>();
+    for (Trip trip : trips) {
+      result.put(trip.getId(), trip);
+    }
+    return result;
+  }
+
+  private static void assertInSync(Update<String> update, FakeTripServer server) {
+    assertEquals(byId(server.allTrips()), byId(update.getTrips()));
+    assertEquals(update.getTrips().size(), update.getMapped().size());
+    for (int i = 0; i < update.getTrips().size(); i++) {
+      assertEquals(describe(update.getTrips().get(i)), update.getMapped().get(i));
+    }
+  }
+
+  private static String describe(Trip trip) {
+    return trip.getId() + ":" + trip.getTitle() + ":" + trip.getMoneyInUsd();
+  }
+
+  @Test
+  public void deltaSyncMatchesServerState() {
+    Random random = new Random(7);
+    FakeTripServer server = new FakeTripServer(TRIPS);
+    AtomicInteger mapped = new AtomicInteger();
+    TripSyncEngine<String> engine = new TripSyncEngine<>(trip -> {
+      mapped.incrementAndGet();
+      return describe(trip);
+    });
+    Update<String> first = sync(engine, server);
+    assertTrue(first.isFull());
+    assertInSync(first, server);
+    assertEquals(TRIPS, mapped.get());
+
+    for (int round = 0; round < 50; round++) {
+      for (int i = 0; i < 1 + random.nextInt(5); i++) {
+        int action = random.nextInt(3);
+        if (action == 0) {
+          server.add();
+        } else if (action == 1) {
+          server.edit(random);
+        } else {
+          server.delete(random);
+        }
+      }
+      int changes = server.changedSince(engine.getSyncToken());
+      mapped.set(0);
+      Update<String> update = sync(engine, server);
+      assertFalse(update.isFull());
+      assertInSync(update, server);
+      assertEquals(changes, mapped.get());
+    }
+  }
+
+  @Test
+  public void deltaSavesPayloadAndMapping() throws Exception {
+    ObjectMapper objectMapper = new ObjectMapper();
+    Random random = new Random(11);
+    FakeTripServer server = new FakeTripServer(TRIPS);
+    AtomicInteger mapped = new AtomicInteger();
+    TripSyncEngine<String> engine = new TripSyncEngine<>(trip -> {
+      mapped.incrementAndGet();
+      return describe(trip);
+    });
+    sync(engine, server);
+    for (int i = 0; i < 3; i++) {
+      server.edit(random);
+    }
+    int changes = server.changedSince(engine.getSyncToken());
+    int fullBytes = objectMapper.writeValueAsBytes(server.allTrips()).length;
+    int deltaBytes = objectMapper.writeValueAsBytes(
+        server.changes(engine.getSyncToken())).length;
+    mapped.set(0);
+    assertInSync(sync(engine, server), server);
+
+    // Checks size of serialized responses of the fake server, not time: full fetch transfers and
+    // maps all trips again, delta only the changed ones.
+    assertTrue("delta " + deltaBytes + " of full " + fullBytes, deltaBytes * 50 < fullBytes);
+    assertEquals(changes, mapped.get());
+    assertEquals(TRIPS + changes, engine.getMappedCount());
+  }
+
+  @Test
+  public void fallsBackToFullFetchWhenChangesUnsupported() {
+    Random random = new Random(3);
+    FakeTripServer server = new FakeTripServer(TRIPS);
+    server.changesSupported = false;
+    AtomicInteger mapped = new AtomicInteger();
+    TripSyncEngine<String> engine = new TripSyncEngine<>(trip -> {
+      mapped.incrementAndGet();
+      return describe(trip);
+    });
+    Update<String> first = sync(engine, server);
+    assertTrue(first.isFull());
+    assertInSync(first, server);
+    assertNull(engine.getSyncToken());
+
+    server.edit(random);
+    server.delete(random);
+    server.add();
+    mapped.set(0);
+    int changeRequests = server.changeRequests;
+    Update<String> second = sync(engine, server);
+    assertTrue(second.isFull());
+    assertInSync(second, server);
+    // Trips which didn't change are not mapped again, unsupported endpoint isn't requested again.
+    assertEquals(2, mapped.get());
+    assertEquals(changeRequests, server.changeRequests);
+  }
+
+  @Test
+  public void doesNotRequestChangesWhenDisabled() {
+    Random random = new Random(9);
+    FakeTripServer server = new FakeTripServer(TRIPS);
+    TripSyncEngine<String> engine = new TripSyncEngine<>(TripSyncEngineTest::describe,
+        description -> true, false);
+    assertTrue(sync(engine, server).isFull());
+
+    server.edit(random);
+    Update<String> update = sync(engine, server);
+    assertTrue(update.isFull());
+    assertInSync(update, server);
+    engine.reset();
+    assertTrue(sync(engine, server).isFull());
+    assertEquals(0, server.changeRequests);
+  }
+
+  @Test
+  public void remapsTripsWhichAreNotReusable() {
+    FakeTripServer server = new FakeTripServer(TRIPS);
+    server.changesSupported = false;
+    AtomicInteger mapped = new AtomicInteger();
+    TripSyncEngine<String> engine = new TripSyncEngine<>(trip -> {
+      mapped.incrementAndGet();
+      return describe(trip);
+    }, description -> !description.startsWith("1:"));
+    sync(engine, server);
+
+    mapped.set(0);
+    Update<String> update = sync(engine, server);
+    assertInSync(update, server);
+    // Mapped trip with unsaved edits is mapped again though its trip didn't change.
+    assertEquals(1, mapped.get());
+    assertEquals(TRIPS - 1, engine.getReusedCount());
+  }
+
+  @Test
+  public void refetchesAllWhenTokenIsRejected() {
+    Random random = new Random(5);
+    FakeTripServer server = new FakeTripServer(TRIPS);
+    TripSyncEngine<String> engine = new TripSyncEngine<>(TripSyncEngineTest::describe);
+    sync(engine, server);
+    String oldToken = engine.getSyncToken();
+    assertNotNull(oldToken);
+
+    server.delete(random);
+    server.edit(random);
+    server.compact();
+    Update<String> update = sync(engine, server);
+    assertTrue(update.isFull());
+    assertInSync(update, server);
+    assertFalse(oldToken.equals(engine.getSyncToken()));
+  }
+
+  /**
+   * Server which versions every change of trips and keeps tombstones of deleted trips until they
+   * are compacted.
+   */
+  private static class FakeTripServer implements TripSyncEngine.Source {
+
+    private final LinkedHashMap<Integer, Trip> trips = new LinkedHashMap<>();
+    private final Map<Integer, Long> changedAt = new HashMap<>();
+    private final Map<Integer, Long> deletedAt = new HashMap<>();
+    private boolean changesSupported = true;
+    private int changeRequests;
+    private long version;
+    private long compactedAt;
+    private int nextId = 1;
+
+    FakeTripServer(int trips) {
+      for (int i = 0; i < trips; i++) {
+        add();
+      }
+    }
+
+    private static Trip copy(Trip trip, String title, int money) {
+      List<Note> notes = new ArrayList<>(trip.getNotes());
+      return new Trip(trip.getId(), trip.getUserId(), title, money, trip.getMainPhotoUrl(),
+          trip.getDepartureDate(), trip.getArrivalDate(), trip.getPublicationTimestamp(),
+          trip.getState(), notes, trip.getVisits());
+    }
+
+    void add() {
+      int id = nextId++;
+      List<Note> notes = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        notes.add(new Note(id * 10 + i, "Note " + i, "https://photos.example/" + id + "/" + i,
+            "place-" + i, "Text of note " + i + " of trip " + id, id));
+      }
+      trips.put(id, new Trip(id, USER_ID, "Trip " + id, 100 * id, "https://photos.example/" + id,
+          new Date(1_700_000_000_000L), new Date(1_700_086_400_000L),
+          new Timestamp(1_700_000_000_000L + id), TripState.PUBLISHED, notes,
+          Collections.emptyList()));
+      changedAt.put(id, ++version);
+    }
+
+    void edit(Random random) {
+      Trip trip = pick(random);
+      trips.put(trip.getId(), copy(trip, trip.getTitle() + "'", trip.getMoneyInUsd() + 1));
+      changedAt.put(trip.getId(), ++version);
+    }
+
+    void delete(Random random) {
+      Trip trip = pick(random);
+      trips.remove(trip.getId());
+      changedAt.remove(trip.getId());
+      deletedAt.put(trip.getId(), ++version);
+    }
+
+    void compact() {
+      deletedAt.clear();
+      compactedAt = version;
+    }
+
+    private Trip pick(Random random) {
+      List<Trip> all = allTrips();
+      return all.get(random.nextInt(all.size()));
+    }
+
+    List<Trip> allTrips() {
+      return new ArrayList<>(trips.values());
+    }
+
+    int changedSince(String token) {
+      long since = Long.parseLong(token);
+      int changed = 0;
+      for (long changeVersion : changedAt.values()) {
+        if (changeVersion > since) {
+          changed++;
+        }
+      }
+      return changed;
+    }
+
+    TripChanges changes(String token) {
+      long since = token == null ? 0 : Long.parseLong(token);
+      List<Trip> updated = new ArrayList<>();
+      for (Trip trip : trips.values()) {
+        if (changedAt.get(trip.getId()) > since) {
+          updated.add(trip);
+        }
+      }
+      List<Integer> deleted = new ArrayList<>();
+      for (Map.Entry<Integer, Long> entry : deletedAt.entrySet()) {
+        if (entry.getValue() > since) {
+          deleted.add(entry.getKey());
+        }
+      }
+      return new TripChanges(updated, deleted, String.valueOf(version), token == null);
+    }
+
+    @Override
+    public CompletableFuture<Result<TripChanges>> fetchChanges(String syncToken) {
+      changeRequests++;
+      if (!changesSupported) {
+        return CompletableFuture.completedFuture(
+            new Result.Error<>(new NetworkException("Not found", 404, null)));
+      }
+      if (syncToken != null && Long.parseLong(syncToken) < compactedAt) {
+        return CompletableFuture.completedFuture(
+            new Result.Error<>(new NetworkException("Token expired", 410, null)));
+      }
+      return CompletableFuture.completedFuture(new Result.Success<>(changes(syncToken)));
+    }
+
+    @Override
+    public CompletableFuture<Result<List<Trip>>> fetchAll() {
+      return CompletableFuture.completedFuture(new Result.Success<>(allTrips()));
+    }
+  }
+}
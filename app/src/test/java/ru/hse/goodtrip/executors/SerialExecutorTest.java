@@ -0,0 +1,66 @@
+package ru.hse.goodtrip.executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class SerialExecutorTest {
+
+  private static final int TASKS = 1000;
+
+  @Test
+  public void runsTasksOneAtATimeInOrder() throws InterruptedException {
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    SerialExecutor executor = new SerialExecutor(pool);
+    List<Integer> order = new ArrayList<>();
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger overlaps = new AtomicInteger();
+    CountDownLatch done = new CountDownLatch(TASKS);
+    try {
+      for (int i = 0; i < TASKS; i++) {
+        int task = i;
+        executor.execute(() -> {
+          if (running.incrementAndGet() > 1) {
+            overlaps.incrementAndGet();
+          }
+          order.add(task);
+          Thread.yield();
+          running.decrementAndGet();
+          done.countDown();
+        });
+      }
+      assertTrue(done.await(10, TimeUnit.SECONDS));
+    } finally {
+      pool.shutdown();
+    }
+
+    assertEquals(0, overlaps.get());
+    for (int i = 0; i < TASKS; i++) {
+      assertEquals(Integer.valueOf(i), order.get(i));
+    }
+  }
+
+  @Test
+  public void continuesAfterFailedTask() throws InterruptedException {
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    SerialExecutor executor = new SerialExecutor(pool);
+    CountDownLatch done = new CountDownLatch(1);
+    try {
+      executor.execute(() -> {
+        throw new IllegalStateException("Task failed");
+      });
+      executor.execute(done::countDown);
+      assertTrue(done.await(10, TimeUnit.SECONDS));
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package ru.hse.goodtrip.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import ru.hse.goodtrip.Benchmark;
+import ru.hse.goodtrip.data.model.trips.Coordinates;
+import ru.hse.goodtrip.network.trips.model.CityVisit;
+import ru.hse.goodtrip.network.trips.model.CountryVisit;
+import ru.hse.goodtrip.network.trips.model.TripState;
+import ru.hse.goodtrip.network.trips.model.TripView;
+
+/**
+ * Decode throughput of feed pages with mapper shared by {@link NetworkManager}, compared with a new
+ * mapper built for every decode as manual conversion sites did before.
+ */
+public class ObjectMapperBenchmark {
+
+  private static final int PAGES = 20;
+  private static final int PAGE_SIZE = 20;
+  private static final TypeReference<List<TripView>> TRIP_VIEWS =
+      new TypeReference<List<TripView>>() {
+      };
+
+  private static List<TripView> page() {
+    List<TripView> page = new ArrayList<>(PAGE_SIZE);
+    for (int id = 0; id < PAGE_SIZE; id++) {
+      List<CountryVisit> visits = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        List<CityVisit> cities = new ArrayList<>();
+        for (int j = 0; j < 4; j++) {
+          cities.add(new CityVisit(j, "City " + i + "-" + j,
+              new Coordinates(40 + i + j * 0.25, 2 + i * 3 + j * 0.5), i));
+        }
+        visits.add(new CountryVisit(i, "Country " + i, cities, id));
+      }
+      long departure = 1_700_000_000_000L + id * 86_400_000L;
+      page.add(new TripView(id, "Author " + id, "https://photos.example/users/" + id,
+          "Trip " + id, 500 + id, "https://photos.example/trips/" + id, new Date(departure),
+          new Date(departure + 7 * 86_400_000L), new Timestamp(departure + 9 * 86_400_000L),
+          TripState.PUBLISHED, visits));
+    }
+    return page;
+  }
+
+  private static List<TripView> decode(ObjectMapper mapper, byte[] payload) {
+    try {
+      return mapper.readValue(payload, TRIP_VIEWS);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Test
+  public void sharedMapperDecodesFeedPages() throws IOException {
+    ObjectMapper shared = NetworkManager.getObjectMapper();
+    byte[] payload = shared.writeValueAsBytes(page());
+
+    Benchmark.Result reused = Benchmark.measure("shared mapper, page of " + PAGE_SIZE, PAGES,
+        round -> {
+          List<TripView> page = null;
+          for (int i = 0; i < PAGES; i++) {
+            page = decode(shared, payload);
+          }
+          return page;
+        });
+    Benchmark.Result fresh = Benchmark.measure("new mapper, page of " + PAGE_SIZE, PAGES,
+        round -> {
+          List<TripView> page = null;
+          for (int i = 0; i < PAGES; i++) {
+            page = decode(new ObjectMapper(), payload);
+          }
+          return page;
+        });
+
+    assertEquals(decode(new ObjectMapper(), payload), decode(shared, payload));
+    if (reused.hasAllocations()) {
+      assertTrue(reused.getBytesPerOperation() < fresh.getBytesPerOperation());
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package ru.hse.goodtrip.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import ru.hse.goodtrip.Benchmark;
+import ru.hse.goodtrip.data.model.trips.Coordinates;
+import ru.hse.goodtrip.network.trips.model.CityVisit;
+import ru.hse.goodtrip.network.trips.model.CountryVisit;
+import ru.hse.goodtrip.network.trips.model.Note;
+import ru.hse.goodtrip.network.trips.model.Trip;
+import ru.hse.goodtrip.network.trips.model.TripState;
+
+/**
+ * Decoding of trip straight into its typed model, compared with decoding it into a tree of maps
+ * and converting the tree, as it was done for Call&lt;Object&gt; endpoints.
+ */
+public class TypedDecodingBenchmark {
+
+  private static final int DECODES = 1_000;
+
+  private static Trip trip() {
+    List<CountryVisit> visits = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      List<CityVisit> cities = new ArrayList<>();
+      for (int j = 0; j < 8; j++) {
+        cities.add(new CityVisit(i * 8 + j, "City " + i + "-" + j,
+            new Coordinates(40 + i + j * 0.25, 2 + i * 3 + j * 0.5), i));
+      }
+      visits.add(new CountryVisit(i, "Country " + i, cities, 42));
+    }
+    List<Note> notes = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      notes.add(new Note(i, "Note " + i, "https://photos.example/42/" + i, "Country " + i % 5,
+          "Text of note " + i + " about a long day of walking around the city", 42));
+    }
+    return new Trip(42, 7, "Trip through five countries", 2500, "https://photos.example/42",
+        new Date(1_700_000_000_000L), new Date(1_700_600_000_000L),
+        new Timestamp(1_700_700_000_000L), TripState.PUBLISHED, notes, visits);
+  }
+
+  private static Trip decodeTyped(ObjectMapper mapper, byte[] payload) {
+    try {
+      return mapper.readValue(payload, Trip.class);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static Trip decodeByTree(ObjectMapper mapper, byte[] payload) {
+    try {
+      return mapper.convertValue(mapper.readValue(payload, Object.class), Trip.class);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Test
+  public void typedDecodingSkipsTree() throws IOException {
+    ObjectMapper mapper = NetworkManager.getObjectMapper();
+    byte[] payload = mapper.writeValueAsBytes(trip());
+
+    Benchmark.Result typed = Benchmark.measure("typed trip", DECODES, round -> {
+      Trip trip = null;
+      for (int i = 0; i < DECODES; i++) {
+        trip = decodeTyped(mapper, payload);
+      }
+      return trip;
+    });
+    Benchmark.Result tree = Benchmark.measure("tree and convertValue trip", DECODES, round -> {
+      Trip trip = null;
+      for (int i = 0; i < DECODES; i++) {
+        trip = decodeByTree(mapper, payload);
+      }
+      return trip;
+    });
+
+    assertEquals(decodeByTree(mapper, payload), decodeTyped(mapper, payload));
+    if (typed.hasAllocations()) {
+      assertTrue(typed.getBytesPerOperation() < tree.getBytesPerOperation());
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package ru.hse.goodtrip.network.trips;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import okhttp3.Cache;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.jackson.JacksonConverterFactory;
+import ru.hse.goodtrip.network.NetworkManager;
+import ru.hse.goodtrip.network.trips.model.Trip;
+
+public class TripServiceCacheTest {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+  private final MockWebServer server = new MockWebServer();
+  private Cache cache;
+  private TripService service;
+
+  @Before
+  public void setUp() throws IOException {
+    server.start();
+    cache = new Cache(folder.newFolder("http"), 1024 * 1024);
+    service = new Retrofit.Builder()
+        .baseUrl(server.url("/"))
+        .client(new OkHttpClient.Builder().cache(cache).build())
+        .addConverterFactory(JacksonConverterFactory.create(NetworkManager.getObjectMapper()))
+        .build()
+        .create(TripService.class);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    cache.close();
+    server.shutdown();
+  }
+
+  @Test
+  public void revalidatesUserTripsWithConditionalRequest() throws IOException {
+    server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("[]"));
+    server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+
+    Response<List<Trip>> first = service.getUserTrips(1, "Bearer token").execute();
+    Response<List<Trip>> second = service.getUserTrips(1, "Bearer token").execute();
+
+    assertNull(server.takeRequest().getHeader("If-None-Match"));
+    RecordedRequest revalidation = server.takeRequest();
+    assertEquals("\"v1\"", revalidation.getHeader("If-None-Match"));
+    assertEquals(2, server.getRequestCount());
+
+    assertTrue(first.body().isEmpty());
+    assertTrue(second.body().isEmpty());
+    assertEquals(304, second.raw().networkResponse().code());
+    assertNotNull(second.raw().cacheResponse());
+    assertEquals(1, cache.hitCount());
+  }
+}
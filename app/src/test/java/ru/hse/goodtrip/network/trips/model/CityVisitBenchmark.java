@@ -0,0 +1,94 @@
+package ru.hse.goodtrip.network.trips.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import ru.hse.goodtrip.Benchmark;
+import ru.hse.goodtrip.data.model.trips.Coordinates;
+
+/**
+ * Parse time and allocations of city points read from tokens, compared with reading them through a
+ * tree as it was done before. JTS is not a dependency anymore, so the old path here stops at
+ * boxed coordinates and doesn't create JTS points, its real cost was higher.
+ */
+public class CityVisitBenchmark {
+
+  private static final int CITIES = 10_000;
+  private static final TypeReference<List<CityVisit>> CITY_VISITS =
+      new TypeReference<List<CityVisit>>() {
+      };
+
+  private static byte[] payload(ObjectMapper mapper) throws IOException {
+    List<CityVisit> cities = new ArrayList<>(CITIES);
+    for (int i = 0; i < CITIES; i++) {
+      cities.add(new CityVisit(i, "City " + i,
+          new Coordinates(-60 + i * 0.0137 % 120, -170 + i * 0.0311 % 340), i / 4));
+    }
+    return mapper.writeValueAsBytes(cities);
+  }
+
+  private static List<CityVisit> read(ObjectMapper mapper, byte[] payload) {
+    try {
+      return mapper.readValue(payload, CITY_VISITS);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Test
+  public void streamingPointIsCheaperThanTree() throws IOException {
+    ObjectMapper streaming = new ObjectMapper();
+    ObjectMapper tree = new ObjectMapper().addMixIn(CityVisit.class, TreePointMixIn.class);
+    byte[] payload = payload(streaming);
+
+    Benchmark.Result streamed = Benchmark.measure("streaming point", CITIES,
+        round -> read(streaming, payload));
+    Benchmark.Result parsedByTree = Benchmark.measure("tree point", CITIES,
+        round -> read(tree, payload));
+
+    assertEquals(read(tree, payload), read(streaming, payload));
+    if (streamed.hasAllocations()) {
+      assertTrue(streamed.getBytesPerOperation() < parsedByTree.getBytesPerOperation());
+    }
+  }
+
+  /**
+   * Replaces deserializer of point of {@link CityVisit}.
+   */
+  private abstract static class TreePointMixIn {
+
+    @JsonDeserialize(using = TreePointDeserializer.class)
+    private Coordinates point;
+  }
+
+  /**
+   * Old deserializer of point: reads tree of point and boxes its coordinates.
+   */
+  private static class TreePointDeserializer extends StdDeserializer<Coordinates> {
+
+    TreePointDeserializer() {
+      super(Coordinates.class);
+    }
+
+    @Override
+    public Coordinates deserialize(JsonParser jsonParser,
+        DeserializationContext deserializationContext) throws IOException {
+      JsonNode node = jsonParser.getCodec().readTree(jsonParser);
+      Double x = (Double) node.get("x").numberValue();
+      Double y = (Double) node.get("y").numberValue();
+      return new Coordinates(x, y);
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package ru.hse.goodtrip.network.trips.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import org.junit.Test;
+import ru.hse.goodtrip.data.model.trips.Coordinates;
+
+public class CityVisitTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  @Test
+  public void pointSurvivesRoundTrip() throws IOException {
+    CityVisit visit = new CityVisit(1, "Paris", new Coordinates(48.8566, 2.3522), 4);
+    String json = mapper.writeValueAsString(visit);
+    assertEquals(visit, mapper.readValue(json, CityVisit.class));
+  }
+
+  @Test
+  public void readsPointFromStream() throws IOException {
+    CityVisit visit = mapper.readValue("{\"id\":1,\"city\":\"Lyon\",\"point\":{\"srid\":4326,"
+        + "\"y\":5,\"bounds\":{\"x\":[1,2]},\"x\":45.75},\"countryVisitId\":2}", CityVisit.class);
+    assertEquals(new Coordinates(45.75, 5), visit.getPoint());
+    assertEquals(Integer.valueOf(2), visit.getCountryVisitId());
+  }
+
+  @Test
+  public void readsNullPoint() throws IOException {
+    assertNull(mapper.readValue("{\"city\":\"Nice\",\"point\":null}", CityVisit.class)
+        .getPoint());
+  }
+
+  @Test(expected = JsonMappingException.class)
+  public void rejectsPointWithoutCoordinate() throws IOException {
+    mapper.readValue("{\"city\":\"Nice\",\"point\":{\"x\":43.7}}", CityVisit.class);
+  }
+}